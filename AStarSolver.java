@@ -0,0 +1,80 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A* search over (pillar, extra plank used) states.
+ * States are ordered by g + h, where g is the distance walked so far and h is
+ * Pillar.shortestDistanceTo the end pillar (the Manhattan distance), which never overestimates.
+ * Every step costs 1 and changes h by 1, so g + h either stays the same or grows by 2,
+ * and a BucketQueue with three buckets is enough to order the open set.
+ * @author gmh73
+ *
+ */
+public class AStarSolver extends GridSolver {
+
+	/**
+	 * Constructs an A* solver
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 */
+	public AStarSolver(int n, Set<Plank> layout, Pillar start, Pillar end){
+		super(n, layout, start, end);
+	}
+
+	/**
+	 * Default constructor if no start and end is specified
+	 * Start is (0,0) and end is (n-1,n-1)
+	 * @param n  The length of the grid
+	 * @param layout  A set of planks
+	 */
+	public AStarSolver(int n, Set<Plank> layout){
+		this(n, layout, new Pillar(0,0), new Pillar(n - 1, n - 1));
+	}
+
+	@Override
+	public Path shortestPath(boolean hasPlank) {
+		expanded = 0;
+		int states = 2 * n * n;
+		//g[s] is the shortest distance to s found so far, -1 if s has not been seen yet
+		int[] g = new int[states];
+		Arrays.fill(g, -1);
+		int[] parent = new int[states];
+		boolean[] closed = new boolean[states];
+		BucketQueue open = new BucketQueue(3);
+		int start = 2 * startId;
+		g[start] = 0;
+		parent[start] = -1;
+		open.push(start, manhattan(startId, endId));
+		while(!open.isEmpty()){
+			int f = open.peekPriority();
+			int s = open.pop();
+			int id = s >> 1;
+			//Skip states that were already expanded or pushed again with a shorter g
+			if(closed[s] || g[s] + manhattan(id, endId) != f)
+				continue;
+			closed[s] = true;
+			expanded++;
+			//The heuristic is consistent, so the end pillar is final once it is taken off the queue
+			if(id == endId)
+				return buildPath(parent, s);
+			int used = s & 1;
+			int connected = connections(id);
+			//An unconnected pillar can only be reached by laying the extra plank
+			int reachable = hasPlank && used == 0 ? adjacentDirections(id) : connected;
+			for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1){
+				if((reachable & dir) == 0)
+					continue;
+				int nextId = neighbor(id, dir);
+				int next = 2 * nextId + ((connected & dir) != 0 ? used : 1);
+				if(!closed[next] && (g[next] == -1 || g[s] + 1 < g[next])){
+					g[next] = g[s] + 1;
+					parent[next] = s;
+					open.push(next, g[next] + manhattan(nextId, endId));
+				}
+			}
+		}
+		return noPath();
+	}
+}
@@ -0,0 +1,226 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A Path on an n x n grid kept as a stack of pillar ids and a bitset of the ids in the path,
+ * so adding, removing and checking for a pillar are a few integer operations and allocate nothing.
+ * It is meant for the path a depth first search grows and shrinks while it backtracks.
+ * Pillars outside the grid cannot be added.
+ * @author gmh73
+ *
+ */
+public class ArrayPath extends Path {
+	/* The length and width of the grid of pillars*/
+	private final int n;
+	/* The ids (y*n + x) of the pillars in order from start to current, only the first size are used*/
+	private int[] stack;
+	/* The number of pillars in the path*/
+	private int size;
+	/* Bit id is set if the pillar with that id is in the path*/
+	private final BitSet visited;
+	/* nodes[i] is a snapshot of the first i + 1 pillars, built by snapshot*/
+	private PersistentPath[] nodes;
+	/* The number of nodes that still match the stack*/
+	private int validDepth;
+	/* The interned pillars of the grid, or null to make a pillar each time one is asked for*/
+	private final PillarTable table;
+
+	/**
+	 * Constructs an empty path on an n x n grid
+	 * @param n	the length and width of the grid of pillars
+	 */
+	public ArrayPath(int n){
+		this(n, null);
+	}
+
+	/**
+	 * Constructs an empty path on an n x n grid that hands out the pillars of table
+	 * @param n	the length and width of the grid of pillars
+	 * @param table	the interned pillars of the grid, or null to make a pillar each time one is asked for
+	 */
+	public ArrayPath(int n, PillarTable table){
+		super(-1);
+		if(n < 1)
+			throw new IndexOutOfBoundsException("Given maze size < 0.");
+		if(table != null && table.getLength() != n)
+			throw new IndexOutOfBoundsException("Given pillar table is for another size of maze.");
+		this.n = n;
+		stack = new int[Math.min(16, n * n)];
+		nodes = new PersistentPath[stack.length];
+		size = 0;
+		validDepth = 0;
+		visited = new BitSet(n * n);
+		this.table = table;
+	}
+
+	/**
+	 * Gets the id of a pillar on the grid
+	 * @param p	a pillar
+	 * @return	returns y*n + x, or -1 if p is outside of the grid
+	 */
+	private int id(Pillar p){
+		if(p.getXCor() >= n || p.getYCor() >= n)
+			return -1;
+		return p.getYCor() * n + p.getXCor();
+	}
+
+	/**
+	 * Gets the pillar with the given id
+	 * @param id	a pillar id
+	 * @return	returns the pillar at (id % n, id / n), interned if the grid has a PillarTable
+	 */
+	private Pillar pillar(int id){
+		if(table != null)
+			return table.get(id);
+		return new Pillar(id % n, id / n);
+	}
+
+	/**
+	 * Checks if two pillar ids are next to each other on the grid
+	 * @param a	a pillar id
+	 * @param b	a pillar id
+	 * @return	returns true if a and b are one step apart
+	 */
+	private boolean isAdjacent(int a, int b){
+		int diff = Math.abs(a - b);
+		//Ids one apart are only adjacent if they are on the same row
+		return diff == n || (diff == 1 && a / n == b / n);
+	}
+
+	@Override
+	public void addPillar(Pillar p){
+		if(p == null)
+			throw new NullPointerException("Given input is null.");
+		int id = id(p);
+		if(id < 0)
+			throw new IndexOutOfBoundsException("Given pillar is outside of the maze.");
+		if((size == 0 || isAdjacent(stack[size - 1], id)) && !visited.get(id)){
+			//The stack only grows while the path is longer than it has ever been
+			if(size == stack.length){
+				stack = Arrays.copyOf(stack, Math.min(2 * size, n * n));
+				nodes = Arrays.copyOf(nodes, stack.length);
+			}
+			//The node for this depth, if any, was for a different pillar
+			validDepth = Math.min(validDepth, size);
+			stack[size++] = id;
+			visited.set(id);
+			setDistance(getDistance() + 1);
+		}
+	}
+
+	@Override
+	public boolean containsPillar(Pillar p){
+		if(p == null)
+			return false;
+		int id = id(p);
+		return id >= 0 && visited.get(id);
+	}
+
+	@Override
+	public void removeLastPillar(Pillar lastP){
+		if(size > 0 && id(lastP) == stack[size - 1]){
+			visited.clear(stack[--size]);
+			setDistance(getDistance() - 1);
+		}
+	}
+
+	@Override
+	public Pillar lastPillar(){
+		if(size == 0)
+			return null;
+		return pillar(stack[size - 1]);
+	}
+
+	@Override
+	public void setDistanceToInfinite(){
+		if(size == 0)
+			setDistance(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Empties the path so it can be used again, keeping its buffers
+	 */
+	public void clear(){
+		for(int i = 0; i < size; i++)
+			visited.clear(stack[i]);
+		//Let go of old snapshots, they are no use to the next path
+		Arrays.fill(nodes, 0, validDepth, null);
+		size = 0;
+		validDepth = 0;
+		setDistance(-1);
+		addedPlank = null;
+		morePlanks = null;
+	}
+
+	/**
+	 * Takes an immutable snapshot of this path. Nodes are kept from one snapshot to the next,
+	 * so only the pillars pushed since the last snapshot are built, and a depth first search
+	 * pays O(1) amortized for each improvement it keeps
+	 * @return	a path equal to this one that does not change when this one does
+	 */
+	public Path snapshot(){
+		if(size == 0){
+			Path empty = new Path();
+			if(getDistance() == Integer.MAX_VALUE)
+				empty.setDistanceToInfinite();
+			return empty;
+		}
+		//Nodes hold one plank, so a path with more is copied instead
+		if(morePlanks != null)
+			return copy();
+		for(int i = validDepth; i < size; i++)
+			nodes[i] = new PersistentPath(pillar(stack[i]), i == 0 ? null : nodes[i - 1], null);
+		validDepth = size;
+		//Only the last node's plank counts, so swap it in place when it differs
+		nodes[size - 1] = nodes[size - 1].withPlank(addedPlank);
+		return nodes[size - 1];
+	}
+
+	@Override
+	List<Pillar> pillarList(){
+		List<Pillar> list = new ArrayList<Pillar>(size);
+		for(int i = 0; i < size; i++)
+			list.add(pillar(stack[i]));
+		return list;
+	}
+
+	/**
+	 * A test button for testing
+	 * @author gmh73
+	 *
+	 */
+	public class TestButton{
+		/**
+		 * Returns the stack of pillar ids
+		 * @return	this stack
+		 */
+		public int[] getStack(){
+			return ArrayPath.this.stack;
+		}
+		/**
+		 * Returns the bitset of pillar ids in the path
+		 * @return	this visited
+		 */
+		public BitSet getVisited(){
+			return ArrayPath.this.visited;
+		}
+		/**
+		 * Returns how many snapshot nodes still match the stack
+		 * @return	this validDepth
+		 */
+		public int getValidDepth(){
+			return ArrayPath.this.validDepth;
+		}
+		/**
+		 * Calls isAdjacent
+		 * @param a	a pillar id
+		 * @param b	a pillar id
+		 * @return	true if a and b are adjacent
+		 */
+		public boolean testIsAdjacent(int a, int b){
+			return ArrayPath.this.isAdjacent(a, b);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A quick search for some path to the end, not always the shortest, whose length can seed the
+ * bound of a depth first search so it can prune before it finds its own first path.
+ * Each layer keeps at most width pillars, those closest to the end by Manhattan distance, and a
+ * pillar is never visited twice, so a path found never passes a pillar twice and the search takes
+ * at most n*n layers. A width of 1 is a greedy walk toward the end.
+ * The walk may run into a dead end when the end can be reached, so a path of infinite distance only
+ * means no path was found.
+ * @author gmh73
+ *
+ */
+public class BeamSeed extends GridSolver {
+	/* The most pillars kept in each layer*/
+	private final int width;
+
+	/**
+	 * Constructs a beam search
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 * @param width	the most pillars kept in each layer, 1 for a greedy walk
+	 */
+	public BeamSeed(int n, Set<Plank> layout, Pillar start, Pillar end, int width){
+		super(n, layout, start, end);
+		if(width < 1)
+			throw new IndexOutOfBoundsException("Given beam width < 1.");
+		this.width = width;
+	}
+
+	/**
+	 * Gets the most pillars kept in each layer
+	 * @return	the width of the beam
+	 */
+	public int getWidth(){
+		return width;
+	}
+
+	@Override
+	public Path shortestPath(boolean hasPlank){
+		expanded = 0;
+		int start = 2 * startId;
+		int[] parent = new int[2 * n * n];
+		Arrays.fill(parent, -1);
+		if(startId == endId)
+			return buildPath(parent, start);
+		boolean[] visited = new boolean[n * n];
+		visited[startId] = true;
+		int[] beam = new int[width];
+		int size = 1;
+		beam[0] = start;
+		//Every pillar in the beam can lead to at most four others
+		int[] next = new int[4 * width];
+		int[] from = new int[4 * width];
+		int[] key = new int[4 * width];
+		while(size > 0){
+			int found = 0;
+			for(int b = 0; b < size; b++){
+				int s = beam[b];
+				int id = s >> 1;
+				int used = s & 1;
+				expanded++;
+				int connected = connections(id);
+				//An unconnected pillar can only be reached by laying the extra plank
+				int reachable = hasPlank && used == 0 ? adjacentDirections(id) : connected;
+				for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1){
+					if((reachable & dir) == 0 || visited[neighbor(id, dir)])
+						continue;
+					int to = neighbor(id, dir);
+					int state = 2 * to + ((connected & dir) != 0 ? used : 1);
+					//Closest to the end first, and on a tie the pillar that still has the plank
+					int k = 2 * manhattan(to, endId) + (state & 1);
+					//Insertion sort, which keeps pillars found first ahead on a tie
+					int i = found++;
+					while(i > 0 && key[i - 1] > k){
+						next[i] = next[i - 1];
+						from[i] = from[i - 1];
+						key[i] = key[i - 1];
+						i--;
+					}
+					next[i] = state;
+					from[i] = s;
+					key[i] = k;
+				}
+			}
+			size = 0;
+			for(int i = 0; i < found && size < width; i++){
+				int id = next[i] >> 1;
+				//The same pillar may be reached from two pillars of the beam
+				if(visited[id])
+					continue;
+				visited[id] = true;
+				parent[next[i]] = from[i];
+				if(id == endId)
+					return buildPath(parent, next[i]);
+				beam[size++] = next[i];
+			}
+		}
+		return noPath();
+	}
+}
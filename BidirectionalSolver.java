@@ -0,0 +1,195 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Bidirectional breadth first search over (pillar, extra plank used) states.
+ * The forward search walks out from the start, and the backward search walks out from the end,
+ * where a backward state's flag says whether the rest of the path to the end uses the plank.
+ * A forward state and a backward state on the same pillar join into a path when at most one
+ * of them has used the plank. Each round expands a whole level of whichever side has the
+ * smaller frontier, and the search stops once no path shorter than the best join is possible.
+ * @author gmh73
+ *
+ */
+public class BidirectionalSolver extends GridSolver {
+	/* Distances of the forward and backward states from their sources, -1 if not seen yet*/
+	private int[] distF;
+	private int[] distB;
+	/* Forward parents point back toward the start, backward parents point on toward the end*/
+	private int[] parentF;
+	private int[] parentB;
+	/* Queues of the states each side has seen, in order of distance*/
+	private int[] queueF;
+	private int[] queueB;
+	/* The shortest join found so far, and the forward state it joined at*/
+	private int best;
+	private int bestF;
+	private int bestB;
+	/* true if we may use the additional plank in the current search*/
+	private boolean hasPlank;
+
+	/**
+	 * Constructs a bidirectional solver
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 */
+	public BidirectionalSolver(int n, Set<Plank> layout, Pillar start, Pillar end){
+		super(n, layout, start, end);
+	}
+
+	/**
+	 * Default constructor if no start and end is specified
+	 * Start is (0,0) and end is (n-1,n-1)
+	 * @param n  The length of the grid
+	 * @param layout  A set of planks
+	 */
+	public BidirectionalSolver(int n, Set<Plank> layout){
+		this(n, layout, new Pillar(0,0), new Pillar(n - 1, n - 1));
+	}
+
+	@Override
+	public Path shortestPath(boolean hasPlank) {
+		this.hasPlank = hasPlank;
+		expanded = 0;
+		int states = 2 * n * n;
+		distF = new int[states];
+		distB = new int[states];
+		Arrays.fill(distF, -1);
+		Arrays.fill(distB, -1);
+		parentF = new int[states];
+		parentB = new int[states];
+		queueF = new int[states];
+		queueB = new int[states];
+		best = Integer.MAX_VALUE;
+		bestF = -1;
+		bestB = -1;
+		//head and tail of each queue, and the distance of the last whole level each side has seen
+		int headF = 0;
+		int tailF = 0;
+		int headB = 0;
+		int tailB = 0;
+		int depthF = 0;
+		int depthB = 0;
+		tailF = discover(true, 2 * startId, -1, 0, tailF);
+		tailB = discover(false, 2 * endId, -1, 0, tailB);
+		//Any path of length at most depthF + depthB has been joined already
+		while(best > depthF + depthB && headF < tailF && headB < tailB){
+			if(tailF - headF <= tailB - headB){
+				int levelEnd = tailF;
+				while(headF < levelEnd)
+					tailF = expand(true, queueF[headF++], tailF);
+				depthF++;
+			}else{
+				int levelEnd = tailB;
+				while(headB < levelEnd)
+					tailB = expand(false, queueB[headB++], tailB);
+				depthB++;
+			}
+		}
+		if(best == Integer.MAX_VALUE)
+			return noPath();
+		return joinPath();
+	}
+
+	/**
+	 * Expands one state on one side
+	 * @param forward	true if s is a forward state
+	 * @param s	the state to expand
+	 * @param tail	the tail of that side's queue
+	 * @return	returns the new tail of that side's queue
+	 */
+	private int expand(boolean forward, int s, int tail){
+		int[] dist = forward ? distF : distB;
+		int id = s >> 1;
+		int used = s & 1;
+		expanded++;
+		int connected = connections(id);
+		//Planks are laid the same way in both directions
+		int reachable = hasPlank && used == 0 ? adjacentDirections(id) : connected;
+		for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1){
+			if((reachable & dir) == 0)
+				continue;
+			int next = 2 * neighbor(id, dir) + ((connected & dir) != 0 ? used : 1);
+			if(dist[next] == -1)
+				tail = discover(forward, next, s, dist[s] + 1, tail);
+		}
+		return tail;
+	}
+
+	/**
+	 * Records a newly seen state and tries to join it with the states the other side has seen
+	 * @param forward	true if s is a forward state
+	 * @param s	the newly seen state
+	 * @param parent	the state s was reached from, or -1 for a source
+	 * @param d	the distance of s from its source
+	 * @param tail	the tail of that side's queue
+	 * @return	returns the new tail of that side's queue
+	 */
+	private int discover(boolean forward, int s, int parent, int d, int tail){
+		int[] other = forward ? distB : distF;
+		if(forward){
+			distF[s] = d;
+			parentF[s] = parent;
+			queueF[tail] = s;
+		}else{
+			distB[s] = d;
+			parentB[s] = parent;
+			queueB[tail] = s;
+		}
+		//The other side may join with the plank unused, or used if this side has not used it
+		int plain = s & ~1;
+		tryJoin(forward, s, plain, other);
+		if((s & 1) == 0)
+			tryJoin(forward, s, plain | 1, other);
+		return tail + 1;
+	}
+
+	/**
+	 * Keeps the join of s and o if it is shorter than the best so far
+	 * @param forward	true if s is a forward state
+	 * @param s	a state from one side
+	 * @param o	a state on the same pillar from the other side
+	 * @param other	the distances of the other side
+	 */
+	private void tryJoin(boolean forward, int s, int o, int[] other){
+		if(other[o] == -1)
+			return;
+		int d = (forward ? distF[s] : distB[s]) + other[o];
+		if(d < best){
+			best = d;
+			bestF = forward ? s : o;
+			bestB = forward ? o : s;
+		}
+	}
+
+	/**
+	 * Rebuilds the best joined path from both sides' parent pointers
+	 * @return	returns the path from the start to the end
+	 */
+	private Path joinPath(){
+		int[] ids = new int[best + 1];
+		int plankFrom = -1;
+		int plankTo = -1;
+		//Walk the forward half back to the start
+		int i = distF[bestF];
+		for(int s = bestF; s >= 0; s = parentF[s]){
+			ids[i--] = s >> 1;
+			if((s & 1) == 1 && parentF[s] >= 0 && (parentF[s] & 1) == 0){
+				plankFrom = parentF[s] >> 1;
+				plankTo = s >> 1;
+			}
+		}
+		//Walk the backward half on to the end, skipping the shared pillar
+		i = distF[bestF];
+		for(int s = bestB; parentB[s] >= 0; s = parentB[s]){
+			ids[++i] = parentB[s] >> 1;
+			if((s & 1) == 1 && (parentB[s] & 1) == 0){
+				plankFrom = s >> 1;
+				plankTo = parentB[s] >> 1;
+			}
+		}
+		return buildPath(ids, best + 1, plankFrom, plankTo);
+	}
+}
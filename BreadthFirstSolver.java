@@ -0,0 +1,118 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Breadth first search over the layered state space (pillar, extra plank used).
+ * The search runs backward from the end until it reaches the start, visiting every state at most once,
+ * so a query costs O(n^2) time. The path is then walked forward from the start, breaking ties the way
+ * the depth first search in Maze does, so both return the same Path, added plank included.
+ * @author gmh73
+ *
+ */
+public class BreadthFirstSolver extends GridSolver {
+
+	/**
+	 * Constructs a breadth first solver
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 */
+	public BreadthFirstSolver(int n, Set<Plank> layout, Pillar start, Pillar end){
+		super(n, layout, start, end);
+	}
+
+	/**
+	 * Default constructor if no start and end is specified
+	 * Start is (0,0) and end is (n-1,n-1)
+	 * @param n  The length of the grid
+	 * @param layout  A set of planks
+	 */
+	public BreadthFirstSolver(int n, Set<Plank> layout){
+		this(n, layout, new Pillar(0,0), new Pillar(n - 1, n - 1));
+	}
+
+	@Override
+	public Path shortestPath(boolean hasPlank) {
+		expanded = 0;
+		int states = 2 * n * n;
+		//dist[s] is how many steps state s is from the end pillar, -1 if s has not been seen yet
+		int[] dist = new int[states];
+		Arrays.fill(dist, -1);
+		int[] queue = new int[states];
+		int head = 0;
+		int tail = 0;
+		//Without the plank the search starts as if it had already been laid
+		int start = 2 * startId + (hasPlank ? 0 : 1);
+		//The search runs backward from the end, so the path can be walked forward in the depth first order
+		dist[2 * endId + 1] = 0;
+		queue[tail++] = 2 * endId + 1;
+		if(hasPlank){
+			dist[2 * endId] = 0;
+			queue[tail++] = 2 * endId;
+		}
+		while(head < tail){
+			int s = queue[head++];
+			expanded++;
+			//Every state closer to the end than the start has been seen by the time the start comes off the queue
+			if(s == start)
+				return walkForward(dist, start);
+			int id = s >> 1;
+			int used = s & 1;
+			int connected = connections(id);
+			//A state with the plank used may have laid it on the step into it
+			int reachable = hasPlank && used == 1 ? adjacentDirections(id) : connected;
+			for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1){
+				if((reachable & dir) == 0)
+					continue;
+				int prev = 2 * neighbor(id, dir) + ((connected & dir) != 0 ? used : 0);
+				if(dist[prev] == -1){
+					dist[prev] = dist[s] + 1;
+					queue[tail++] = prev;
+				}
+			}
+		}
+		return noPath();
+	}
+
+	/**
+	 * Walks a shortest path from the start to the end, taking at each pillar the first step in the
+	 * depth first search's order (laying the plank before following the layout, each in the order
+	 * +x, +y, -x, -y) that is one step closer to the end. That is the first shortest path the depth
+	 * first search comes to, so it is the path Maze finds, plank included
+	 * @param dist	how many steps every state is from the end, -1 if it cannot reach the end
+	 * @param start	the start state
+	 * @return	returns the path from the start to the end
+	 */
+	private Path walkForward(int[] dist, int start){
+		int count = dist[start] + 1;
+		int[] ids = new int[count];
+		int plankFrom = -1;
+		int plankTo = -1;
+		int s = start;
+		ids[0] = s >> 1;
+		for(int i = 1; i < count; i++){
+			int id = s >> 1;
+			int used = s & 1;
+			int connected = connections(id);
+			int next = -1;
+			//Laying the plank comes first, onto a pillar the layout does not join to this one
+			if(used == 0){
+				int gaps = adjacentDirections(id) & ~connected;
+				for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y && next < 0; dir <<= 1)
+					if((gaps & dir) != 0 && dist[2 * neighbor(id, dir) + 1] == dist[s] - 1)
+						next = 2 * neighbor(id, dir) + 1;
+			}
+			for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y && next < 0; dir <<= 1)
+				if((connected & dir) != 0 && dist[2 * neighbor(id, dir) + used] == dist[s] - 1)
+					next = 2 * neighbor(id, dir) + used;
+			if((next & 1) != used){
+				plankFrom = id;
+				plankTo = next >> 1;
+			}
+			s = next;
+			ids[i] = s >> 1;
+		}
+		return buildPath(ids, count, plankFrom, plankTo);
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * A monotone priority queue of int items with small int priorities.
+ * Every pushed priority must be at least the last popped priority and less than it plus span
+ * (an empty queue moves to any priority pushed outside of that window),
+ * so a circular array of span buckets is all that is needed. A bucket's stack is only made
+ * the first time an item is pushed into it, so a wide span costs two arrays of span entries
+ * up front. Items with the same priority come out last in, first out.
+ * @author gmh73
+ *
+ */
+public class BucketQueue {
+	/* One stack of items per priority, indexed by priority % span, null until an item is pushed into it*/
+	private int[][] buckets;
+	/* How many items are in each stack*/
+	private int[] sizes;
+	/* The lowest priority that may still be in the queue*/
+	private int current;
+	/* The total number of items in the queue*/
+	private int count;
+
+	/**
+	 * Constructs an empty queue
+	 * @param span	one more than the largest difference between a pushed priority and the last popped priority
+	 */
+	public BucketQueue(int span){
+		if(span < 1)
+			throw new IndexOutOfBoundsException("Given span < 1.");
+		buckets = new int[span][];
+		sizes = new int[span];
+		current = 0;
+		count = 0;
+	}
+
+	/**
+	 * Adds an item to the queue
+	 * @param item	an item
+	 * @param priority	the priority of item, between the last popped priority and that plus span - 1
+	 */
+	public void push(int item, int priority){
+		//An empty queue can move its window to any priority
+		if(count == 0 && (priority < current || priority - current >= buckets.length))
+			current = priority;
+		if(priority < current || priority - current >= buckets.length)
+			throw new IndexOutOfBoundsException("Given priority is outside of the queue's span.");
+		int b = priority % buckets.length;
+		if(buckets[b] == null)
+			buckets[b] = new int[16];
+		else if(sizes[b] == buckets[b].length){
+			int[] bigger = new int[2 * sizes[b]];
+			System.arraycopy(buckets[b], 0, bigger, 0, sizes[b]);
+			buckets[b] = bigger;
+		}
+		buckets[b][sizes[b]++] = item;
+		count++;
+	}
+
+	/**
+	 * Removes an item with the lowest priority
+	 * @return	returns the removed item
+	 */
+	public int pop(){
+		if(count == 0)
+			throw new IllegalStateException("Queue is empty.");
+		while(sizes[current % buckets.length] == 0)
+			current++;
+		count--;
+		int b = current % buckets.length;
+		return buckets[b][--sizes[b]];
+	}
+
+	/**
+	 * Gets the priority of the item pop would remove next
+	 * @return	the lowest priority in the queue
+	 */
+	public int peekPriority(){
+		if(count == 0)
+			throw new IllegalStateException("Queue is empty.");
+		while(sizes[current % buckets.length] == 0)
+			current++;
+		return current;
+	}
+
+	/**
+	 * Checks if the queue is empty
+	 * @return	returns true if there are no items
+	 */
+	public boolean isEmpty(){
+		return count == 0;
+	}
+
+	/**
+	 * Removes every item and starts the priorities over from 0
+	 */
+	public void clear(){
+		for(int i = 0; i < sizes.length; i++)
+			sizes[i] = 0;
+		current = 0;
+		count = 0;
+	}
+}
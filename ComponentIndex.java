@@ -0,0 +1,198 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The connected components of a layout, found once with union-find, as an int label per pillar id.
+ * Two pillars with the same label are joined by planks in the layout. The pairs of components that
+ * touch across a gap with no plank are kept in a sorted array, so whether one extra plank could
+ * join two components is a binary search.
+ * A search uses it to give up at once on queries that cannot be answered, and to only lay the extra
+ * plank onto the end's component, since after laying it a path can only follow the layout.
+ * @author gmh73
+ *
+ */
+public class ComponentIndex extends GridSearch {
+	/* The component of every pillar id, numbered from 0 in order of their lowest id*/
+	private final int[] label;
+	/* The number of components*/
+	private final int count;
+	/* Every pair of different components next to each other across a gap, as low << 32 | high, sorted*/
+	private final long[] gaps;
+
+	/**
+	 * Labels the components of a layout
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 */
+	public ComponentIndex(int n, Set<Plank> layout){
+		super(n, layout);
+		int size = n * n;
+		int[] root = new int[size];
+		int[] rank = new int[size];
+		for(int id = 0; id < size; id++)
+			root[id] = id;
+		//Each plank is seen once, from the pillar at its lower x or y
+		for(int id = 0; id < size; id++){
+			int connected = connections(id);
+			if((connected & Pillar.PLUS_X) != 0)
+				union(root, rank, id, id + 1);
+			if((connected & Pillar.PLUS_Y) != 0)
+				union(root, rank, id, id + n);
+		}
+		label = new int[size];
+		//The ranks are done with, so they hold each root's label from here on
+		int[] rootLabel = rank;
+		Arrays.fill(rootLabel, -1);
+		int next = 0;
+		for(int id = 0; id < size; id++){
+			int r = find(root, id);
+			if(rootLabel[r] == -1)
+				rootLabel[r] = next++;
+			label[id] = rootLabel[r];
+		}
+		count = next;
+		gaps = findGaps();
+	}
+
+	/**
+	 * Finds the root of an id's set, pointing every id on the way at its grandparent
+	 * @param root	the parent of every id, roots are their own parent
+	 * @param id	a pillar id
+	 * @return	returns the root of id's set
+	 */
+	private static int find(int[] root, int id){
+		while(root[id] != id){
+			root[id] = root[root[id]];
+			id = root[id];
+		}
+		return id;
+	}
+
+	/**
+	 * Joins the sets of two ids, hanging the lower ranked root under the other
+	 * @param root	the parent of every id
+	 * @param rank	a bound on the height of every root's tree
+	 * @param a	a pillar id
+	 * @param b	a pillar id
+	 */
+	private static void union(int[] root, int[] rank, int a, int b){
+		int ra = find(root, a);
+		int rb = find(root, b);
+		if(ra == rb)
+			return;
+		if(rank[ra] < rank[rb]){
+			int t = ra;
+			ra = rb;
+			rb = t;
+		}
+		root[rb] = ra;
+		if(rank[ra] == rank[rb])
+			rank[ra]++;
+	}
+
+	/**
+	 * Finds every pair of different components that one extra plank could join
+	 * @return	returns the pairs as low << 32 | high, sorted and without repeats
+	 */
+	private long[] findGaps(){
+		int size = n * n;
+		long[] pairs = new long[16];
+		int found = 0;
+		for(int id = 0; id < size; id++){
+			int gapped = adjacentDirections(id) & ~connections(id);
+			for(int dir = Pillar.PLUS_X; dir <= Pillar.PLUS_Y; dir <<= 1){
+				if((gapped & dir) == 0)
+					continue;
+				int a = label[id];
+				int b = label[neighbor(id, dir)];
+				if(a == b)
+					continue;
+				if(found == pairs.length)
+					pairs = Arrays.copyOf(pairs, 2 * found);
+				pairs[found++] = pairOf(a, b);
+			}
+		}
+		Arrays.sort(pairs, 0, found);
+		int unique = 0;
+		for(int i = 0; i < found; i++)
+			if(unique == 0 || pairs[unique - 1] != pairs[i])
+				pairs[unique++] = pairs[i];
+		return Arrays.copyOf(pairs, unique);
+	}
+
+	/**
+	 * Packs two component labels, lowest first
+	 * @param a	a label
+	 * @param b	another label
+	 * @return	returns min << 32 | max
+	 */
+	private static long pairOf(int a, int b){
+		return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+	}
+
+	/**
+	 * Gets the length of the grid
+	 * @return	the length and width of grid of pillars
+	 */
+	public int getLength(){
+		return n;
+	}
+
+	/**
+	 * Gets the number of components
+	 * @return	the number of different labels
+	 */
+	public int getComponentCount(){
+		return count;
+	}
+
+	/**
+	 * Gets the component of a pillar
+	 * @param id	a pillar id
+	 * @return	returns the label of id's component
+	 */
+	public int label(int id){
+		return label[id];
+	}
+
+	/**
+	 * Gets the component of every pillar, as a new array
+	 * @return	returns the labels indexed by pillar id
+	 */
+	public int[] getLabels(){
+		return label.clone();
+	}
+
+	/**
+	 * Checks if two pillars are joined by planks in the layout
+	 * @param a	a pillar id
+	 * @param b	a pillar id
+	 * @return	returns true if a and b are in the same component
+	 */
+	public boolean sameComponent(int a, int b){
+		return label[a] == label[b];
+	}
+
+	/**
+	 * Checks if one extra plank laid across a gap could join two components
+	 * @param a	a component label
+	 * @param b	a component label
+	 * @return	returns true if a and b are the same or some pillars of them are next to each other
+	 */
+	public boolean canBridge(int a, int b){
+		return a == b || Arrays.binarySearch(gaps, pairOf(a, b)) >= 0;
+	}
+
+	/**
+	 * Checks if there is any path between two pillars
+	 * @param a	a pillar id
+	 * @param b	a pillar id
+	 * @param hasPlank	true if the path may lay the extra plank
+	 * @return	returns true if a path exists
+	 */
+	public boolean canReach(int a, int b, boolean hasPlank){
+		if(label[a] == label[b])
+			return true;
+		return hasPlank && canBridge(label[a], label[b]);
+	}
+}
@@ -0,0 +1,124 @@
+import java.util.Arrays;
+
+/**
+ * Dijkstra's search over the layered state space (pillar, extra plank used) of a WeightedLayout.
+ * A step along a plank costs that plank's cost, and the step that lays the extra plank costs
+ * the layout's plank cost. Every cost is a positive int of at most WeightedLayout.MAX_COST, so the queue
+ * is a BucketQueue with one bucket per possible step cost (Dial's algorithm) and each push and pop is O(1).
+ * The queue is sized by the largest cost in the layout, not by MAX_COST.
+ * The distance, parent and queue arrays are kept from one query to the next,
+ * so expanding a state allocates nothing.
+ * @author gmh73
+ *
+ */
+public class DijkstraSolver extends GridSolver {
+	/* The layout and its costs*/
+	private final WeightedLayout weights;
+	/* The cost of the cheapest way found to every state (2*id + used), Integer.MAX_VALUE if none yet*/
+	private final int[] cost;
+	/* The state every state was reached from, -1 for the start and unreached states*/
+	private final int[] parent;
+	/* The states waiting to be expanded, by cost*/
+	private BucketQueue queue;
+	/* The number of buckets in queue*/
+	private int span;
+	/* The cost of the path the last search found, Integer.MAX_VALUE if there was none*/
+	private int pathCost;
+
+	/**
+	 * Constructs a Dijkstra solver
+	 * @param weights	the weighted layout of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 */
+	public DijkstraSolver(WeightedLayout weights, Pillar start, Pillar end){
+		super(lengthOf(weights), weights, start, end);
+		this.weights = weights;
+		cost = new int[2 * n * n];
+		parent = new int[2 * n * n];
+		pathCost = Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Default constructor if no start and end is specified
+	 * Start is (0,0) and end is (n-1,n-1)
+	 * @param weights	the weighted layout of planks in the grid
+	 */
+	public DijkstraSolver(WeightedLayout weights){
+		this(weights, new Pillar(0,0), new Pillar(lengthOf(weights) - 1, lengthOf(weights) - 1));
+	}
+
+	/**
+	 * Gets the length of a weighted layout, checking it is there first
+	 * @param weights	a weighted layout
+	 * @return	returns the length and width of its grid
+	 */
+	private static int lengthOf(WeightedLayout weights){
+		if(weights == null)
+			throw new NullPointerException("Given input is null.");
+		return weights.getLength();
+	}
+
+	/**
+	 * Gets the cost of the path the last search found
+	 * @return	the total cost of the last path, or Integer.MAX_VALUE if there was none
+	 */
+	public int getPathCost(){
+		return pathCost;
+	}
+
+	@Override
+	public Path shortestPath(boolean hasPlank) {
+		expanded = 0;
+		pathCost = Integer.MAX_VALUE;
+		//Costs may have gone up since the last query, and a bucket queue needs a bucket for every step cost
+		if(queue == null || span != weights.getMaxCost() + 1){
+			span = weights.getMaxCost() + 1;
+			queue = new BucketQueue(span);
+		}else
+			queue.clear();
+		Arrays.fill(cost, Integer.MAX_VALUE);
+		Arrays.fill(parent, -1);
+		int plankCost = weights.getPlankCost();
+		int start = 2 * startId;
+		cost[start] = 0;
+		queue.push(start, 0);
+		while(!queue.isEmpty()){
+			int c = queue.peekPriority();
+			int s = queue.pop();
+			//A state is pushed again each time it gets cheaper, so skip the older entries
+			if(c != cost[s])
+				continue;
+			int id = s >> 1;
+			int used = s & 1;
+			expanded++;
+			//The first time we take the end pillar off the queue it is as cheap as it gets
+			if(id == endId){
+				pathCost = c;
+				return buildPath(parent, s);
+			}
+			boolean canLay = hasPlank && used == 0;
+			int adjacent = adjacentDirections(id);
+			for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1){
+				if((adjacent & dir) == 0)
+					continue;
+				int step = weights.stepCost(id, dir);
+				int next;
+				if(step != 0)
+					next = 2 * neighbor(id, dir) + used;
+				else if(canLay){
+					//An unconnected pillar can only be reached by laying the extra plank
+					next = 2 * neighbor(id, dir) + 1;
+					step = plankCost;
+				}else
+					continue;
+				if(c + step < cost[next]){
+					cost[next] = c + step;
+					parent[next] = s;
+					queue.push(next, c + step);
+				}
+			}
+		}
+		return noPath();
+	}
+}
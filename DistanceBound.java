@@ -0,0 +1,59 @@
+import java.util.Set;
+
+/**
+ * The exact distance from every pillar to the end, with and without the extra plank, found by one
+ * breadth first sweep from the end before a depth first search starts.
+ * Steps can be walked either way, so the sweep from the end gives the distance to the end. A branch
+ * whose path so far plus the distance still to go is not shorter than the best path found cannot
+ * give a shorter one, so the search can cut it without changing which path it returns.
+ * @author gmh73
+ *
+ */
+public class DistanceBound {
+	/* The distance to the end of every pillar id without laying the plank, or Integer.MAX_VALUE*/
+	private final int[] free;
+	/* The distance to the end of every pillar id laying the plank at most once, or Integer.MAX_VALUE*/
+	private final int[] any;
+
+	/**
+	 * Sweeps the grid from the end
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param end	the end point
+	 */
+	public DistanceBound(int n, Set<Plank> layout, Pillar end){
+		DistanceMap map = new DistanceMap(n, layout, end, true);
+		//Walked backwards, a way to the end that lays no plank stays in the plank-free layer of the sweep
+		free = map.getDistances(false);
+		int[] planked = map.getDistances(true);
+		any = new int[free.length];
+		for(int id = 0; id < free.length; id++){
+			if(free[id] == -1)
+				free[id] = Integer.MAX_VALUE;
+			any[id] = planked[id] == -1 ? free[id] : Math.min(free[id], planked[id]);
+		}
+	}
+
+	/**
+	 * Gets the length of the shortest way from a pillar to the end
+	 * @param id	a pillar id
+	 * @param hasPlank	true if the extra plank may still be laid
+	 * @return	returns the distance, or Integer.MAX_VALUE if the end cannot be reached
+	 */
+	public int remaining(int id, boolean hasPlank){
+		return hasPlank ? any[id] : free[id];
+	}
+
+	/**
+	 * Checks if a path that has reached a pillar could still end shorter than the best path
+	 * @param length	the length of the path so far
+	 * @param id	the pillar id the path is at
+	 * @param hasPlank	true if the extra plank may still be laid
+	 * @param best	the length of the best path found, Integer.MAX_VALUE if there is none
+	 * @return	returns true if the branch is worth searching
+	 */
+	public boolean canImprove(int length, int id, boolean hasPlank, int best){
+		int left = remaining(id, hasPlank);
+		return left != Integer.MAX_VALUE && (long) length + left < best;
+	}
+}
@@ -0,0 +1,136 @@
+import java.util.Set;
+
+/**
+ * Finds the best place for the extra plank from two distance fields.
+ * One plank free breadth first sweep is run from the start and one from the end,
+ * then every adjacent pair of pillars u, v that is not in the layout is scored with
+ * d_s(u) + 1 + d_t(v). The smallest score (or d_s(end), if that is smaller) is the shortest path.
+ * @author gmh73
+ *
+ */
+public class DistanceFieldSolver extends GridSolver {
+
+	/**
+	 * Constructs a distance field solver
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 */
+	public DistanceFieldSolver(int n, Set<Plank> layout, Pillar start, Pillar end){
+		super(n, layout, start, end);
+	}
+
+	/**
+	 * Default constructor if no start and end is specified
+	 * Start is (0,0) and end is (n-1,n-1)
+	 * @param n  The length of the grid
+	 * @param layout  A set of planks
+	 */
+	public DistanceFieldSolver(int n, Set<Plank> layout){
+		this(n, layout, new Pillar(0,0), new Pillar(n - 1, n - 1));
+	}
+
+	@Override
+	public Path shortestPath(boolean hasPlank) {
+		expanded = 0;
+		int size = n * n;
+		int[] distS = new int[size];
+		int[] parentS = new int[size];
+		sweep(startId, distS, parentS);
+		//Without the plank the forward sweep already has the answer
+		if(!hasPlank){
+			if(distS[endId] == -1)
+				return noPath();
+			return joinPath(parentS, null, endId, -1);
+		}
+		int[] distT = new int[size];
+		int[] parentT = new int[size];
+		sweep(endId, distT, parentT);
+		//Start with the plank free path, if there is one
+		int best = distS[endId] == -1 ? Integer.MAX_VALUE : distS[endId];
+		int bestFrom = -1;
+		int bestTo = -1;
+		//Look at every missing plank once, from whichever side makes it shorter
+		for(int id = 0; id < size; id++){
+			int x = id % n;
+			int y = id / n;
+			if(x != n - 1 && !isConnected(id, id + 1)){
+				int d = score(distS, distT, id, id + 1);
+				if(d < best){
+					best = d;
+					bestFrom = id;
+					bestTo = id + 1;
+				}
+				d = score(distS, distT, id + 1, id);
+				if(d < best){
+					best = d;
+					bestFrom = id + 1;
+					bestTo = id;
+				}
+			}
+			if(y != n - 1 && !isConnected(id, id + n)){
+				int d = score(distS, distT, id, id + n);
+				if(d < best){
+					best = d;
+					bestFrom = id;
+					bestTo = id + n;
+				}
+				d = score(distS, distT, id + n, id);
+				if(d < best){
+					best = d;
+					bestFrom = id + n;
+					bestTo = id;
+				}
+			}
+		}
+		if(best == Integer.MAX_VALUE)
+			return noPath();
+		if(bestFrom == -1)
+			return joinPath(parentS, null, endId, -1);
+		return joinPath(parentS, parentT, bestFrom, bestTo);
+	}
+
+	/**
+	 * Length of the path that walks to from, lays the plank to to, and walks on to the end
+	 * @param distS	distances from the start
+	 * @param distT	distances from the end
+	 * @param from	the pillar id the plank leaves from
+	 * @param to	the pillar id the plank arrives at
+	 * @return	returns the length, or Integer.MAX_VALUE if either half is unreachable
+	 */
+	private int score(int[] distS, int[] distT, int from, int to){
+		if(distS[from] == -1 || distT[to] == -1)
+			return Integer.MAX_VALUE;
+		return distS[from] + 1 + distT[to];
+	}
+
+	/**
+	 * Rebuilds a path from the parent pointers of both sweeps
+	 * @param parentS	parents from the start sweep, which point back toward the start
+	 * @param parentT	parents from the end sweep, which point on toward the end, or null if no plank is used
+	 * @param from	the last pillar reached from the start
+	 * @param to	the first pillar of the part leading to the end, or -1 if no plank is used
+	 * @return	returns the joined path
+	 */
+	private Path joinPath(int[] parentS, int[] parentT, int from, int to){
+		int count = 0;
+		for(int id = from; id != -1; id = parentS[id])
+			count++;
+		int firstHalf = count;
+		if(to != -1){
+			for(int id = to; id != -1; id = parentT[id])
+				count++;
+		}
+		int[] ids = new int[count];
+		int i = firstHalf;
+		for(int id = from; id != -1; id = parentS[id])
+			ids[--i] = id;
+		i = firstHalf;
+		if(to != -1){
+			for(int id = to; id != -1; id = parentT[id])
+				ids[i++] = id;
+		}
+		return buildPath(ids, count, to == -1 ? -1 : from, to);
+	}
+}
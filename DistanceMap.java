@@ -0,0 +1,170 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The distance from one source pillar to every state (pillar, extra plank used) of the grid,
+ * found by one breadth first sweep, with the parent of every state so a shortest path
+ * to any pillar can be built when it is asked for.
+ * The distances and parents can be exported as arrays indexed by pillar id, one pair of arrays for
+ * paths that never lay the extra plank and one for paths that have laid it. The layer of a parent
+ * follows from the layout: a step along a plank in the layout stays in its layer, and any other
+ * step is the one that lays the extra plank. A pillar that is closer without the plank may be
+ * reached in the plank layer by a route that passes some pillar twice, so only the closer layer
+ * of a pillar is ever built into a Path.
+ * @author gmh73
+ *
+ */
+public class DistanceMap extends GridSearch {
+	/* The id of the source pillar*/
+	private final int sourceId;
+	/* true if the sweep could lay the extra plank*/
+	private final boolean hasPlank;
+	/* The distance to every state (2*id + used), or -1 if it cannot be reached*/
+	private final int[] dist;
+	/* The state every state was reached from, -1 for the source and unreached states*/
+	private final int[] parent;
+
+	/**
+	 * Sweeps the grid from source
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param source	the pillar to measure from
+	 * @param hasPlank	true if paths may lay the extra plank
+	 */
+	public DistanceMap(int n, Set<Plank> layout, Pillar source, boolean hasPlank){
+		super(n, layout);
+		checkOnGrid(source);
+		sourceId = id(source);
+		this.hasPlank = hasPlank;
+		int states = 2 * n * n;
+		dist = new int[states];
+		parent = new int[states];
+		Arrays.fill(dist, -1);
+		Arrays.fill(parent, -1);
+		sweepStates();
+	}
+
+	/**
+	 * Breadth first search over every state reachable from the source
+	 */
+	private void sweepStates(){
+		int[] queue = new int[dist.length];
+		int head = 0;
+		int tail = 0;
+		int start = 2 * sourceId;
+		dist[start] = 0;
+		queue[tail++] = start;
+		while(head < tail){
+			int s = queue[head++];
+			int id = s >> 1;
+			int used = s & 1;
+			expanded++;
+			int connected = connections(id);
+			//An unconnected pillar can only be reached by laying the extra plank
+			int reachable = hasPlank && used == 0 ? adjacentDirections(id) : connected;
+			for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1){
+				if((reachable & dir) == 0)
+					continue;
+				int next = 2 * neighbor(id, dir) + ((connected & dir) != 0 ? used : 1);
+				if(dist[next] == -1){
+					dist[next] = dist[s] + 1;
+					parent[next] = s;
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the state a shortest path to a pillar ends in
+	 * @param id	a pillar id
+	 * @return	returns the closer of the two states of the pillar, preferring no plank on a tie, or -1 if neither is reached
+	 */
+	private int bestState(int id){
+		int free = dist[2 * id];
+		int planked = dist[2 * id + 1];
+		if(planked == -1 || (free != -1 && free <= planked))
+			return free == -1 ? -1 : 2 * id;
+		return 2 * id + 1;
+	}
+
+	/**
+	 * Gets the source pillar
+	 * @return	the pillar distances are measured from
+	 */
+	public Pillar getSource(){
+		return pillar(sourceId);
+	}
+
+	/**
+	 * Gets the length of the grid
+	 * @return	the length and width of grid of pillars
+	 */
+	public int getLength(){
+		return n;
+	}
+
+	/**
+	 * Gets the distance to every pillar in one layer, as a new array
+	 * @param plankUsed	true for paths that have laid the extra plank, false for paths that have not
+	 * @return	returns the distances indexed by pillar id (y*n + x), -1 where the layer cannot be reached
+	 */
+	public int[] getDistances(boolean plankUsed){
+		int used = plankUsed ? 1 : 0;
+		int[] layer = new int[n * n];
+		for(int id = 0; id < layer.length; id++)
+			layer[id] = dist[2 * id + used];
+		return layer;
+	}
+
+	/**
+	 * Gets the previous pillar on a shortest path to every pillar in one layer, as a new array
+	 * @param plankUsed	true for paths that have laid the extra plank, false for paths that have not
+	 * @return	returns the parent pillar ids indexed by pillar id, -1 for the source and where the layer cannot be reached
+	 */
+	public int[] getParents(boolean plankUsed){
+		int used = plankUsed ? 1 : 0;
+		int[] layer = new int[n * n];
+		for(int id = 0; id < layer.length; id++){
+			int p = parent[2 * id + used];
+			layer[id] = p == -1 ? -1 : p >> 1;
+		}
+		return layer;
+	}
+
+	/**
+	 * Gets the shortest distance from the source to a pillar
+	 * @param target	a pillar on the grid
+	 * @return	returns the distance, or Integer.MAX_VALUE if target cannot be reached
+	 */
+	public int distanceTo(Pillar target){
+		checkOnGrid(target);
+		int s = bestState(id(target));
+		return s == -1 ? Integer.MAX_VALUE : dist[s];
+	}
+
+	/**
+	 * Gets the shortest distance from the source to a pillar in one layer
+	 * @param target	a pillar on the grid
+	 * @param plankUsed	true for paths that have laid the extra plank, false for paths that have not
+	 * @return	returns the distance, or Integer.MAX_VALUE if target cannot be reached in that layer
+	 */
+	public int distanceTo(Pillar target, boolean plankUsed){
+		checkOnGrid(target);
+		int d = dist[2 * id(target) + (plankUsed ? 1 : 0)];
+		return d == -1 ? Integer.MAX_VALUE : d;
+	}
+
+	/**
+	 * Builds a shortest path from the source to a pillar
+	 * @param target	a pillar on the grid
+	 * @return	returns the path, or a path of infinite distance if target cannot be reached
+	 */
+	public Path pathTo(Pillar target){
+		checkOnGrid(target);
+		int s = bestState(id(target));
+		if(s == -1)
+			return noPath();
+		return buildPath(parent, s);
+	}
+}
@@ -0,0 +1,271 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Common base for searches over the n x n grid by pillar id rather than by Pillar objects.
+ * A pillar at (x,y) has the id y*n + x, and a search state is a pillar id paired with
+ * a flag saying whether the extra plank has been used (state = 2*id + used).
+ * @author gmh73
+ *
+ */
+public abstract class GridSearch {
+	/* The length and width of the grid of pillars*/
+	protected final int n;
+	/* The set of planks in the grid*/
+	protected final Set<Plank> layout;
+	/* The layout as a PlankIndex of this size, or null if it is some other kind of set*/
+	private final PlankIndex index;
+	/* The interned pillars of this grid, or null until they are first asked for or if the grid is too big for a table*/
+	private PillarTable table;
+	/* How many states the last search took off its queue*/
+	protected int expanded;
+
+	/**
+	 * Constructs a search over an n x n grid
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 */
+	protected GridSearch(int n, Set<Plank> layout){
+		this(n, layout, null);
+	}
+
+	/**
+	 * Constructs a search over an n x n grid that takes its pillars from a table it shares with its owner
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param table	the interned pillars of the grid, or null to make a table the first time one is needed
+	 */
+	protected GridSearch(int n, Set<Plank> layout, PillarTable table){
+		if(n < 1)
+			throw new IndexOutOfBoundsException("Given maze size < 0.");
+		if(layout == null)
+			throw new NullPointerException("Given input is null.");
+		this.n = n;
+		this.layout = layout;
+		if(table != null && table.getLength() != n)
+			throw new IndexOutOfBoundsException("Given pillar table is for another size of maze.");
+		this.table = table;
+		index = layout instanceof PlankIndex && ((PlankIndex) layout).getLength() == n ? (PlankIndex) layout : null;
+	}
+
+	/**
+	 * Throws exception if a pillar is null or off the grid
+	 * @param p	a pillar
+	 */
+	protected void checkOnGrid(Pillar p){
+		if(p == null)
+			throw new NullPointerException("Given input is null.");
+		if(p.getXCor() >= n || p.getYCor() >= n)
+			throw new IndexOutOfBoundsException("Given pillar is outside of the maze.");
+	}
+
+	/**
+	 * Gets how many states the last search expanded, for comparing solvers
+	 * @return	the number of states taken off the queue by the last search
+	 */
+	public int getExpandedStates(){
+		return expanded;
+	}
+
+	/**
+	 * Gets the id of a pillar
+	 * @param p	a pillar in the grid
+	 * @return	returns y*n + x
+	 */
+	protected int id(Pillar p){
+		return p.getYCor() * n + p.getXCor();
+	}
+
+	/**
+	 * Gets the pillar with the given id
+	 * @param id	a pillar id
+	 * @return	returns the pillar at (id % n, id / n), interned if the grid has a PillarTable
+	 */
+	protected Pillar pillar(int id){
+		PillarTable t = pillars();
+		if(t != null)
+			return t.get(id);
+		return new Pillar(id % n, id / n);
+	}
+
+	/**
+	 * Gets the interned pillars of this grid, making them the first time they are asked for
+	 * @return	the table of this search, or null if the grid is too big for a table
+	 */
+	protected PillarTable pillars(){
+		//Two threads may both make a table, which is harmless since pillars are equal by value
+		if(table == null && PillarTable.hasTable(n))
+			table = new PillarTable(n);
+		return table;
+	}
+
+	/**
+	 * Checks if there is a plank in the layout between two adjacent pillars
+	 * @param a	a pillar id
+	 * @param b	an adjacent pillar id
+	 * @return	returns true if the layout connects a and b
+	 */
+	protected boolean isConnected(int a, int b){
+		//A PlankGrid or PlankSet can answer by id instead of building a Plank
+		if(index != null)
+			return index.isConnected(a, b);
+		return layout.contains(plank(a, b));
+	}
+
+	/**
+	 * Gets the plank between two adjacent pillars
+	 * @param a	a pillar id
+	 * @param b	an adjacent pillar id
+	 * @return	returns the plank joining a and b, interned if the grid has a PillarTable
+	 */
+	protected Plank plank(int a, int b){
+		PillarTable t = pillars();
+		if(t != null)
+			return t.getPlank(a, b);
+		return new Plank(pillar(a), pillar(b));
+	}
+
+	/**
+	 * Gets the directions of the pillars joined to id by a plank in the layout,
+	 * from Pillar.adjoiningDirections, so nothing is allocated for a PlankGrid or PlankSet
+	 * @param id	a pillar id
+	 * @return	returns a mask of Pillar.PLUS_X, PLUS_Y, MINUS_X and MINUS_Y
+	 */
+	protected int connections(int id){
+		return pillar(id).adjoiningDirections(false, layout, n - 1);
+	}
+
+	/**
+	 * Gets the directions of all pillars adjacent to id, whether joined or not
+	 * @param id	a pillar id
+	 * @return	returns a mask of Pillar.PLUS_X, PLUS_Y, MINUS_X and MINUS_Y
+	 */
+	protected int adjacentDirections(int id){
+		int x = id % n;
+		int y = id / n;
+		int directions = 0;
+		if(x != n - 1)
+			directions |= Pillar.PLUS_X;
+		if(y != n - 1)
+			directions |= Pillar.PLUS_Y;
+		if(x != 0)
+			directions |= Pillar.MINUS_X;
+		if(y != 0)
+			directions |= Pillar.MINUS_Y;
+		return directions;
+	}
+
+	/**
+	 * Gets the id of the pillar one step from id
+	 * @param id	a pillar id
+	 * @param direction	one of Pillar.PLUS_X, PLUS_Y, MINUS_X or MINUS_Y
+	 * @return	returns the id of the pillar in that direction
+	 */
+	protected int neighbor(int id, int direction){
+		switch(direction){
+		case Pillar.PLUS_X:
+			return id + 1;
+		case Pillar.PLUS_Y:
+			return id + n;
+		case Pillar.MINUS_X:
+			return id - 1;
+		default:
+			return id - n;
+		}
+	}
+
+	/**
+	 * Manhattan distance between two pillar ids
+	 * @param a	a pillar id
+	 * @param b	a pillar id
+	 * @return	returns the shortest possible distance from a to b
+	 */
+	protected int manhattan(int a, int b){
+		return Math.abs(a % n - b % n) + Math.abs(a / n - b / n);
+	}
+
+	/**
+	 * Breadth first search from source along the planks in the layout only,
+	 * recording how far every pillar is from source and which pillar led to it
+	 * @param source	the pillar id to search from
+	 * @param dist	filled with the distance to every pillar, or -1 if unreachable
+	 * @param parent	filled with the previous pillar on a shortest path, or -1 for source and unreachable pillars
+	 */
+	protected void sweep(int source, int[] dist, int[] parent){
+		Arrays.fill(dist, -1);
+		Arrays.fill(parent, -1);
+		int[] queue = new int[n * n];
+		int head = 0;
+		int tail = 0;
+		dist[source] = 0;
+		queue[tail++] = source;
+		while(head < tail){
+			int id = queue[head++];
+			expanded++;
+			int connected = connections(id);
+			for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1){
+				if((connected & dir) == 0)
+					continue;
+				int next = neighbor(id, dir);
+				if(dist[next] == -1){
+					dist[next] = dist[id] + 1;
+					parent[next] = id;
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds a Path from a sequence of pillar ids
+	 * @param ids	pillar ids in order from start to end
+	 * @param count	how many of the ids are used
+	 * @param plankFrom	the pillar id the added plank leaves from, or -1 if no plank was added
+	 * @param plankTo	the pillar id the added plank arrives at
+	 * @return	returns the built path
+	 */
+	protected Path buildPath(int[] ids, int count, int plankFrom, int plankTo){
+		Path path = new Path();
+		for(int i = 0; i < count; i++)
+			path.addPillar(pillar(ids[i]));
+		if(plankFrom >= 0)
+			path.setPlank(plank(plankTo, plankFrom));
+		return path;
+	}
+
+	/**
+	 * Builds a Path by following parent pointers back from a state to the start
+	 * @param parent	the parent state of every state, or -1 for the start state
+	 * @param last	the state the path ends at
+	 * @return	returns the path from the start to the pillar of last
+	 */
+	protected Path buildPath(int[] parent, int last){
+		//Count the states so we can fill the ids from the back
+		int count = 0;
+		for(int s = last; s >= 0; s = parent[s])
+			count++;
+		int[] ids = new int[count];
+		int plankFrom = -1;
+		int plankTo = -1;
+		int i = count;
+		for(int s = last; s >= 0; s = parent[s]){
+			ids[--i] = s >> 1;
+			//The plank was added on the step where the used flag turned on
+			if((s & 1) == 1 && parent[s] >= 0 && (parent[s] & 1) == 0){
+				plankFrom = parent[s] >> 1;
+				plankTo = s >> 1;
+			}
+		}
+		return buildPath(ids, count, plankFrom, plankTo);
+	}
+
+	/**
+	 * Builds the result for when no path exists
+	 * @return	returns a path of infinite distance
+	 */
+	protected Path noPath(){
+		Path path = new Path();
+		path.setDistanceToInfinite();
+		return path;
+	}
+}
@@ -0,0 +1,44 @@
+import java.util.Set;
+
+/**
+ * Common base for solvers that search the n x n grid by pillar id from a start pillar to an end pillar.
+ * A pillar at (x,y) has the id y*n + x, and a search state is a pillar id paired with
+ * a flag saying whether the extra plank has been used (state = 2*id + used).
+ * @author gmh73
+ *
+ */
+public abstract class GridSolver extends GridSearch implements MazeSolver {
+	/* The id of the start pillar*/
+	protected final int startId;
+	/* The id of the end pillar*/
+	protected final int endId;
+
+	/**
+	 * Constructs a solver over an n x n grid
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 */
+	protected GridSolver(int n, Set<Plank> layout, Pillar start, Pillar end){
+		this(n, layout, start, end, null);
+	}
+
+	/**
+	 * Constructs a solver over an n x n grid that takes its pillars from a table it shares with its owner
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 * @param table	the interned pillars of the grid, or null to make a table the first time one is needed
+	 */
+	protected GridSolver(int n, Set<Plank> layout, Pillar start, Pillar end, PillarTable table){
+		super(n, layout, table);
+		if(start == null || end == null)
+			throw new NullPointerException("Given input is null.");
+		checkOnGrid(start);
+		checkOnGrid(end);
+		startId = id(start);
+		endId = id(end);
+	}
+}
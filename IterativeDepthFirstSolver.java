@@ -0,0 +1,238 @@
+import java.util.Set;
+
+/**
+ * The same branch and bound search as Maze's depth first search, run with an explicit stack
+ * instead of recursion, so long paths do not need a large thread stack.
+ * Each frame is a pillar on the current path with the directions it has left to try, whether
+ * it is still trying the extra plank, and whether the plank is still available to it.
+ * Pillars are tried in the same order and pruned by the same rules as the recursive search,
+ * so it finds exactly the same path. Like the recursive search it uses a ComponentIndex to give up
+ * on unreachable ends at once and to skip moves that cannot reach the end's component.
+ * @author gmh73
+ *
+ */
+public class IterativeDepthFirstSolver extends GridSolver {
+	/* The pillar id of each frame*/
+	private int[] node;
+	/* The directions each frame has left to try in its current phase*/
+	private int[] left;
+	/* The pillar id each frame tried last*/
+	private int[] tried;
+	/* true while a frame is trying the pillars reached by laying the extra plank*/
+	private boolean[] plankPhase;
+	/* true if the extra plank is still available to a frame*/
+	private boolean[] plankLeft;
+	/* The path from the start to the top frame*/
+	private ArrayPath path;
+	/* The shortest path found so far*/
+	private Path shortest;
+	/* The shortest distance possible, the Manhattan distance from start to end*/
+	private int shortestDistance;
+	/* Where the frames and path are kept between queries*/
+	private final SearchScratch scratch;
+	/* Components of the layout given by the caller, or null to label them at the start of each search*/
+	private final ComponentIndex givenComponents;
+	/* The components of the layout during the current search*/
+	private ComponentIndex components;
+	/* true if each search first measures the distance to the end from every pillar*/
+	private boolean exactBound;
+	/* The distances to the end during a search with exactBound, null otherwise*/
+	private DistanceBound bound;
+
+	/**
+	 * Constructs an iterative depth first solver
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 */
+	public IterativeDepthFirstSolver(int n, Set<Plank> layout, Pillar start, Pillar end){
+		this(n, layout, start, end, new SearchScratch());
+	}
+
+	/**
+	 * Constructs an iterative depth first solver that keeps its frames and path in scratch,
+	 * so they are only allocated once for many queries
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 * @param scratch	buffers that no other search is using at the same time
+	 */
+	public IterativeDepthFirstSolver(int n, Set<Plank> layout, Pillar start, Pillar end, SearchScratch scratch){
+		this(n, layout, start, end, scratch, null);
+	}
+
+	/**
+	 * Constructs an iterative depth first solver that keeps its frames and path in scratch
+	 * and uses components already labelled for a layout that does not change
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 * @param scratch	buffers that no other search is using at the same time
+	 * @param components	the components of layout, or null to label them at the start of each search
+	 */
+	public IterativeDepthFirstSolver(int n, Set<Plank> layout, Pillar start, Pillar end, SearchScratch scratch, ComponentIndex components){
+		super(n, layout, start, end, pillarsOf(scratch, n));
+		if(components != null && components.getLength() != n)
+			throw new IndexOutOfBoundsException("Given components are for another size of maze.");
+		this.scratch = scratch;
+		givenComponents = components;
+	}
+
+	/**
+	 * Gets the interned pillars kept in scratch
+	 * @param scratch	buffers for the search
+	 * @param n	the length of the grid
+	 * @return	the table kept in scratch, or null if the grid is too big for a table
+	 */
+	private static PillarTable pillarsOf(SearchScratch scratch, int n){
+		if(scratch == null)
+			throw new NullPointerException("Given input is null.");
+		return scratch.pillars(n);
+	}
+
+	/**
+	 * Default constructor if no start and end is specified
+	 * Start is (0,0) and end is (n-1,n-1)
+	 * @param n  The length of the grid
+	 * @param layout  A set of planks
+	 */
+	public IterativeDepthFirstSolver(int n, Set<Plank> layout){
+		this(n, layout, new Pillar(0,0), new Pillar(n - 1, n - 1));
+	}
+
+	/**
+	 * Sets if each search measures the exact distance to the end from every pillar before it starts,
+	 * and cuts every frame that cannot end shorter than the best path found so far, as Maze does
+	 * @param exactBound	true to cut frames by the exact distance to the end
+	 */
+	public void setExactBound(boolean exactBound){
+		this.exactBound = exactBound;
+	}
+
+	@Override
+	public Path shortestPath(boolean hasPlank) {
+		expanded = 0;
+		scratch.prepare(n);
+		node = scratch.node;
+		left = scratch.left;
+		tried = scratch.tried;
+		plankPhase = scratch.plankPhase;
+		plankLeft = scratch.plankLeft;
+		path = scratch.path;
+		shortest = new Path();
+		shortest.setDistanceToInfinite();
+		shortestDistance = manhattan(startId, endId);
+		components = givenComponents != null ? givenComponents : new ComponentIndex(n, layout);
+		if(!components.canReach(startId, endId, hasPlank))
+			return shortest;
+		bound = exactBound ? new DistanceBound(n, layout, pillar(endId)) : null;
+		Path result = enter(startId);
+		//The start is only finished straight away when it is also the end
+		if(result != null)
+			return path.snapshot();
+		int top = 0;
+		push(top, startId, hasPlank);
+		while(top >= 0){
+			int id = node[top];
+			if(result != null){
+				//result is what searching the pillar the top frame tried last returned
+				if(result.isShorterThan(shortest))
+					shortest = path.snapshot();
+				//The shortest distance possible ends the whole search
+				if(result.isSameDistance(shortestDistance))
+					return shortest;
+				if(plankPhase[top])
+					path.removePlank();
+				path.removeLastPillar(pillar(tried[top]));
+				result = null;
+			}
+			if(left[top] == 0){
+				//Out of pillars reached with the plank, so try the ones connected by the layout
+				if(plankPhase[top]){
+					plankPhase[top] = false;
+					left[top] = connections(id);
+					continue;
+				}
+				//Out of pillars altogether, so return to the frame below
+				top--;
+				result = shortest;
+				continue;
+			}
+			//Directions are tried in the order of Pillar.adjoiningPillars, lowest bit first
+			int dir = left[top] & -left[top];
+			left[top] &= ~dir;
+			int next = neighbor(id, dir);
+			tried[top] = next;
+			//Laying the plank here means it is gone for the rest of this path
+			boolean hasPlankAfter = plankLeft[top] && !plankPhase[top];
+			if(plankPhase[top])
+				path.setPlank(plank(next, id));
+			result = enter(next);
+			if(result == null)
+				push(++top, next, hasPlankAfter);
+		}
+		return shortest;
+	}
+
+	/**
+	 * Adds a pillar to the path, as the recursive search does before it looks further
+	 * @param id	the pillar id
+	 * @return	returns the path the recursive search would return here, or null if the pillar needs a frame
+	 */
+	private Path enter(int id){
+		Pillar p = pillar(id);
+		//A pillar already on the path is a dead end
+		if(path.containsPillar(p))
+			return shortest;
+		path.addPillar(p);
+		if(id == endId)
+			return path;
+		//No point going on if this path is already as long as the shortest
+		if(!path.isShorterThan(shortest))
+			return shortest;
+		return null;
+	}
+
+	/**
+	 * Pushes a frame for a pillar that has just been added to the path
+	 * @param top	the index of the new frame
+	 * @param id	the pillar id
+	 * @param hasPlank	true if the extra plank is still available
+	 */
+	private void push(int top, int id, boolean hasPlank){
+		expanded++;
+		node[top] = id;
+		plankLeft[top] = hasPlank;
+		plankPhase[top] = hasPlank;
+		//Pillars reached by laying the plank are the ones adjacent but not connected
+		int connected = connections(id);
+		if(hasPlank)
+			left[top] = plankTargets(id, connected);
+		else
+			//Without the plank, only a pillar in the end's component can lead to the end
+			left[top] = components.sameComponent(id, endId) ? connected : 0;
+		//Even the shortest way on to the end would not beat the best path, so there is nothing to try
+		if(bound != null && !bound.canImprove(path.getDistance(), id, hasPlank, shortest.getDistance())){
+			plankPhase[top] = false;
+			left[top] = 0;
+		}
+	}
+
+	/**
+	 * Gets the directions worth laying the plank in, the gaps that land in the end's component,
+	 * since after the plank only the layout can be followed
+	 * @param id	a pillar id
+	 * @param connected	the directions joined to id by the layout
+	 * @return	returns a mask of Pillar.PLUS_X, PLUS_Y, MINUS_X and MINUS_Y
+	 */
+	private int plankTargets(int id, int connected){
+		int gaps = adjacentDirections(id) & ~connected;
+		for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1)
+			if((gaps & dir) != 0 && !components.sameComponent(neighbor(id, dir), endId))
+				gaps &= ~dir;
+		return gaps;
+	}
+}
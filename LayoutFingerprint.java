@@ -0,0 +1,186 @@
+import java.util.Set;
+
+/**
+ * A 128 bit fingerprint of a layout of planks on an n x n grid, for telling layouts apart cheaply.
+ * Every possible plank has its own pseudo random key in each of two 64 bit lanes, worked out from
+ * its position with the splitmix64 mixer, and the fingerprint of a layout is the XOR of the keys
+ * of its planks, started from a value that depends on n. Two layouts that differ by accident, such as
+ * random layouts or one layout edited a few planks at a time, share a fingerprint with a chance of about
+ * 2^-128. That is only an estimate for accidental collisions: the fingerprint is an XOR of keys, so on
+ * a grid with more than 128 possible planks some sets of planks have keys that XOR to zero, and layouts
+ * that collide can be built on purpose. A fingerprint can stand in for its layout as a cache key only
+ * when layouts are not chosen to collide, since a collision makes whatever it keys answer for the other layout.
+ * Adding or removing a plank XORs its keys in or out again, so a fingerprint is kept up to date in O(1)
+ * per change (see toggle, and PlankGrid and PlankSet, which keep theirs as they change) rather than
+ * worked out again from every plank.
+ * @author gmh73
+ *
+ */
+public final class LayoutFingerprint {
+	/* Seeds for the two lanes, so each lane gives a plank an unrelated key*/
+	private static final long HIGH_SEED = 0x9E3779B97F4A7C15L;
+	private static final long LOW_SEED = 0xD1B54A32D192ED03L;
+
+	/* The first 64 bits*/
+	private final long high;
+	/* The last 64 bits*/
+	private final long low;
+
+	/**
+	 * Constructs a fingerprint from its two lanes
+	 * @param high	the first 64 bits
+	 * @param low	the last 64 bits
+	 */
+	public LayoutFingerprint(long high, long low){
+		this.high = high;
+		this.low = low;
+	}
+
+	/**
+	 * Gets the fingerprint of a layout with no planks
+	 * @param n	the length and width of the grid of pillars
+	 * @return	returns the fingerprint every layout on an n x n grid starts from
+	 */
+	public static LayoutFingerprint empty(int n){
+		if(n < 1)
+			throw new IndexOutOfBoundsException("Given maze size < 0.");
+		return new LayoutFingerprint(emptyHigh(n), emptyLow(n));
+	}
+
+	/**
+	 * Works out the fingerprint of a layout, in O(1) for a PlankGrid or PlankSet of this size
+	 * since they keep theirs up to date, and from every plank for any other set
+	 * @param n	the length and width of the grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @return	returns the fingerprint of layout on an n x n grid
+	 */
+	public static LayoutFingerprint of(int n, Set<Plank> layout){
+		if(n < 1)
+			throw new IndexOutOfBoundsException("Given maze size < 0.");
+		if(layout == null)
+			throw new NullPointerException("Given layout is null.");
+		if(layout instanceof PlankIndex && ((PlankIndex) layout).getLength() == n)
+			return ((PlankIndex) layout).getFingerprint();
+		long high = emptyHigh(n);
+		long low = emptyLow(n);
+		for(Plank p : layout){
+			Pillar first = p.getFirstPillar();
+			boolean alongY = first.getXCor() == p.getSecondPillar().getXCor();
+			high ^= highKey(first.getXCor(), first.getYCor(), alongY);
+			low ^= lowKey(first.getXCor(), first.getYCor(), alongY);
+		}
+		return new LayoutFingerprint(high, low);
+	}
+
+	/**
+	 * Gets the fingerprint of this layout with a plank added if it was not there, or removed if it was
+	 * @param p	a plank
+	 * @return	returns the fingerprint with p's keys XORed in
+	 */
+	public LayoutFingerprint toggle(Plank p){
+		if(p == null)
+			throw new NullPointerException("Given plank is null");
+		Pillar first = p.getFirstPillar();
+		boolean alongY = first.getXCor() == p.getSecondPillar().getXCor();
+		return new LayoutFingerprint(high ^ highKey(first.getXCor(), first.getYCor(), alongY),
+				low ^ lowKey(first.getXCor(), first.getYCor(), alongY));
+	}
+
+	/**
+	 * Gets the high lane of the fingerprint of a layout with no planks
+	 * @param n	the length and width of the grid of pillars
+	 * @return	returns the high lane every layout on an n x n grid starts from
+	 */
+	static long emptyHigh(int n){
+		return mix(HIGH_SEED ^ n);
+	}
+
+	/**
+	 * Gets the low lane of the fingerprint of a layout with no planks
+	 * @param n	the length and width of the grid of pillars
+	 * @return	returns the low lane every layout on an n x n grid starts from
+	 */
+	static long emptyLow(int n){
+		return mix(LOW_SEED ^ n);
+	}
+
+	/**
+	 * Gets the high lane key of a plank
+	 * @param x	the x of the plank's first pillar
+	 * @param y	the y of the plank's first pillar
+	 * @param alongY	true if the plank runs from (x,y) to (x,y+1), false if to (x+1,y)
+	 * @return	returns the key XORed into the high lane
+	 */
+	static long highKey(int x, int y, boolean alongY){
+		return mix(HIGH_SEED + position(x, y, alongY));
+	}
+
+	/**
+	 * Gets the low lane key of a plank
+	 * @param x	the x of the plank's first pillar
+	 * @param y	the y of the plank's first pillar
+	 * @param alongY	true if the plank runs from (x,y) to (x,y+1), false if to (x+1,y)
+	 * @return	returns the key XORed into the low lane
+	 */
+	static long lowKey(int x, int y, boolean alongY){
+		return mix(LOW_SEED + position(x, y, alongY));
+	}
+
+	/**
+	 * Packs where a plank is into one long
+	 * @param x	the x of the plank's first pillar
+	 * @param y	the y of the plank's first pillar
+	 * @param alongY	true if the plank runs along y
+	 * @return	returns x in the high 32 bits, then y, then 1 if the plank runs along y
+	 */
+	private static long position(int x, int y, boolean alongY){
+		return ((long) x << 32) | ((long) y << 1) | (alongY ? 1 : 0);
+	}
+
+	/**
+	 * The splitmix64 finalizer, which spreads every input bit over every output bit
+	 * @param z	a value
+	 * @return	returns the mixed value
+	 */
+	private static long mix(long z){
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Gets the first 64 bits
+	 * @return	the high lane
+	 */
+	public long getHigh(){
+		return high;
+	}
+
+	/**
+	 * Gets the last 64 bits
+	 * @return	the low lane
+	 */
+	public long getLow(){
+		return low;
+	}
+
+	@Override
+	public boolean equals(Object o){
+		if(o instanceof LayoutFingerprint){
+			LayoutFingerprint f = (LayoutFingerprint) o;
+			return f.high == high && f.low == low;
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode(){
+		//The lanes are already well mixed, so any 32 bits of them will do
+		return (int) low;
+	}
+
+	@Override
+	public String toString(){
+		return String.format("%016x%016x", high, low);
+	}
+}
@@ -1,4 +1,3 @@
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -6,15 +5,88 @@ import java.util.Set;
  * @author gmh73
  *
  */
-public class Maze {
+public class Maze implements MazeSolver {
+	/**
+	 * The search engines a Maze can answer shortestPath with
+	 */
+	public enum Engine {
+		/* The original recursive branch and bound search*/
+		DEPTH_FIRST,
+		/* The same branch and bound search with an explicit stack, for paths too long to recurse on*/
+		ITERATIVE_DEPTH_FIRST,
+		/* The same branch and bound search split into fork/join tasks that share the best distance*/
+		PARALLEL_DEPTH_FIRST,
+		/* Breadth first search over (pillar, plank used) states, finding the same path as DEPTH_FIRST*/
+		BREADTH_FIRST,
+		/* Plank free sweeps from both ends plus a scan over the missing planks*/
+		DISTANCE_FIELD,
+		/* A* over (pillar, plank used) states with the Manhattan distance as heuristic*/
+		A_STAR,
+		/* Breadth first search from both the start and the end until they meet*/
+		BIDIRECTIONAL,
+		/* Dijkstra over (pillar, plank used) states, with the costs of a WeightedLayout or every cost 1*/
+		DIJKSTRA,
+		/* The original depth first search run again with a growing bound on length plus Manhattan distance left*/
+		IDA_STAR
+	}
+	
+	/**
+	 * The orders the depth first search tries the pillars around the current one in
+	 */
+	public enum MoveOrder {
+		/* +x, +y, -x, -y wherever the end is, the original order*/
+		FIXED,
+		/* Pillars closer to the end by Manhattan distance first, then the rest, each in the fixed order*/
+		TOWARD_END,
+		/* As TOWARD_END, with ties broken by the exact distance to the end, measured before the search*/
+		BY_DISTANCE
+	}
+	
 	private int maxCoordinate;
 	private Path curPath;
+	/* The id stack each search starts curPath as, kept typed so IDA* can empty it between iterations*/
+	private ArrayPath searchPath;
 	private Pillar curPil;
 	private Path shortest;
 	private int shortestDistance;
+	/* One more than the length of the seed path, so no longer path is searched, or Integer.MAX_VALUE without a seed*/
+	private int seedBound;
 	private Pillar endPillar;
 	private Set<Plank> layout;
+	/* The interned pillars of this maze's grid, or null if the grid is too big for a table*/
+	private final PillarTable pillars;
 	private Pillar startPillar;
+	private Engine engine;
+	/* The components of the layout while a depth first search is running, null otherwise*/
+	private ComponentIndex components;
+	/* The components labelled for the last depth first search, kept while the layout stays the same*/
+	private ComponentIndex labelled;
+	/* The fingerprint of the layout labelled was built from*/
+	private LayoutFingerprint labelledFingerprint;
+	/* The layout labelled was built from as a PlankIndex, which the search checks neighbors in without allocating*/
+	private Set<Plank> labelledLayout;
+	/* true if a depth first search first measures the distance to the end from every pillar*/
+	private boolean exactBound;
+	/* The distances to the end while a depth first search with exactBound is running, null otherwise*/
+	private DistanceBound bound;
+	/* The order the depth first search tries pillars in*/
+	private MoveOrder moveOrder;
+	/* The distances to the end while a depth first search with BY_DISTANCE is running, null otherwise*/
+	private DistanceBound toEnd;
+	/* The counters of the last depth first search*/
+	private final SearchStats stats;
+	/* The width of the beam search that seeds the depth first search's bound, 0 for no seed*/
+	private int seedWidth;
+	/* true if the depth first search cuts states reached again no shallower than before*/
+	private boolean transposition;
+	/* The most states the transposition table keeps, 0 for one slot per state*/
+	private int transpositionSlots;
+	/* The transposition table while a depth first search with transposition is running, null otherwise*/
+	private TranspositionTable table;
+	/* The most length plus Manhattan distance left an IDA* iteration searches, -1 outside of IDA**/
+	private int fLimit;
+	/* The least length plus Manhattan distance left that the IDA* iteration cut, its next limit*/
+	private int nextLimit;
 	
 	/**
 	 * Constructor for Maze Class
@@ -27,11 +99,15 @@ public class Maze {
 		checkInitInput(n,layout);
 		//Set the max coordinate of the n x n grid to n - 1
 		maxCoordinate = n - 1;
-		//Initialize the current path
-		curPath = new Path();
+		//Intern this grid's pillars, so the search moves between neighbors without allocating
+		pillars = PillarTable.hasTable(n) ? new PillarTable(n) : null;
+		//Initialize the current path, kept as an id stack since the search changes it at every step
+		searchPath = new ArrayPath(n, pillars);
+		curPath = searchPath;
 		//Initialize the shortest path found to a path of distance infinite
 		shortest = new Path();
 		shortest.setDistanceToInfinite();
+		seedBound = Integer.MAX_VALUE;
 		//Set the current pillar and the start pillar to the given start
 		curPil = start;
 		startPillar = start;
@@ -41,6 +117,11 @@ public class Maze {
 		shortestDistance = curPil.shortestDistanceTo(endPillar);
 		//Set the plank layout to the given layout
 		this.layout = layout;
+		//Search with the original depth first search, in the original order, unless told otherwise
+		engine = Engine.DEPTH_FIRST;
+		moveOrder = MoveOrder.FIXED;
+		stats = new SearchStats();
+		fLimit = -1;
 	}
 	
 	/**
@@ -54,11 +135,15 @@ public class Maze {
 	}
 	
 	/**
-	 * Resets the search values
+	 * Resets the search values, including the shortest path found so far
 	 */
 	public void resetShortestPath(){
 		curPil = startPillar;
-		curPath = new Path();
+		searchPath = new ArrayPath(maxCoordinate + 1, pillars);
+		curPath = searchPath;
+		shortest = new Path();
+		shortest.setDistanceToInfinite();
+		seedBound = Integer.MAX_VALUE;
 	}
 	
 	/**
@@ -73,6 +158,317 @@ public class Maze {
 			throw new NullPointerException("Given layout is null.");
 	}
 	
+	/**
+	 * Sets the engine used by shortestPath
+	 * @param engine	the search engine to use
+	 */
+	public void setEngine(Engine engine){
+		if(engine == null)
+			throw new NullPointerException("Given engine is null.");
+		this.engine = engine;
+	}
+	
+	/**
+	 * Gets the engine used by shortestPath
+	 * @return	the search engine in use
+	 */
+	public Engine getEngine(){
+		return engine;
+	}
+	
+	/**
+	 * Sets if the depth first search measures the exact distance to the end from every pillar before
+	 * it starts, and cuts every branch that cannot end shorter than the best path found so far.
+	 * The path found is the same either way, the pre-pass costs one breadth first sweep per query
+	 * @param exactBound	true to cut branches by the exact distance to the end
+	 */
+	public void setExactBound(boolean exactBound){
+		this.exactBound = exactBound;
+	}
+	
+	/**
+	 * Gets if the depth first search cuts branches by the exact distance to the end
+	 * @return	true if the pre-pass is on
+	 */
+	public boolean hasExactBound(){
+		return exactBound;
+	}
+	
+	/**
+	 * Sets the order the depth first search tries pillars in. Any order finds a path of the same
+	 * length, but when there are several only FIXED is sure to find the one the other depth first
+	 * engines and BREADTH_FIRST find. The other engines only match its length
+	 * @param moveOrder	the move ordering policy
+	 */
+	public void setMoveOrder(MoveOrder moveOrder){
+		if(moveOrder == null)
+			throw new NullPointerException("Given move order is null.");
+		this.moveOrder = moveOrder;
+	}
+	
+	/**
+	 * Gets the order the depth first search tries pillars in
+	 * @return	the move ordering policy in use
+	 */
+	public MoveOrder getMoveOrder(){
+		return moveOrder;
+	}
+	
+	/**
+	 * Sets the width of a beam search run before the depth first search, whose path length seeds the
+	 * bound so branches are pruned before the first path is found. The path found is the same either way
+	 * @param seedWidth	the most pillars the beam keeps in each layer, 1 for a greedy walk, 0 for no seed
+	 */
+	public void setSeedWidth(int seedWidth){
+		if(seedWidth < 0)
+			throw new IndexOutOfBoundsException("Given beam width < 0.");
+		this.seedWidth = seedWidth;
+	}
+	
+	/**
+	 * Gets the width of the beam search that seeds the depth first search's bound
+	 * @return	the width, 0 if the bound is not seeded
+	 */
+	public int getSeedWidth(){
+		return seedWidth;
+	}
+	
+	/**
+	 * Sets if the depth first search keeps the shallowest depth it reached each (pillar, plank used)
+	 * state at, and cuts a branch that reaches a state no shallower than before. The length of the
+	 * path found is the same either way, though when several paths tie another one may be found
+	 * @param transposition	true to use a transposition table
+	 */
+	public void setTransposition(boolean transposition){
+		this.transposition = transposition;
+	}
+	
+	/**
+	 * Gets if the depth first search uses a transposition table
+	 * @return	true if it does
+	 */
+	public boolean hasTransposition(){
+		return transposition;
+	}
+	
+	/**
+	 * Bounds the memory of the transposition table, for grids too big for a slot per state
+	 * @param maxSlots	the most states the table keeps, 0 for one slot per state
+	 */
+	public void setTranspositionSlots(int maxSlots){
+		if(maxSlots < 0)
+			throw new IndexOutOfBoundsException("Given table size < 0.");
+		transpositionSlots = maxSlots;
+	}
+	
+	/**
+	 * Gets the most states the transposition table keeps
+	 * @return	the number of slots, 0 for one slot per state
+	 */
+	public int getTranspositionSlots(){
+		return transpositionSlots;
+	}
+	
+	/**
+	 * Gets the counters of the last depth first search, which are reset by the next one
+	 * @return	the counters, all zero if the depth first search has not run
+	 */
+	public SearchStats getStats(){
+		return stats;
+	}
+	
+	/**
+	 * Finds the shortest path with the selected engine
+	 * @param hasPlank	true if we have not yet used the additional plank
+	 * @return	returns the shortest path found
+	 */
+	public Path shortestPath(boolean hasPlank) {
+		if(engine == Engine.IDA_STAR)
+			return idaStarPath(hasPlank);
+		if(engine == Engine.DEPTH_FIRST){
+			//Start from scratch so an earlier query cannot leak into this one
+			resetShortestPath();
+			stats.reset();
+			components = onGrid(startPillar) && onGrid(endPillar) ? labelComponents() : null;
+			try{
+				if(components != null && !components.canReach(idOf(startPillar), idOf(endPillar), hasPlank)){
+					stats.finish(shortest.getDistance());
+					return shortest;
+				}
+				if(seedWidth > 0 && components != null){
+					int seed = new BeamSeed(maxCoordinate + 1, labelledLayout, startPillar, endPillar, seedWidth).shortestPath(hasPlank).getDistance();
+					stats.seed(seed);
+					//One more than the seed, so a path as long as the seed is still found and the path found does not change
+					if(seed != Integer.MAX_VALUE)
+						seedBound = seed + 1;
+				}
+				if(exactBound && components != null)
+					bound = new DistanceBound(maxCoordinate + 1, labelledLayout, endPillar);
+				if(transposition && components != null)
+					table = new TranspositionTable(2 * (maxCoordinate + 1) * (maxCoordinate + 1), transpositionSlots);
+				if(moveOrder == MoveOrder.BY_DISTANCE && components != null)
+					toEnd = bound != null ? bound : new DistanceBound(maxCoordinate + 1, labelledLayout, endPillar);
+				Path found = depthFirstPath(hasPlank);
+				stats.finish(found.getDistance());
+				//The search may hand back the path it is working on, which it would keep changing
+				return found == curPath ? snapshot(found) : found;
+			}finally{
+				components = null;
+				bound = null;
+				toEnd = null;
+				table = null;
+			}
+		}
+		return createSolver().shortestPath(hasPlank);
+	}
+	
+	/**
+	 * Gets the components of the layout, labelled again only when the layout has changed since the last
+	 * query. The layout is the caller's and may change between queries, so it is told apart by its
+	 * fingerprint, which a PlankGrid or PlankSet keeps up to date and any other set is hashed for.
+	 * Any other set is also copied into a PlankGrid, kept in labelledLayout for the search to walk.
+	 * A changed layout with the same fingerprint as the labelled one (see LayoutFingerprint) keeps the old
+	 * components and copy, and the search then answers for the old layout
+	 * @return	returns the components of the layout as it is now
+	 */
+	private ComponentIndex labelComponents(){
+		int n = maxCoordinate + 1;
+		LayoutFingerprint fingerprint = LayoutFingerprint.of(n, layout);
+		if(labelled == null || !fingerprint.equals(labelledFingerprint)){
+			if(layout instanceof PlankIndex && ((PlankIndex) layout).getLength() == n)
+				labelledLayout = layout;
+			else
+				labelledLayout = PlankGrid.withinGrid(n, layout);
+			labelled = new ComponentIndex(n, labelledLayout);
+			labelledFingerprint = fingerprint;
+		}
+		return labelled;
+	}
+	
+	/**
+	 * Finds the shortest path by iterative deepening A*. Each iteration is the depth first search cut
+	 * wherever the length so far plus the Manhattan distance left is over a limit, which starts at the
+	 * Manhattan distance from start to end and grows to the least value cut by the iteration before.
+	 * It shares the depth first search's tables, the n x n bits of ArrayPath and the interned pillars
+	 * of PillarTable, so it still takes memory in the size of the grid, but it keeps no open list or
+	 * cost per state as A_STAR does, and the path found is the one the depth first search finds.
+	 * As in the depth first search, an end that cannot be reached is found before the first iteration,
+	 * since otherwise the limit would grow until every path from the start had been searched
+	 * @param hasPlank	true if we have not yet used the additional plank
+	 * @return	returns the shortest path found
+	 */
+	private Path idaStarPath(boolean hasPlank){
+		resetShortestPath();
+		stats.reset();
+		fLimit = shortestDistance;
+		components = onGrid(startPillar) && onGrid(endPillar) ? labelComponents() : null;
+		try{
+			if(components != null && !components.canReach(idOf(startPillar), idOf(endPillar), hasPlank)){
+				stats.finish(shortest.getDistance());
+				return shortest;
+			}
+			while(true){
+				int before = stats.getExpanded();
+				nextLimit = Integer.MAX_VALUE;
+				Path found = depthFirstPath(hasPlank);
+				stats.iteration(fLimit, stats.getExpanded() - before);
+				if(found.getDistance() != Integer.MAX_VALUE){
+					stats.finish(found.getDistance());
+					return found == curPath ? snapshot(found) : found;
+				}
+				//Nothing was cut, so every path was searched and there is none
+				if(nextLimit == Integer.MAX_VALUE){
+					stats.finish(found.getDistance());
+					return found;
+				}
+				fLimit = nextLimit;
+				//The start stays in the path after a search, so empty it for the next iteration
+				searchPath.clear();
+				curPil = startPillar;
+			}
+		}finally{
+			fLimit = -1;
+			components = null;
+		}
+	}
+	
+	/**
+	 * Finds the shortest path that lays at most maxPlanks extra planks, whatever the engine
+	 * @param maxPlanks	the number of extra planks that may be laid
+	 * @return	returns the shortest path found, with its planks in the order they are laid
+	 */
+	public Path shortestPath(int maxPlanks){
+		return new PlankBudgetSolver(maxCoordinate + 1, layout, startPillar, endPillar).shortestPath(maxPlanks);
+	}
+	
+	/**
+	 * Gets the cost of a path across this maze's layout, as the DIJKSTRA engine weighs it
+	 * @param path	a path found on this maze
+	 * @return	returns the total cost of the planks of path with the cost of laying the extra plank,
+	 * every step costing 1 if the layout is not a WeightedLayout, or Integer.MAX_VALUE if path is infinite
+	 */
+	public int pathCost(Path path){
+		return WeightedLayout.costOf(maxCoordinate + 1, layout, path);
+	}
+	
+	/**
+	 * Finds the distance from the start pillar to every pillar, with and without the extra plank, in one sweep
+	 * @param hasPlank	true if paths may lay the additional plank
+	 * @return	returns the distance map, which can build a shortest path to any pillar
+	 */
+	public DistanceMap distanceMap(boolean hasPlank){
+		return new DistanceMap(maxCoordinate + 1, layout, startPillar, hasPlank);
+	}
+	
+	/**
+	 * Creates a solver for the selected engine over this maze
+	 * @return	a solver for the current engine
+	 */
+	private MazeSolver createSolver(){
+		MazeSolver solver = createSolver(engine, maxCoordinate + 1, layout, startPillar, endPillar);
+		if(solver instanceof IterativeDepthFirstSolver)
+			((IterativeDepthFirstSolver) solver).setExactBound(exactBound);
+		return solver;
+	}
+	
+	/**
+	 * Creates a solver for an engine over a maze
+	 * @param engine	the search engine to use
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 * @return	a solver for engine, a new Maze for DEPTH_FIRST
+	 */
+	static MazeSolver createSolver(Engine engine, int n, Set<Plank> layout, Pillar start, Pillar end){
+		switch(engine){
+		case DEPTH_FIRST:
+			return new Maze(n, layout, start, end);
+		case IDA_STAR:
+			Maze maze = new Maze(n, layout, start, end);
+			maze.setEngine(Engine.IDA_STAR);
+			return maze;
+		case ITERATIVE_DEPTH_FIRST:
+			return new IterativeDepthFirstSolver(n, layout, start, end);
+		case PARALLEL_DEPTH_FIRST:
+			return new ParallelDepthFirstSolver(n, layout, start, end);
+		case BREADTH_FIRST:
+			return new BreadthFirstSolver(n, layout, start, end);
+		case DISTANCE_FIELD:
+			return new DistanceFieldSolver(n, layout, start, end);
+		case A_STAR:
+			return new AStarSolver(n, layout, start, end);
+		case BIDIRECTIONAL:
+			return new BidirectionalSolver(n, layout, start, end);
+		case DIJKSTRA:
+			if(layout instanceof WeightedLayout && ((WeightedLayout) layout).getLength() == n)
+				return new DijkstraSolver((WeightedLayout) layout, start, end);
+			return new DijkstraSolver(new WeightedLayout(n, layout, 1), start, end);
+		default:
+			throw new IllegalStateException("No solver for engine " + engine);
+		}
+	}
+	
 	/**
 	 * Finds the shortest path recursively
 	 * Basically a depth first search that, upon finishing, says
@@ -80,17 +476,42 @@ public class Maze {
 	 * @param hasPlank	true if we have not yet used the additional plank
 	 * @return	returns the shortest path found
 	 */
-	public Path shortestPath(boolean hasPlank) {
+	private Path depthFirstPath(boolean hasPlank) {
 		/*Add curPil to curPath*/
 		Path atLastPillar = pathAtLastPillar();
 		//If the path is at the last pillar, ie it is finished, or it is longer
 		//than an already found shortest path, return here
 		if(atLastPillar != null)
 			return atLastPillar;
+		//Without the plank, only a pillar in the end's component can lead to the end
+		if(!hasPlank && components != null && !components.sameComponent(idOf(curPil), idOf(endPillar)))
+			return shortest;
+		//Cut the branch if even the shortest way on to the end would not beat the best path
+		if(bound != null && !bound.canImprove(curPath.getDistance(), idOf(curPil), hasPlank, bestDistance()))
+			return shortest;
+		//In an IDA* iteration, cut where even a straight walk to the end would be over the limit
+		if(fLimit >= 0){
+			int f = curPath.getDistance() + curPil.shortestDistanceTo(endPillar);
+			if(f > fLimit){
+				nextLimit = Math.min(nextLimit, f);
+				return shortest;
+			}
+		}
+		//An earlier visit no deeper than this one already searched every shorter way on from here
+		if(table != null && !table.visit(2 * idOf(curPil) + (hasPlank ? 0 : 1), curPath.getDistance())){
+			stats.cut();
+			return shortest;
+		}
+		stats.expand();
 		/*If hasPlank is true, search the adjoining pillars found by using the plank*/
+		int gaps = 0;
+		int closerGaps = 0;
 		if(hasPlank){
+			gaps = adjoiningDirections(true);
+			//Only planks that bring the path closer are tried before the layout, the others after it
+			closerGaps = moveOrder == MoveOrder.FIXED ? gaps : gaps & towardEnd(curPil);
 			//Get the shortest path found by using this plank
-			Path pPrime = searchAdjoiningPillars(true,false);
+			Path pPrime = searchAdjoiningPillars(true,false,closerGaps);
 			//If the found path is the shortest distance possible, the return it
 			if(pPrime.isSameDistance(shortestDistance))
 				return pPrime;
@@ -102,6 +523,12 @@ public class Maze {
 		//If the found path is the shortest distance possible, the return it
 		if(pPrime.isSameDistance(shortestDistance))
 			return pPrime;
+		//Last come the planks that lead away from the end
+		if(gaps != closerGaps){
+			pPrime = searchAdjoiningPillars(true,false,gaps & ~closerGaps);
+			if(pPrime.isSameDistance(shortestDistance))
+				return pPrime;
+		}
 		//If this is reached, then the shortest path is whatever is stored in shortest
 		return shortest;
 	}
@@ -113,23 +540,52 @@ public class Maze {
 	 * @return
 	 */
 	private Path searchAdjoiningPillars(boolean usePlank, boolean hasPlankAfter) {
+		//Get the directions of the adjoining pillars based on whether or not we are using the plank
+		return searchAdjoiningPillars(usePlank, hasPlankAfter, adjoiningDirections(usePlank));
+	}
+	
+	/**
+	 * Gets the directions of the pillars adjoining the current one, checked against this maze's pillars
+	 * @param usePlank	true if we are using the extra plank
+	 * @return	returns the direction bits of the adjoining pillars
+	 */
+	private int adjoiningDirections(boolean usePlank){
+		//While the components are known the layout has been copied into a PlankIndex, which allocates nothing
+		if(components != null)
+			return curPil.adjoiningDirections(usePlank, labelledLayout, maxCoordinate);
+		if(pillars != null)
+			return curPil.adjoiningDirections(usePlank, layout, pillars);
+		return curPil.adjoiningDirections(usePlank, layout, maxCoordinate);
+	}
+	
+	/**
+	 * Search some of the adjoining pillars, in the order of the move ordering policy
+	 * @param usePlank	true if we are going to use a plank here
+	 * @param hasPlankAfter		true if we have a plank after this search
+	 * @param directions	the directions to search, found by adjoiningDirections
+	 * @return
+	 */
+	private Path searchAdjoiningPillars(boolean usePlank, boolean hasPlankAfter, int directions) {
 		/*For each Pillar P that is unconnected (Plank between does not exist in layout), adjacent to curPil and not in curPath 
 		 * OR (if we are are not using a plank) For each Pillar P that is connected and adjacent to curPil do
 		*/
 		Pillar prev = curPil;
-		//Get the adjoining pillars based on whether or not we are using the plank
-		List<Pillar> adjoiningPillars = curPil.adjoiningPillars(usePlank, layout, maxCoordinate);
-		for(Pillar p : adjoiningPillars){
+		for(int order = orderDirections(prev, directions, hasPlankAfter); order != 0; order >>>= 4){
+			int dir = order & 15;
+			Pillar p = pillarToward(prev, dir);
+			//After the plank only the layout can be followed, so it has to land in the end's component
+			if(usePlank && components != null && !components.sameComponent(idOf(p), idOf(endPillar)))
+				continue;
 			curPil = p;
 			//If we are using the plank, set the path plank to the added plank
 			if(usePlank){
 				/*Plank C ← a new Plank connecting curPil and P
 				Add C to curPath*/
-				Plank c = new Plank(curPil, prev);
+				Plank c = components != null && pillars != null ? pillars.getPlank(idOf(curPil), idOf(prev)) : new Plank(curPil, prev);
 				curPath.setPlank(c);
 			}
 			//Search the path from this new pillar, remembering if we have a plank after or not
-			Path pPrime = shortestPath(hasPlankAfter);
+			Path pPrime = depthFirstPath(hasPlankAfter);
 			//If the result is the shortest distance possible, return it
 			pPrime = checkIfResultShortest(pPrime);
 			if(pPrime != null)
@@ -145,6 +601,99 @@ public class Maze {
 		return shortest;
 	}
 	
+	/**
+	 * Puts directions in the order of the move ordering policy
+	 * @param p	the pillar the moves are from
+	 * @param directions	a mask of Pillar.PLUS_X, PLUS_Y, MINUS_X and MINUS_Y
+	 * @param hasPlankAfter	true if the plank is still available after the move
+	 * @return	returns the directions packed four bits each, the first to try in the lowest bits
+	 */
+	private int orderDirections(Pillar p, int directions, boolean hasPlankAfter){
+		int toward = moveOrder == MoveOrder.FIXED ? 0 : towardEnd(p);
+		int id = idOf(p);
+		int n = maxCoordinate + 1;
+		int order = 0;
+		int shift = 0;
+		//Pick the best direction left each time, the fixed order breaking ties, so at most 4 x 4 checks
+		while(directions != 0){
+			int best = 0;
+			long bestKey = Long.MAX_VALUE;
+			for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1){
+				if((directions & dir) == 0)
+					continue;
+				long key = (toward & dir) != 0 ? 0 : 1L << 32;
+				if(toEnd != null)
+					key += toEnd.remaining(dir == Pillar.PLUS_X ? id + 1 : dir == Pillar.PLUS_Y ? id + n : dir == Pillar.MINUS_X ? id - 1 : id - n, hasPlankAfter);
+				if(key < bestKey){
+					best = dir;
+					bestKey = key;
+				}
+			}
+			order |= best << shift;
+			shift += 4;
+			directions &= ~best;
+		}
+		return order;
+	}
+	
+	/**
+	 * Gets the directions that bring a pillar closer to the end by Manhattan distance
+	 * @param p	a pillar
+	 * @return	returns a mask of Pillar.PLUS_X, PLUS_Y, MINUS_X and MINUS_Y
+	 */
+	private int towardEnd(Pillar p){
+		int directions = 0;
+		if(p.getXCor() < endPillar.getXCor())
+			directions |= Pillar.PLUS_X;
+		else if(p.getXCor() > endPillar.getXCor())
+			directions |= Pillar.MINUS_X;
+		if(p.getYCor() < endPillar.getYCor())
+			directions |= Pillar.PLUS_Y;
+		else if(p.getYCor() > endPillar.getYCor())
+			directions |= Pillar.MINUS_Y;
+		return directions;
+	}
+	
+	/**
+	 * Gets the pillar one step from p, interned if the grid has a PillarTable
+	 * @param p	a pillar
+	 * @param direction	one of Pillar.PLUS_X, PLUS_Y, MINUS_X or MINUS_Y
+	 * @return	returns the pillar in that direction
+	 */
+	private Pillar pillarToward(Pillar p, int direction){
+		int x = p.getXCor();
+		int y = p.getYCor();
+		if(direction == Pillar.PLUS_X)
+			x++;
+		else if(direction == Pillar.PLUS_Y)
+			y++;
+		else if(direction == Pillar.MINUS_X)
+			x--;
+		else
+			y--;
+		if(pillars != null)
+			return pillars.get(x, y);
+		return new Pillar(x, y);
+	}
+	
+	/**
+	 * Gets the id of a pillar on the grid
+	 * @param p	a pillar
+	 * @return	returns y*n + x
+	 */
+	private int idOf(Pillar p){
+		return p.getYCor() * (maxCoordinate + 1) + p.getXCor();
+	}
+	
+	/**
+	 * Checks if a pillar is on the grid
+	 * @param p	a pillar
+	 * @return	returns true if both coordinates are at most maxCoordinate
+	 */
+	private boolean onGrid(Pillar p){
+		return p.getXCor() <= maxCoordinate && p.getYCor() <= maxCoordinate;
+	}
+	
 	/**
 	 * Returns a shortest path if curPath is done, null otherwise.
 	 * curPath is done if curPil is in curPath, or curPil is the end pillar
@@ -159,11 +708,13 @@ public class Maze {
 		//Add curPil in curPath since it is not previously in it
 		curPath.addPillar(curPil);
 		/*If curPil is endPillar */
-		if(curPil.equals(endPillar))
+		if(curPil.equals(endPillar)){
+			stats.solution();
 			/*	return curPath, we are done searching this particular path*/
 			return curPath;
+		}
 		/*If curPath is longer than or the same distance as shortest*/
-		if(!curPath.isShorterThan(shortest))
+		if(!curPath.isShorterThan(bestDistance()))
 			/*return shortest, no point in continuing*/
 			return shortest;
 		return null;
@@ -178,8 +729,8 @@ public class Maze {
 	private Path checkIfResultShortest(Path pPrime){
 		/*If P’ has a shorter distance than shortest
 		shortest ← P’*/
-		if(pPrime.isShorterThan(shortest))
-			shortest = pPrime.copy();
+		if(pPrime.isShorterThan(bestDistance()))
+			shortest = snapshot(pPrime);
 		/*If P’ has a distance shortestDistance, return P’*/
 		if(pPrime.isSameDistance(shortestDistance))
 			return pPrime;
@@ -187,6 +738,25 @@ public class Maze {
 		return null;
 	}
 	
+	/**
+	 * Gets the length a path has to be shorter than to be kept
+	 * @return	returns the distance of shortest, or seedBound if that is less
+	 */
+	private int bestDistance(){
+		return Math.min(shortest.getDistance(), seedBound);
+	}
+	
+	/**
+	 * Keeps a path that the search will go on changing
+	 * @param p	a path
+	 * @return	a snapshot of p if it is an ArrayPath, which costs O(1) amortized, or a copy otherwise
+	 */
+	private Path snapshot(Path p){
+		if(p instanceof ArrayPath)
+			return ((ArrayPath) p).snapshot();
+		return p.copy();
+	}
+	
 	/**
 	 * A test button for testing
 	 * @author gmh73
@@ -228,6 +798,13 @@ public class Maze {
 		public int getShortestDistance(){
 			return Maze.this.shortestDistance;
 		}
+		/**
+		 * Return the components kept from the last depth first search
+		 * @return	this labelled
+		 */
+		public ComponentIndex getLabelled(){
+			return Maze.this.labelled;
+		}
 		/**
 		 * Return the end pillar
 		 * @return	this end pillar
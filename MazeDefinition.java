@@ -0,0 +1,280 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * An n x n maze layout that never changes once it is built, so one definition can be shared by
+ * any number of threads. The layout is copied into a PlankGrid once, a WeightedLayout keeping its costs
+ * so the DIJKSTRA engine weighs the same planks, and every query gets its own
+ * solver, so queries need no locking and repeat none of the preparation.
+ * Depth first queries borrow their frames and path from a pool of scratch buffers owned by the definition,
+ * holding at most one set per processor, so the buffers go when the definition does whichever threads
+ * queried it, and releaseScratch lets go of them sooner.
+ * Batches of queries are grouped by start pillar, so one sweep from each start answers all of its ends.
+ * @author gmh73
+ *
+ */
+public final class MazeDefinition {
+	/* The length and width of the grid of pillars*/
+	private final int n;
+	/* A private copy of the layout, never changed after construction*/
+	private final PlankGrid grid;
+	/* A read only view of grid for callers*/
+	private final Set<Plank> layout;
+	/* The fingerprint of the layout, which never changes*/
+	private final LayoutFingerprint fingerprint;
+	/* The components of the layout, labelled once for every depth first query*/
+	private final ComponentIndex components;
+	/* Scratch buffers not in use by a depth first query, at most one set per processor*/
+	private final BlockingQueue<SearchScratch> scratch;
+
+	/**
+	 * Constructs a definition from a copy of layout, later changes to layout do not affect it
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 */
+	public MazeDefinition(int n, Set<Plank> layout){
+		if(n < 1)
+			throw new IndexOutOfBoundsException("Given maze size < 0.");
+		if(layout == null)
+			throw new NullPointerException("Given layout is null.");
+		this.n = n;
+		//A weighted layout keeps its costs, any other set is every plank at cost 1
+		if(layout instanceof WeightedLayout && ((WeightedLayout) layout).getLength() == n)
+			grid = new WeightedLayout((WeightedLayout) layout);
+		else
+			grid = new PlankGrid(n, layout);
+		this.layout = Collections.unmodifiableSet(grid);
+		fingerprint = grid.getFingerprint();
+		components = new ComponentIndex(n, grid);
+		scratch = new ArrayBlockingQueue<SearchScratch>(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Gets the length of the grid
+	 * @return	the length and width of grid of pillars
+	 */
+	public int getLength(){
+		return n;
+	}
+
+	/**
+	 * Gets the layout
+	 * @return	a read only view of the planks in the grid
+	 */
+	public Set<Plank> getLayout(){
+		return layout;
+	}
+
+	/**
+	 * Gets the fingerprint of the layout
+	 * @return	the 128 bit fingerprint, equal for definitions of the same size and planks
+	 */
+	public LayoutFingerprint getFingerprint(){
+		return fingerprint;
+	}
+
+	/**
+	 * Finds the path the depth first search in Maze finds, without recursion and reusing
+	 * scratch buffers from the pool
+	 * @param start		the start point
+	 * @param end		the end point
+	 * @param hasPlank	true if we have not yet used the additional plank
+	 * @return	returns the shortest path found
+	 */
+	public Path shortestPath(Pillar start, Pillar end, boolean hasPlank){
+		//Each query has its buffers to itself, and makes new ones when every pooled set is in use
+		SearchScratch buffers = scratch.poll();
+		if(buffers == null)
+			buffers = new SearchScratch();
+		try{
+			return new IterativeDepthFirstSolver(n, grid, start, end, buffers, components).shortestPath(hasPlank);
+		}finally{
+			//Dropped if the pool is already full
+			scratch.offer(buffers);
+		}
+	}
+
+	/**
+	 * Lets go of the pooled scratch buffers, which hold O(n^2) frames each, for a definition that
+	 * is kept but will not be queried for a while. The next depth first queries make them again
+	 */
+	public void releaseScratch(){
+		scratch.clear();
+	}
+
+	/**
+	 * Finds the shortest path with the given engine
+	 * @param start		the start point
+	 * @param end		the end point
+	 * @param hasPlank	true if we have not yet used the additional plank
+	 * @param engine	the search engine to use, both depth first engines reuse the pooled scratch buffers
+	 * @return	returns the shortest path found
+	 */
+	public Path shortestPath(Pillar start, Pillar end, boolean hasPlank, Maze.Engine engine){
+		if(engine == null)
+			throw new NullPointerException("Given engine is null.");
+		//The iterative search finds exactly what the recursive one does, without its deep stack
+		if(engine == Maze.Engine.DEPTH_FIRST || engine == Maze.Engine.ITERATIVE_DEPTH_FIRST)
+			return shortestPath(start, end, hasPlank);
+		return Maze.createSolver(engine, n, grid, start, end).shortestPath(hasPlank);
+	}
+
+	/**
+	 * Gets the cost of a path across this layout, as the DIJKSTRA engine weighs it
+	 * @param path	a path found on this definition
+	 * @return	returns the total cost of the planks of path with the cost of laying the extra plank,
+	 * every step costing 1 if the layout has no costs, or Integer.MAX_VALUE if path is infinite
+	 */
+	public int pathCost(Path path){
+		return WeightedLayout.costOf(n, grid, path);
+	}
+
+	/**
+	 * Finds the shortest path that lays at most maxPlanks extra planks
+	 * @param start		the start point
+	 * @param end		the end point
+	 * @param maxPlanks	the number of extra planks that may be laid
+	 * @return	returns the shortest path found, with its planks in the order they are laid
+	 */
+	public Path shortestPath(Pillar start, Pillar end, int maxPlanks){
+		return new PlankBudgetSolver(n, grid, start, end).shortestPath(maxPlanks);
+	}
+
+	/**
+	 * Finds the distance from source to every pillar, with and without the extra plank, in one sweep
+	 * @param source	the pillar to measure from
+	 * @param hasPlank	true if paths may lay the additional plank
+	 * @return	returns the distance map, which can build a shortest path to any pillar
+	 */
+	public DistanceMap distanceMap(Pillar source, boolean hasPlank){
+		return new DistanceMap(n, grid, source, hasPlank);
+	}
+
+	/**
+	 * Answers a batch of queries on the shared fork/join pool, see shortestPaths(List, boolean, ForkJoinPool)
+	 * @param pairs	the start and end of each query
+	 * @param hasPlank	true if the paths may use the additional plank
+	 * @return	returns a shortest path for each pair, in the same order as pairs
+	 */
+	public List<Path> shortestPaths(List<PillarPair> pairs, boolean hasPlank){
+		return shortestPaths(pairs, hasPlank, ParallelDepthFirstSolver.SHARED_POOL);
+	}
+
+	/**
+	 * Answers a batch of queries. Queries are grouped by start pillar, each group is one task on pool,
+	 * and a group runs one breadth first sweep from its start (a DistanceMap) to answer all of its ends.
+	 * Every path has the shortest possible distance, as with shortestPath, though where several paths
+	 * tie it may be a different one than the depth first search picks
+	 * @param pairs	the start and end of each query
+	 * @param hasPlank	true if the paths may use the additional plank
+	 * @param pool	the pool to run the groups on
+	 * @return	returns a shortest path for each pair, in the same order as pairs
+	 */
+	public List<Path> shortestPaths(List<PillarPair> pairs, boolean hasPlank, ForkJoinPool pool){
+		if(pairs == null || pool == null)
+			throw new NullPointerException("Given input is null.");
+		//Check every query first, so a bad one is reported here rather than from inside the pool
+		Map<Pillar, List<Integer>> groups = new LinkedHashMap<Pillar, List<Integer>>();
+		for(int i = 0; i < pairs.size(); i++){
+			PillarPair pair = pairs.get(i);
+			if(pair == null)
+				throw new NullPointerException("Given input is null.");
+			checkOnGrid(pair.getStart());
+			checkOnGrid(pair.getEnd());
+			List<Integer> group = groups.get(pair.getStart());
+			if(group == null){
+				group = new ArrayList<Integer>();
+				groups.put(pair.getStart(), group);
+			}
+			group.add(i);
+		}
+		Path[] results = new Path[pairs.size()];
+		final List<StartGroup> tasks = new ArrayList<StartGroup>(groups.size());
+		for(Map.Entry<Pillar, List<Integer>> group : groups.entrySet())
+			tasks.add(new StartGroup(group.getKey(), group.getValue(), pairs, hasPlank, results));
+		pool.invoke(new RecursiveAction(){
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute(){
+				invokeAll(tasks);
+			}
+		});
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Throws exception if a pillar is off the grid
+	 * @param p	a pillar
+	 */
+	private void checkOnGrid(Pillar p){
+		if(p.getXCor() >= n || p.getYCor() >= n)
+			throw new IndexOutOfBoundsException("Given pillar is outside of the maze.");
+	}
+
+	/**
+	 * The queries of a batch that share a start pillar
+	 * @author gmh73
+	 *
+	 */
+	private class StartGroup extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		/* The start pillar of every query in the group*/
+		private final Pillar start;
+		/* The places of the group's queries in the batch*/
+		private final List<Integer> indices;
+		/* The whole batch*/
+		private final List<PillarPair> pairs;
+		/* true if the paths may use the additional plank*/
+		private final boolean hasPlank;
+		/* Where the paths go, by place in the batch*/
+		private final Path[] results;
+
+		/**
+		 * Constructs a group
+		 * @param start	the start pillar of every query in the group
+		 * @param indices	the places of the group's queries in the batch
+		 * @param pairs	the whole batch
+		 * @param hasPlank	true if the paths may use the additional plank
+		 * @param results	where the paths go, by place in the batch
+		 */
+		StartGroup(Pillar start, List<Integer> indices, List<PillarPair> pairs, boolean hasPlank, Path[] results){
+			this.start = start;
+			this.indices = indices;
+			this.pairs = pairs;
+			this.hasPlank = hasPlank;
+			this.results = results;
+		}
+
+		@Override
+		protected void compute(){
+			DistanceMap map = new DistanceMap(n, grid, start, hasPlank);
+			for(int i : indices)
+				results[i] = map.pathTo(pairs.get(i).getEnd());
+		}
+	}
+
+	/**
+	 * A test button for testing
+	 * @author gmh73
+	 *
+	 */
+	public class TestButton{
+		/**
+		 * Returns the scratch buffers waiting in the pool
+		 * @return	this scratch
+		 */
+		public BlockingQueue<SearchScratch> getScratch(){
+			return MazeDefinition.this.scratch;
+		}
+	}
+}
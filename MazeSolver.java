@@ -0,0 +1,15 @@
+/**
+ * A strategy for finding the shortest path from a start pillar to an end pillar
+ * through a layout of planks, optionally using one extra plank
+ * @author gmh73
+ *
+ */
+public interface MazeSolver {
+
+	/**
+	 * Finds the shortest path from the start pillar to the end pillar
+	 * @param hasPlank	true if we may use the additional plank
+	 * @return	returns the shortest path found, or a path of infinite distance if there is none
+	 */
+	public Path shortestPath(boolean hasPlank);
+}
@@ -0,0 +1,347 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maze's branch and bound depth first search split across a ForkJoinPool.
+ * The search tree is cut at a shallow depth and every subtree left becomes a task. Tasks are numbered
+ * in the order the sequential search would reach them, and share the best (distance, task number) found
+ * so far in one AtomicLong, with the distance in the high 32 bits. A task gives up on a pillar as soon as
+ * its distance plus the Manhattan distance to the end cannot beat that pair, which also stops every later
+ * task once a path of the shortest possible distance is found.
+ * Ties go to the lowest task number, and each task keeps the first path it finds of each distance, so the
+ * result is the same path the sequential search returns, whatever the number of threads.
+ * Moves that cannot reach the end's component are skipped as in the sequential search (see ComponentIndex).
+ * @author gmh73
+ *
+ */
+public class ParallelDepthFirstSolver extends GridSolver {
+	/* The pool used when none is given, also used for MazeDefinition's batches*/
+	static final ForkJoinPool SHARED_POOL = new ForkJoinPool();
+	/* The number of steps searched before the tree is split into tasks when no depth is given*/
+	public static final int DEFAULT_SPLIT_DEPTH = 6;
+
+	/* The pool the tasks run in*/
+	private final ForkJoinPool pool;
+	/* The number of steps searched before the tree is split into tasks*/
+	private final int splitDepth;
+	/* The best (distance << 32 | task number) found so far in the current search*/
+	private AtomicLong best;
+	/* The tasks of the current search, in the order the sequential search reaches them*/
+	private List<Subtree> tasks;
+	/* The components of the layout during the current search*/
+	private ComponentIndex components;
+
+	/**
+	 * Constructs a parallel depth first solver
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 * @param pool	the pool to run the tasks in
+	 * @param splitDepth	the number of steps searched before the tree is split into tasks
+	 */
+	public ParallelDepthFirstSolver(int n, Set<Plank> layout, Pillar start, Pillar end, ForkJoinPool pool, int splitDepth){
+		super(n, layout, start, end);
+		if(pool == null)
+			throw new NullPointerException("Given input is null.");
+		if(splitDepth < 1)
+			throw new IndexOutOfBoundsException("Given split depth < 1.");
+		this.pool = pool;
+		this.splitDepth = splitDepth;
+	}
+
+	/**
+	 * Constructs a parallel depth first solver on a shared pool with one thread per processor
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 */
+	public ParallelDepthFirstSolver(int n, Set<Plank> layout, Pillar start, Pillar end){
+		this(n, layout, start, end, SHARED_POOL, DEFAULT_SPLIT_DEPTH);
+	}
+
+	/**
+	 * Default constructor if no start and end is specified
+	 * Start is (0,0) and end is (n-1,n-1)
+	 * @param n  The length of the grid
+	 * @param layout  A set of planks
+	 */
+	public ParallelDepthFirstSolver(int n, Set<Plank> layout){
+		this(n, layout, new Pillar(0,0), new Pillar(n - 1, n - 1));
+	}
+
+	@Override
+	public Path shortestPath(boolean hasPlank) {
+		expanded = 0;
+		if(startId == endId)
+			return buildPath(new int[]{startId}, 1, -1, -1);
+		components = new ComponentIndex(n, layout);
+		if(!components.canReach(startId, endId, hasPlank))
+			return noPath();
+		best = new AtomicLong(Long.MAX_VALUE);
+		tasks = new ArrayList<Subtree>();
+		int[] prefix = new int[splitDepth + 1];
+		prefix[0] = startId;
+		BitSet onPrefix = new BitSet(n * n);
+		onPrefix.set(startId);
+		split(prefix, 0, -1, hasPlank, onPrefix);
+		//Made before the tasks start, so they all share one table
+		pillars();
+		pool.invoke(new RecursiveAction(){
+			@Override
+			protected void compute(){
+				invokeAll(tasks);
+			}
+		});
+		for(Subtree task : tasks)
+			expanded += task.expanded;
+		long found = best.get();
+		if(found == Long.MAX_VALUE)
+			return noPath();
+		return tasks.get((int) found).found;
+	}
+
+	/**
+	 * Walks the top of the search tree in the order the sequential search does, making a task
+	 * for every subtree at splitDepth steps and for every path that reaches the end sooner
+	 * @param prefix	the pillar ids from the start to the current pillar
+	 * @param depth	the index of the current pillar in prefix
+	 * @param plankAt	the index in prefix of the pillar reached by laying the plank, or -1
+	 * @param hasPlank	true if the plank is still available at the current pillar
+	 * @param onPrefix	the ids in the prefix
+	 */
+	private void split(int[] prefix, int depth, int plankAt, boolean hasPlank, BitSet onPrefix){
+		int id = prefix[depth];
+		if(depth == splitDepth || (depth > 0 && id == endId)){
+			tasks.add(new Subtree(Arrays.copyOf(prefix, depth + 1), plankAt, hasPlank, tasks.size()));
+			return;
+		}
+		expanded++;
+		//Without the plank, only a pillar in the end's component can lead to the end
+		if(!hasPlank && !components.sameComponent(id, endId))
+			return;
+		int connected = connections(id);
+		//The sequential search tries the pillars reached with the plank first, then the connected ones
+		for(int phase = hasPlank ? 0 : 1; phase < 2; phase++){
+			int dirs = phase == 0 ? plankTargets(id, connected) : connected;
+			for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1){
+				if((dirs & dir) == 0)
+					continue;
+				int next = neighbor(id, dir);
+				if(onPrefix.get(next))
+					continue;
+				prefix[depth + 1] = next;
+				onPrefix.set(next);
+				split(prefix, depth + 1, phase == 0 ? depth + 1 : plankAt, hasPlank && phase == 1, onPrefix);
+				onPrefix.clear(next);
+			}
+		}
+	}
+
+	/**
+	 * Gets the directions worth laying the plank in, the gaps that land in the end's component
+	 * @param id	a pillar id
+	 * @param connected	the directions joined to id by the layout
+	 * @return	returns a mask of Pillar.PLUS_X, PLUS_Y, MINUS_X and MINUS_Y
+	 */
+	private int plankTargets(int id, int connected){
+		int gaps = adjacentDirections(id) & ~connected;
+		for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1)
+			if((gaps & dir) != 0 && !components.sameComponent(neighbor(id, dir), endId))
+				gaps &= ~dir;
+		return gaps;
+	}
+
+	/**
+	 * Packs a distance and a task number so that comparing the longs compares the distances first
+	 * @param distance	a path distance
+	 * @param ordinal	a task number
+	 * @return	returns distance << 32 | ordinal
+	 */
+	private static long pack(int distance, int ordinal){
+		return ((long) distance << 32) | ordinal;
+	}
+
+	/**
+	 * One subtree of the search, searched with an explicit stack like IterativeDepthFirstSolver
+	 * @author gmh73
+	 *
+	 */
+	private class Subtree extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		/* The pillar ids from the start to the root of the subtree*/
+		private final int[] prefix;
+		/* The index in prefix of the pillar reached by laying the plank, or -1*/
+		private final int plankAt;
+		/* true if the plank is still available at the root of the subtree*/
+		private final boolean hasPlank;
+		/* The place of this subtree in the order of the sequential search*/
+		private final int ordinal;
+		/* The path the task found last, which is the best one it found*/
+		private Path found;
+		/* How many pillars this task expanded*/
+		private int expanded;
+		/* The path from the start to the top frame*/
+		private ArrayPath path;
+		/* The number of steps in path*/
+		private int steps;
+		/* The pillar id of each frame*/
+		private int[] node;
+		/* The directions each frame has left to try in its current phase*/
+		private int[] left;
+		/* true while a frame is trying the pillars reached by laying the extra plank*/
+		private boolean[] plankPhase;
+		/* true if the extra plank is still available to a frame*/
+		private boolean[] plankLeft;
+
+		/**
+		 * Constructs a task for a subtree
+		 * @param prefix	the pillar ids from the start to the root of the subtree
+		 * @param plankAt	the index in prefix of the pillar reached by laying the plank, or -1
+		 * @param hasPlank	true if the plank is still available at the root
+		 * @param ordinal	the place of this subtree in the order of the sequential search
+		 */
+		Subtree(int[] prefix, int plankAt, boolean hasPlank, int ordinal){
+			this.prefix = prefix;
+			this.plankAt = plankAt;
+			this.hasPlank = hasPlank;
+			this.ordinal = ordinal;
+		}
+
+		@Override
+		protected void compute(){
+			path = new ArrayPath(n, pillars());
+			for(int i = 0; i < prefix.length; i++){
+				if(i == plankAt)
+					path.setPlank(plank(prefix[i], prefix[i - 1]));
+				path.addPillar(pillar(prefix[i]));
+			}
+			steps = prefix.length - 1;
+			int root = prefix[steps];
+			if(root == endId){
+				offer();
+				return;
+			}
+			if(!promising(root))
+				return;
+			node = new int[16];
+			left = new int[16];
+			plankPhase = new boolean[16];
+			plankLeft = new boolean[16];
+			int top = 0;
+			push(top, root, hasPlank);
+			while(top >= 0){
+				int id = node[top];
+				//Another task may have found something better since this pillar was pushed
+				if(left[top] != 0 && !promising(id)){
+					left[top] = 0;
+					plankPhase[top] = false;
+				}
+				if(left[top] == 0){
+					if(plankPhase[top]){
+						plankPhase[top] = false;
+						left[top] = connections(id);
+						continue;
+					}
+					top--;
+					if(top >= 0)
+						back(plankPhase[top], id);
+					continue;
+				}
+				int dir = left[top] & -left[top];
+				left[top] &= ~dir;
+				int next = neighbor(id, dir);
+				Pillar p = pillar(next);
+				if(path.containsPillar(p))
+					continue;
+				if(plankPhase[top])
+					path.setPlank(plank(next, id));
+				path.addPillar(p);
+				steps++;
+				if(next == endId){
+					offer();
+					back(plankPhase[top], next);
+				}else if(!promising(next))
+					back(plankPhase[top], next);
+				else{
+					if(top + 1 == node.length)
+						grow();
+					push(top + 1, next, plankLeft[top] && !plankPhase[top]);
+					top++;
+				}
+			}
+		}
+
+		/**
+		 * Checks if a path through the pillar at the end of path could still beat the best found so far
+		 * @param id	the pillar id at the end of path
+		 * @return	returns true if steps plus the Manhattan distance to the end, with this task's number, is below best
+		 */
+		private boolean promising(int id){
+			return pack(steps + manhattan(id, endId), ordinal) < best.get();
+		}
+
+		/**
+		 * Offers path, which ends at the end pillar, as the best path found
+		 */
+		private void offer(){
+			long mine = pack(steps, ordinal);
+			long current = best.get();
+			while(mine < current){
+				if(best.compareAndSet(current, mine)){
+					found = path.snapshot();
+					return;
+				}
+				current = best.get();
+			}
+		}
+
+		/**
+		 * Takes the last pillar back off path
+		 * @param plankStep	true if the pillar was reached by laying the plank
+		 * @param id	the id of the last pillar
+		 */
+		private void back(boolean plankStep, int id){
+			if(plankStep)
+				path.removePlank();
+			path.removeLastPillar(pillar(id));
+			steps--;
+		}
+
+		/**
+		 * Pushes a frame for a pillar that has just been added to path
+		 * @param top	the index of the new frame
+		 * @param id	the pillar id
+		 * @param plank	true if the extra plank is still available
+		 */
+		private void push(int top, int id, boolean plank){
+			expanded++;
+			node[top] = id;
+			plankLeft[top] = plank;
+			plankPhase[top] = plank;
+			int connected = connections(id);
+			if(plank)
+				left[top] = plankTargets(id, connected);
+			else
+				left[top] = components.sameComponent(id, endId) ? connected : 0;
+		}
+
+		/**
+		 * Doubles the frame arrays
+		 */
+		private void grow(){
+			int length = 2 * node.length;
+			node = Arrays.copyOf(node, length);
+			left = Arrays.copyOf(left, length);
+			plankPhase = Arrays.copyOf(plankPhase, length);
+			plankLeft = Arrays.copyOf(plankLeft, length);
+		}
+	}
+}
@@ -1,3 +1,5 @@
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -10,6 +12,7 @@ import java.util.Set;
  * A set of Pillars with constant time contains? check
  * A list of Pillars in order from start to current
  * A plank that is empty if there was no extra plank used in the path, or containing the Plank used if one was used
+ * Any further extra planks, for paths allowed more than one
  * @author gmh73
  *
  */
@@ -22,6 +25,8 @@ public class Path {
 	private List<Pillar> ppath;
 	 /* A plank that is empty if there was no extra plank used in the path, or containing the Plank used if one was used*/
 	Plank addedPlank;
+	 /* The extra planks after addedPlank in the order they were added, or null if there are none*/
+	List<Plank> morePlanks;
 	
 	/**
 	 * Constructs a new path with distance -1 and empty set/list of pillars
@@ -33,6 +38,16 @@ public class Path {
 		addedPlank = null;
 	}
 	
+	/**
+	 * Constructs a path for a subclass that keeps its own pillars, so the set and list are never built.
+	 * The subclass must override every method that uses them
+	 * @param distance	the starting distance
+	 */
+	Path(int distance){
+		this.distance = distance;
+		addedPlank = null;
+	}
+	
 	/**
 	 * Adds an adjacent pillar to the path
 	 * @param p a pillar
@@ -91,6 +106,22 @@ public class Path {
 		return this.distance == dist;
 	}
 	
+	/**
+	 * Gets the distance of this path
+	 * @return	the number of steps in the path, -1 if it is empty, or Integer.MAX_VALUE if it is infinite
+	 */
+	int getDistance(){
+		return distance;
+	}
+	
+	/**
+	 * Sets the distance, for a subclass that keeps its own pillars and counts its own steps
+	 * @param distance	the number of steps in the path, -1 if it is empty, or Integer.MAX_VALUE if it is infinite
+	 */
+	void setDistance(int distance){
+		this.distance = distance;
+	}
+	
 	/**
 	 * sets this distance to infinite
 	 */
@@ -121,13 +152,34 @@ public class Path {
 	 */
 	public void setPlank(Plank pl){
 		addedPlank = pl;
+		morePlanks = null;
 	}
 	
 	/**
-	 * Sets the plank of this path to null
+	 * Adds another extra plank to this path, after any it already has
+	 * @param pl	a plank
+	 */
+	public void addPlank(Plank pl){
+		checkNull(pl);
+		if(addedPlank == null){
+			addedPlank = pl;
+			return;
+		}
+		if(morePlanks == null)
+			morePlanks = new ArrayList<Plank>();
+		morePlanks.add(pl);
+	}
+	
+	/**
+	 * Removes the last extra plank added, so a path with one plank is left with none
 	 */
 	public void removePlank(){
-		addedPlank = null;
+		if(morePlanks != null){
+			morePlanks.remove(morePlanks.size() - 1);
+			if(morePlanks.isEmpty())
+				morePlanks = null;
+		}else
+			addedPlank = null;
 	}
 	
 	/**
@@ -149,11 +201,33 @@ public class Path {
 		return addedPlank;
 	}
 	
+	/**
+	 * Gets every extra plank of this path
+	 * @return	the added planks in the order they were added, empty if there are none
+	 */
+	public List<Plank> getPlanks(){
+		if(addedPlank == null)
+			return Collections.emptyList();
+		List<Plank> planks = new ArrayList<Plank>();
+		planks.add(addedPlank);
+		if(morePlanks != null)
+			planks.addAll(morePlanks);
+		return Collections.unmodifiableList(planks);
+	}
+	
+	/**
+	 * Gets the pillars of this path in order from start to current
+	 * @return	the list of pillars
+	 */
+	List<Pillar> pillarList(){
+		return ppath;
+	}
+	
 	@Override
 	public String toString(){
 		String out = "";
 		boolean first = true;
-		for(Pillar p : ppath){
+		for(Pillar p : pillarList()){
 			if(!first)
 				out += " --> ";
 			out += p.toString();
@@ -179,10 +253,13 @@ public class Path {
 				//so that if they are both null, they are technically equal
 				samePlank = p.addedPlank == this.addedPlank;
 			}
+			//Any further planks have to match too
+			if(samePlank && (p.morePlanks != null || this.morePlanks != null))
+				samePlank = p.getPlanks().equals(this.getPlanks());
 			//If the distance is the same and the plank is the same
 			if(distEqual && samePlank){
 				//check if the list of pillars are the same
-				return ppath.equals(p.ppath); 
+				return pillarList().equals(p.pillarList()); 
 			}
 		}
 		return false;
@@ -199,6 +276,8 @@ public class Path {
 		 * @return
 		 */
 		public Set<Pillar> getPillars(){
+			if(Path.this.pillars == null)
+				return new HashSet<Pillar>(Path.this.pillarList());
 			return Path.this.pillars;
 		}
 		/**
@@ -206,7 +285,7 @@ public class Path {
 		 * @return
 		 */
 		public List<Pillar> getPPath(){
-			return Path.this.ppath;
+			return Path.this.pillarList();
 		}
 		/**
 		 * Calls checkNull on o
@@ -223,11 +302,14 @@ public class Path {
 	 */
 	public Path copy() {
 		Path r = new Path();
-		Iterator<Pillar> i = ppath.listIterator();
+		Iterator<Pillar> i = pillarList().iterator();
 		while(i.hasNext()){
 			r.addPillar(i.next());
 		}
 		r.setPlank(this.getPlank());
+		if(morePlanks != null)
+			for(Plank pl : morePlanks)
+				r.addPlank(pl);
 		return r;
 	}
 }
@@ -0,0 +1,115 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable Path kept as a list of nodes that point back to the path they extend.
+ * Paths that share a beginning share its nodes, so extending a path or keeping a snapshot of one
+ * costs a single node. The list of pillars is only built when a caller asks for it.
+ * Every method that would change the path throws UnsupportedOperationException.
+ * @author gmh73
+ *
+ */
+public class PersistentPath extends Path {
+	/* The last pillar of the path*/
+	private final Pillar pillar;
+	/* The path without its last pillar, or null if this path is a single pillar*/
+	private final PersistentPath parent;
+
+	/**
+	 * Constructs a path that extends parent by one pillar
+	 * @param pillar	the last pillar of the path
+	 * @param parent	the path this one extends, or null to start a new path at pillar
+	 * @param plank	the extra plank used by the path, or null if there is none
+	 */
+	public PersistentPath(Pillar pillar, PersistentPath parent, Plank plank){
+		super(parent == null ? 0 : parent.getDistance() + 1);
+		if(pillar == null)
+			throw new NullPointerException("Given input is null.");
+		if(parent != null && !parent.pillar.isAdjacentTo(pillar))
+			throw new IndexOutOfBoundsException("Given pillar is not adjacent to the end of the path.");
+		this.pillar = pillar;
+		this.parent = parent;
+		addedPlank = plank;
+	}
+
+	/**
+	 * Gets the path this one extends
+	 * @return	the path without its last pillar, or null if this path is a single pillar
+	 */
+	public PersistentPath getParent(){
+		return parent;
+	}
+
+	/**
+	 * Builds the path that extends this one by one pillar, keeping the plank
+	 * @param p	a pillar adjacent to the last pillar
+	 * @return	the longer path
+	 */
+	public PersistentPath extend(Pillar p){
+		return new PersistentPath(p, this, addedPlank);
+	}
+
+	/**
+	 * Builds a path with the same pillars and a different plank
+	 * @param pl	the extra plank used by the path, or null if there is none
+	 * @return	this path if pl is already its plank, otherwise a path sharing all but the last node
+	 */
+	public PersistentPath withPlank(Plank pl){
+		if(pl == addedPlank)
+			return this;
+		return new PersistentPath(pillar, parent, pl);
+	}
+
+	@Override
+	public Pillar lastPillar(){
+		return pillar;
+	}
+
+	@Override
+	public boolean containsPillar(Pillar p){
+		for(PersistentPath node = this; node != null; node = node.parent)
+			if(node.pillar.equals(p))
+				return true;
+		return false;
+	}
+
+	@Override
+	List<Pillar> pillarList(){
+		List<Pillar> list = new ArrayList<Pillar>(getDistance() + 1);
+		for(PersistentPath node = this; node != null; node = node.parent)
+			list.add(node.pillar);
+		Collections.reverse(list);
+		return list;
+	}
+
+	@Override
+	public void addPillar(Pillar p){
+		throw new UnsupportedOperationException("A persistent path cannot be changed.");
+	}
+
+	@Override
+	public void removeLastPillar(Pillar lastP){
+		throw new UnsupportedOperationException("A persistent path cannot be changed.");
+	}
+
+	@Override
+	public void setPlank(Plank pl){
+		throw new UnsupportedOperationException("A persistent path cannot be changed.");
+	}
+
+	@Override
+	public void addPlank(Plank pl){
+		throw new UnsupportedOperationException("A persistent path cannot be changed.");
+	}
+
+	@Override
+	public void removePlank(){
+		throw new UnsupportedOperationException("A persistent path cannot be changed.");
+	}
+
+	@Override
+	public void setDistanceToInfinite(){
+		//A persistent path always has at least one pillar, so this does nothing, as for a Path
+	}
+}
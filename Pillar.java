@@ -8,8 +8,14 @@ import java.util.Set;
  *
  */
 public class Pillar {
-	private int x;
-	private int y;
+	/* Direction bits returned by adjoiningDirections, in the same order as adjoiningPillars*/
+	public static final int PLUS_X = 1;
+	public static final int PLUS_Y = 2;
+	public static final int MINUS_X = 4;
+	public static final int MINUS_Y = 8;
+	
+	private final int x;
+	private final int y;
 	
 	/**
 	 * Constructs a new pillar at position xCor and yCor
@@ -79,9 +85,33 @@ public class Pillar {
 	public List<Pillar> adjoiningPillars(boolean usePlank, Set<Plank> layout, int limit){
 		checkNull(layout);
 		checkLimit(limit);
+		return adjoiningPillars(usePlank, layout, adjacentPillars(limit, null));
+	}
+	
+	/**
+	 * All adjoining pillars on the grid of table, taken from table so none are allocated
+	 * @param usePlank	true if we are using the extra plank
+	 * @param layout	the layout of the planks
+	 * @param table	the interned pillars of the grid, its length is the limit + 1
+	 * @return	returns the adjoining pillars
+	 */
+	public List<Pillar> adjoiningPillars(boolean usePlank, Set<Plank> layout, PillarTable table){
+		checkNull(layout);
+		if(table == null)
+			throw new NullPointerException("Given input is null");
+		checkLimit(table.getLength() - 1);
+		return adjoiningPillars(usePlank, layout, adjacentPillars(table.getLength() - 1, table));
+	}
+	
+	/**
+	 * The adjoining pillars among the adjacent ones
+	 * @param usePlank	true if we are using the extra plank
+	 * @param layout	the layout of the planks
+	 * @param adjacentP	the pillars adjacent to this one
+	 * @return	returns the adjoining pillars
+	 */
+	private List<Pillar> adjoiningPillars(boolean usePlank, Set<Plank> layout, List<Pillar> adjacentP){
 		List<Pillar> adjoiningP = new LinkedList<Pillar>();
-		//get all adjacent pillars
-		List<Pillar> adjacentP = adjacentPillars(limit);
 		//check if each pillar is adjacent
 		for(Pillar p : adjacentP){
 			Plank conn = new Plank(this, p);
@@ -92,6 +122,82 @@ public class Pillar {
 		return adjoiningP;
 	}
 	
+	/**
+	 * The directions of all adjoining pillars, as a mask of PLUS_X, PLUS_Y, MINUS_X and MINUS_Y.
+	 * Nothing is allocated when layout is a PlankIndex (PlankGrid or PlankSet) for a grid of length limit + 1
+	 * @param usePlank	true if we are using the extra plank
+	 * @param layout	the layout of the planks
+	 * @param limit	the max coordinate of the grid
+	 * @return	returns the direction bits of the adjoining pillars
+	 */
+	public int adjoiningDirections(boolean usePlank, Set<Plank> layout, int limit){
+		checkNull(layout);
+		checkLimit(limit);
+		return adjoiningDirections(usePlank, layout, limit, null);
+	}
+	
+	/**
+	 * The directions of all adjoining pillars on the grid of table. When layout is not a PlankIndex
+	 * the neighbors it is checked against come from table, so only the planks are allocated
+	 * @param usePlank	true if we are using the extra plank
+	 * @param layout	the layout of the planks
+	 * @param table	the interned pillars of the grid, its length is the limit + 1
+	 * @return	returns the direction bits of the adjoining pillars
+	 */
+	public int adjoiningDirections(boolean usePlank, Set<Plank> layout, PillarTable table){
+		checkNull(layout);
+		if(table == null)
+			throw new NullPointerException("Given input is null");
+		checkLimit(table.getLength() - 1);
+		return adjoiningDirections(usePlank, layout, table.getLength() - 1, table);
+	}
+	
+	/**
+	 * The directions of all adjoining pillars, for a checked layout and limit
+	 * @param usePlank	true if we are using the extra plank
+	 * @param layout	the layout of the planks
+	 * @param limit	the max coordinate of the grid
+	 * @param table	the interned pillars of the grid, or null
+	 * @return	returns the direction bits of the adjoining pillars
+	 */
+	private int adjoiningDirections(boolean usePlank, Set<Plank> layout, int limit, PillarTable table){
+		int n = limit + 1;
+		PlankIndex index = layout instanceof PlankIndex && ((PlankIndex) layout).getLength() == n ? (PlankIndex) layout : null;
+		int id = y * n + x;
+		int directions = 0;
+		//Same checks as adjacentPillars, then the same test as connectionAdjoined
+		if(x != limit && isAdjoined(usePlank, layout, index, table, id, id + 1, x + 1, y))
+			directions |= PLUS_X;
+		if(y != limit && isAdjoined(usePlank, layout, index, table, id, id + n, x, y + 1))
+			directions |= PLUS_Y;
+		if(x != 0 && isAdjoined(usePlank, layout, index, table, id, id - 1, x - 1, y))
+			directions |= MINUS_X;
+		if(y != 0 && isAdjoined(usePlank, layout, index, table, id, id - n, x, y - 1))
+			directions |= MINUS_Y;
+		return directions;
+	}
+	
+	/**
+	 * Checks if the pillar at (xCor,yCor) is adjoined to this one
+	 * @param usePlank	true if we are using an extra plank
+	 * @param layout	the set of all planks already used
+	 * @param index	layout as a PlankIndex for this grid, or null
+	 * @param table	the pillar table for the grid, or null
+	 * @param id	the id of this pillar
+	 * @param otherId	the id of the other pillar
+	 * @param xCor	the x coordinate of the other pillar
+	 * @param yCor	the y coordinate of the other pillar
+	 * @return	returns true if the pillars are adjoined
+	 */
+	private boolean isAdjoined(boolean usePlank, Set<Plank> layout, PlankIndex index, PillarTable table, int id, int otherId, int xCor, int yCor){
+		boolean connected;
+		if(index != null)
+			connected = index.isConnected(id, otherId);
+		else
+			connected = layout.contains(new Plank(this, pillarAt(table, xCor, yCor)));
+		return connected != usePlank;
+	}
+	
 	/**
 	 * Throws exception if the limit < either x or y coordinate
 	 * @param limit		a specified maze limit
@@ -133,33 +239,43 @@ public class Pillar {
 	/**
 	 * Gets all pillars adjacent to this one
 	 * Will always return a list of 2 to 4 pillars
+	 * @param limit	the max coordinate of the grid
+	 * @param table	the interned pillars of the grid to take them from, or null to make new ones
 	 * @return	a list of adjacent pillars
 	 */
-	private List<Pillar> adjacentPillars(int limit) {
+	private List<Pillar> adjacentPillars(int limit, PillarTable table) {
 		List<Pillar> allAdjP = new LinkedList<Pillar>();
-		Pillar p;
 		//If we are not at the limit for x, x + 1 exists and is adjacent
 		if(x != limit){
-			p = new Pillar(x + 1, y);
-			allAdjP.add(p);
+			allAdjP.add(pillarAt(table, x + 1, y));
 		}
 		//If we are not at the limit for y, y + 1 exists and is adjacent
 		if(y != limit){
-			p = new Pillar(x, y+1);
-			allAdjP.add(p);
+			allAdjP.add(pillarAt(table, x, y + 1));
 		}
 		//If we are not at 0 for x, x - 1 exists and is adjacent
 		if(x != 0){
-			p = new Pillar(x - 1, y);
-			allAdjP.add(p);
+			allAdjP.add(pillarAt(table, x - 1, y));
 		}
 		//If we are not at 0 for y, y - 1 exists and is adjacent
 		if(y != 0){
-			p = new Pillar(x, y-1);
-			allAdjP.add(p);
+			allAdjP.add(pillarAt(table, x, y - 1));
 		}
 		return allAdjP;
 	}
+	
+	/**
+	 * Gets the pillar at (xCor,yCor) from table, or a new one if there is no table
+	 * @param table	the pillar table for the grid, or null
+	 * @param xCor	the x coordinate
+	 * @param yCor	the y coordinate
+	 * @return	a pillar at (xCor,yCor)
+	 */
+	private static Pillar pillarAt(PillarTable table, int xCor, int yCor){
+		if(table == null)
+			return new Pillar(xCor, yCor);
+		return table.get(table.id(xCor, yCor));
+	}
 
 	@Override
 	public boolean equals(Object o){
@@ -172,9 +288,9 @@ public class Pillar {
 	
 	@Override
 	public int hashCode(){
-		Integer xh = x;
-		Integer yh = y;
-		return 2*xh.hashCode() + 3*yh.hashCode();
+		//x goes in the high bits and y in the low bits, so no two pillars
+		//with coordinates below 65536 share a hash code
+		return (x << 16) ^ y;
 	}
 	
 	@Override
@@ -192,7 +308,7 @@ public class Pillar {
 			Pillar.this.checkCoorValid(coor);
 		}
 		public List<Pillar> testAdjacentPillars(int limit){
-			return Pillar.this.adjacentPillars(limit);
+			return Pillar.this.adjacentPillars(limit, null);
 		}
 		public boolean testConnectionAdjoined(boolean usePlank, Plank conn, Set<Plank> layout){
 			return Pillar.this.connectionAdjoined(usePlank, conn, layout);
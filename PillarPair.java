@@ -0,0 +1,58 @@
+/**
+ * A start pillar and an end pillar, one query of a batch
+ * @author gmh73
+ *
+ */
+public class PillarPair {
+	/* The start pillar*/
+	private final Pillar start;
+	/* The end pillar*/
+	private final Pillar end;
+
+	/**
+	 * Constructs a pair
+	 * @param start		the start point
+	 * @param end		the end point
+	 */
+	public PillarPair(Pillar start, Pillar end){
+		if(start == null || end == null)
+			throw new NullPointerException("Given input is null.");
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Gets the start pillar
+	 * @return	the start point
+	 */
+	public Pillar getStart(){
+		return start;
+	}
+
+	/**
+	 * Gets the end pillar
+	 * @return	the end point
+	 */
+	public Pillar getEnd(){
+		return end;
+	}
+
+	@Override
+	public boolean equals(Object o){
+		if(o instanceof PillarPair){
+			PillarPair p = (PillarPair) o;
+			return p.start.equals(start) && p.end.equals(end);
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode(){
+		return 31 * start.hashCode() + end.hashCode();
+	}
+
+	@Override
+	public String toString(){
+		return start.toString() + " --> " + end.toString();
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ * An interned table of the Pillars of an n x n grid, indexed by the packed id y*n + x.
+ * Each pillar is created the first time it is asked for, and after that the same
+ * Pillar object is handed out, so searches can move between neighbors without allocating.
+ * Each maze or search that owns a grid size makes its own table and hands it to what it builds,
+ * so the interned pillars are let go with their owner.
+ * @author gmh73
+ *
+ */
+public class PillarTable {
+	/* The longest grid side that gets a table, so a table's array stays under about 16 MB*/
+	public static final int MAX_LENGTH = 2048;
+
+	/* The length and width of the grid*/
+	private final int n;
+	/* The pillar for every id, or null if it has not been asked for yet*/
+	private final Pillar[] pillars;
+	/* The plank for every pair of adjacent ids, as for PlankGrid's bits, or null until a plank is first asked for*/
+	private Plank[] planks;
+
+	/**
+	 * Constructs an empty table for an n x n grid
+	 * @param n	the length and width of the grid, from 1 to MAX_LENGTH
+	 */
+	public PillarTable(int n){
+		if(!hasTable(n))
+			throw new IndexOutOfBoundsException("Given maze size has no pillar table.");
+		this.n = n;
+		pillars = new Pillar[n * n];
+	}
+
+	/**
+	 * Checks if there is a table for an n x n grid
+	 * @param n	the length and width of the grid
+	 * @return	returns true if a table can be made for grids of length n
+	 */
+	public static boolean hasTable(int n){
+		return n >= 1 && n <= MAX_LENGTH;
+	}
+
+	/**
+	 * Gets the length and width of the grid
+	 * @return	the n of this n x n grid
+	 */
+	public int getLength(){
+		return n;
+	}
+
+	/**
+	 * Gets the pillar with the given id
+	 * @param id	a pillar id from 0 to n*n - 1
+	 * @return	returns the interned pillar at (id % n, id / n)
+	 */
+	public Pillar get(int id){
+		Pillar p = pillars[id];
+		//Two threads may both build the pillar, which is harmless since pillars are equal by value
+		if(p == null){
+			p = new Pillar(id % n, id / n);
+			pillars[id] = p;
+		}
+		return p;
+	}
+
+	/**
+	 * Gets the pillar at (x,y)
+	 * @param x	an x coordinate less than n
+	 * @param y	a y coordinate less than n
+	 * @return	returns the interned pillar at (x,y)
+	 */
+	public Pillar get(int x, int y){
+		checkOnGrid(x, y);
+		return get(id(x, y));
+	}
+
+	/**
+	 * Gets the plank between two adjacent pillars, made from this table's pillars
+	 * @param a	a pillar id
+	 * @param b	the id of a pillar next to a
+	 * @return	returns the interned plank joining a and b
+	 */
+	public Plank getPlank(int a, int b){
+		int low = Math.min(a, b);
+		//Planks along x come first, then planks along y, as in PlankGrid
+		int slot = Math.abs(a - b) == 1 ? low : n * n + low;
+		Plank[] p = planks;
+		//As with pillars, two threads may both build the array or a plank, which is harmless
+		if(p == null){
+			p = new Plank[2 * n * n];
+			planks = p;
+		}
+		if(p[slot] == null)
+			p[slot] = new Plank(get(a), get(b));
+		return p[slot];
+	}
+
+	/**
+	 * Gets the id of (x,y)
+	 * @param x	an x coordinate less than n
+	 * @param y	a y coordinate less than n
+	 * @return	returns y*n + x
+	 */
+	public int id(int x, int y){
+		return y * n + x;
+	}
+
+	/**
+	 * Gets the id of a pillar
+	 * @param p	a pillar on the grid
+	 * @return	returns y*n + x
+	 */
+	public int id(Pillar p){
+		checkOnGrid(p.getXCor(), p.getYCor());
+		return id(p.getXCor(), p.getYCor());
+	}
+
+	/**
+	 * Puts the ids of all pillars adjacent to id into out, in the same order as
+	 * Pillar.adjoiningPillars (+x, +y, -x, -y)
+	 * @param id	a pillar id
+	 * @param out	an array of at least 4 ints
+	 * @return	returns the number of adjacent pillars (2 to 4, or 0 if n is 1)
+	 */
+	public int adjacent(int id, int[] out){
+		int x = id % n;
+		int y = id / n;
+		int count = 0;
+		if(x != n - 1)
+			out[count++] = id + 1;
+		if(y != n - 1)
+			out[count++] = id + n;
+		if(x != 0)
+			out[count++] = id - 1;
+		if(y != 0)
+			out[count++] = id - n;
+		return count;
+	}
+
+	/**
+	 * Throws an exception if (x,y) is not on the grid
+	 * @param x	an x coordinate
+	 * @param y	a y coordinate
+	 */
+	private void checkOnGrid(int x, int y){
+		if(x < 0 || y < 0 || x >= n || y >= n)
+			throw new IndexOutOfBoundsException("Given pillar is outside of the maze.");
+	}
+}
@@ -1,13 +1,23 @@
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
- * Plank class contains a set of two adjacent Pillars
+ * Plank class contains two adjacent Pillars
+ * The pillars are kept in a canonical order (smaller x first, then smaller y first),
+ * so two planks are equal when their first and second pillars are equal
  * @author gmh73
  *
  */
 
 public class Plank {
+	/* The pillar that comes first in canonical order*/
+	private final Pillar first;
+	/* The pillar that comes second in canonical order*/
+	private final Pillar second;
+	/* The hash code, worked out once since planks never change*/
+	private final int hash;
+	/* The set of connected pillars, built the first time getPillars is called*/
 	private Set<Pillar> connected;
 	
 	/**
@@ -17,10 +27,15 @@ public class Plank {
 	 */
 	public Plank(Pillar p1, Pillar p2){
 		checkIfNull(p1,p2);
-		Set<Pillar> conn = new HashSet<Pillar>();
-		conn.add(p1);
-		conn.add(p2);
-		connected = conn;
+		//Order the pillars so that the plank is the same whichever way round it was built
+		if(comesBefore(p2, p1)){
+			first = p2;
+			second = p1;
+		}else{
+			first = p1;
+			second = p2;
+		}
+		hash = 31 * first.hashCode() + second.hashCode();
 	}
 	
 	/**
@@ -33,11 +48,66 @@ public class Plank {
 			throw new NullPointerException("Given pillar is null");
 	}
 	
+	/**
+	 * Checks if p1 comes before p2 in canonical order
+	 * @param p1	a pillar
+	 * @param p2	a pillar
+	 * @return	returns true if p1 has a smaller x, or the same x and a smaller y
+	 */
+	private static boolean comesBefore(Pillar p1, Pillar p2){
+		if(p1.getXCor() != p2.getXCor())
+			return p1.getXCor() < p2.getXCor();
+		return p1.getYCor() < p2.getYCor();
+	}
+	
+	/**
+	 * Builds the canonical key of the plank between two pillar ids, for storing planks without objects
+	 * @param a	a pillar id (y*n + x)
+	 * @param b	another pillar id
+	 * @return	returns the smaller id in the high 32 bits and the larger id in the low 32 bits
+	 */
+	public static long key(int a, int b){
+		int low = Math.min(a, b);
+		int high = Math.max(a, b);
+		return ((long) low << 32) | high;
+	}
+	
+	/**
+	 * Gets the canonical key of this plank on an n x n grid
+	 * @param n	the length of the grid
+	 * @return	returns key(id of first pillar, id of second pillar)
+	 */
+	public long getKey(int n){
+		return key(first.getYCor() * n + first.getXCor(), second.getYCor() * n + second.getXCor());
+	}
+	
+	/**
+	 * Gets the pillar that comes first in canonical order
+	 * @return	the pillar with the smaller x, or the smaller y if x is the same
+	 */
+	public Pillar getFirstPillar(){
+		return first;
+	}
+	
+	/**
+	 * Gets the pillar that comes second in canonical order
+	 * @return	the pillar with the larger x, or the larger y if x is the same
+	 */
+	public Pillar getSecondPillar(){
+		return second;
+	}
+	
 	/**
 	 * returns the set of connected pillars
-	 * @return	returns set of connected pillars
+	 * @return	returns a read only set of connected pillars, since planks may be shared
 	 */
 	public Set<Pillar> getPillars(){
+		if(connected == null){
+			Set<Pillar> conn = new HashSet<Pillar>();
+			conn.add(first);
+			conn.add(second);
+			connected = Collections.unmodifiableSet(conn);
+		}
 		return connected;
 	}
 	
@@ -45,7 +115,7 @@ public class Plank {
 	public boolean equals(Object o){
 		if(o instanceof Plank){
 			Plank p = (Plank) o;
-			return p.connected.containsAll(this.connected) && this.connected.containsAll(p.connected);
+			return p.hash == hash && p.first.equals(first) && p.second.equals(second);
 		}
 		else
 			return false;
@@ -53,15 +123,15 @@ public class Plank {
 	
 	@Override
 	public int hashCode(){
-		return connected.hashCode();
+		return hash;
 	}
 	
 	@Override
 	public String toString(){
 		String out = "[";
-		for(Pillar p: connected){
-			out += p.toString();
-		}
+		out += first.toString();
+		if(!second.equals(first))
+			out += second.toString();
 		out += "]";
 		return out;
 	}
@@ -79,5 +149,14 @@ public class Plank {
 		public void testCheckIfNull(Pillar p1, Pillar p2){
 			Plank.this.checkIfNull(p1, p2);
 		}
+		/**
+		 * Calls comesBefore
+		 * @param p1	a pillar
+		 * @param p2	a pillar
+		 * @return	returns true if p1 comes before p2
+		 */
+		public boolean testComesBefore(Pillar p1, Pillar p2){
+			return Plank.comesBefore(p1, p2);
+		}
 	}
 }
@@ -0,0 +1,117 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Breadth first search for a shortest path that may lay up to k extra planks.
+ * The states are k + 1 layers of the grid, one for each number of extra planks laid so far
+ * (state = used*n*n + id). A step along a plank in the layout stays in its layer, and a step
+ * to an adjacent pillar that is not connected lays a plank and moves one layer up.
+ * Every step costs one, so a plain breadth first search finds a shortest path
+ * in O(k*n^2) time, where the depth first search would grow exponentially with k.
+ * @author gmh73
+ *
+ */
+public class PlankBudgetSolver extends GridSolver {
+
+	/**
+	 * Constructs a plank budget solver
+	 * @param n the length and width of grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param start		the start point
+	 * @param end		the end point
+	 */
+	public PlankBudgetSolver(int n, Set<Plank> layout, Pillar start, Pillar end){
+		super(n, layout, start, end);
+	}
+
+	/**
+	 * Default constructor if no start and end is specified
+	 * Start is (0,0) and end is (n-1,n-1)
+	 * @param n  The length of the grid
+	 * @param layout  A set of planks
+	 */
+	public PlankBudgetSolver(int n, Set<Plank> layout){
+		this(n, layout, new Pillar(0,0), new Pillar(n - 1, n - 1));
+	}
+
+	@Override
+	public Path shortestPath(boolean hasPlank) {
+		return shortestPath(hasPlank ? 1 : 0);
+	}
+
+	/**
+	 * Finds the shortest path that lays at most maxPlanks extra planks
+	 * @param maxPlanks	the number of extra planks that may be laid
+	 * @return	returns the shortest path found, with its planks in the order they are laid
+	 */
+	public Path shortestPath(int maxPlanks){
+		if(maxPlanks < 0)
+			throw new IndexOutOfBoundsException("Given plank budget < 0.");
+		expanded = 0;
+		int size = n * n;
+		//With a plank on every step the path is as short as the Manhattan distance, so it never lays more
+		int manhattan = Math.abs(startId % n - endId % n) + Math.abs(startId / n - endId / n);
+		int layers = Math.min(maxPlanks, manhattan) + 1;
+		long states = (long) layers * size;
+		if(states > Integer.MAX_VALUE)
+			throw new IndexOutOfBoundsException("Given plank budget needs " + states + " states, more than an array can hold.");
+		//parent[s] is the state we came from, -2 if s has not been seen yet
+		int[] parent = new int[(int) states];
+		Arrays.fill(parent, -2);
+		int[] queue = new int[(int) states];
+		int head = 0;
+		int tail = 0;
+		parent[startId] = -1;
+		queue[tail++] = startId;
+		while(head < tail){
+			int s = queue[head++];
+			int id = s % size;
+			int used = s / size;
+			expanded++;
+			//The first time we take the end pillar off the queue it is as close as it gets
+			if(id == endId)
+				return buildLayeredPath(parent, s);
+			int connected = connections(id);
+			//Unconnected pillars can only be reached while there are planks left to lay
+			int reachable = used + 1 < layers ? adjacentDirections(id) : connected;
+			for(int dir = Pillar.PLUS_X; dir <= Pillar.MINUS_Y; dir <<= 1){
+				if((reachable & dir) == 0)
+					continue;
+				int next = neighbor(id, dir) + ((connected & dir) != 0 ? used : used + 1) * size;
+				if(parent[next] == -2){
+					parent[next] = s;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return noPath();
+	}
+
+	/**
+	 * Builds a Path by following parent pointers back from a state to the start,
+	 * adding a plank for every step that moved up a layer
+	 * @param parent	the parent state of every state, or -1 for the start state
+	 * @param last	the state the path ends at
+	 * @return	returns the path from the start to the pillar of last
+	 */
+	private Path buildLayeredPath(int[] parent, int last){
+		int size = n * n;
+		int count = 0;
+		for(int s = last; s >= 0; s = parent[s])
+			count++;
+		int[] states = new int[count];
+		int i = count;
+		for(int s = last; s >= 0; s = parent[s])
+			states[--i] = s;
+		Path path = new Path();
+		path.addPillar(pillar(states[0] % size));
+		for(i = 1; i < count; i++){
+			int from = states[i - 1] % size;
+			int to = states[i] % size;
+			path.addPillar(pillar(to));
+			if(states[i] / size != states[i - 1] / size)
+				path.addPlank(new Plank(pillar(to), pillar(from)));
+		}
+		return path;
+	}
+}
@@ -0,0 +1,310 @@
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact layout of planks on an n x n grid of pillars.
+ * Planks along x are kept in one bitset and planks along y in another, n*(n-1) bits each,
+ * so checking for a plank is a single bit test. PlankGrid is a Set of Planks, so it can be
+ * passed anywhere a layout Set is accepted. Its LayoutFingerprint is updated as each bit changes.
+ * @author gmh73
+ *
+ */
+public class PlankGrid extends AbstractSet<Plank> implements PlankIndex {
+	/* The length and width of the grid of pillars*/
+	private int n;
+	/* Bit y*(n-1) + x is set if there is a plank from (x,y) to (x+1,y)*/
+	private BitSet xPlanks;
+	/* Bit y*n + x is set if there is a plank from (x,y) to (x,y+1)*/
+	private BitSet yPlanks;
+	/* The number of planks in the grid*/
+	private int count;
+	/* The two lanes of the layout's fingerprint*/
+	private long fingerprintHigh;
+	private long fingerprintLow;
+
+	/**
+	 * Constructs an empty layout for an n x n grid
+	 * @param n	the length and width of the grid of pillars
+	 */
+	public PlankGrid(int n){
+		if(n < 1)
+			throw new IndexOutOfBoundsException("Given maze size < 0.");
+		this.n = n;
+		xPlanks = new BitSet(n * (n - 1));
+		yPlanks = new BitSet(n * (n - 1));
+		count = 0;
+		fingerprintHigh = LayoutFingerprint.emptyHigh(n);
+		fingerprintLow = LayoutFingerprint.emptyLow(n);
+	}
+
+	/**
+	 * Converts a layout set into a PlankGrid for an n x n grid
+	 * @param n	the length and width of the grid of pillars
+	 * @param layout	a set of planks between adjacent pillars of the grid
+	 */
+	public PlankGrid(int n, Set<Plank> layout){
+		this(n);
+		if(layout == null)
+			throw new NullPointerException("Given layout is null.");
+		for(Plank p : layout)
+			add(p);
+	}
+
+	/**
+	 * Copies the planks of a layout that join two adjacent pillars of an n x n grid. Any other planks
+	 * are skipped, since no path on the grid can walk them
+	 * @param n	the length and width of the grid of pillars
+	 * @param layout	a set of planks
+	 * @return	returns a new PlankGrid of the planks of layout on the grid
+	 */
+	public static PlankGrid withinGrid(int n, Set<Plank> layout){
+		if(layout == null)
+			throw new NullPointerException("Given layout is null.");
+		PlankGrid grid = new PlankGrid(n);
+		for(Plank p : layout){
+			int bit = grid.bitOf(p);
+			if(bit >= 0)
+				grid.setBit(bit, true);
+		}
+		return grid;
+	}
+
+	@Override
+	public int getLength(){
+		return n;
+	}
+
+	/**
+	 * Checks if there is a plank from (x,y) to (x+1,y)
+	 * @param x	an x coordinate less than n - 1
+	 * @param y	a y coordinate less than n
+	 * @return	returns true if the plank is in the layout
+	 */
+	public boolean hasXPlank(int x, int y){
+		return xPlanks.get(y * (n - 1) + x);
+	}
+
+	/**
+	 * Checks if there is a plank from (x,y) to (x,y+1)
+	 * @param x	an x coordinate less than n
+	 * @param y	a y coordinate less than n - 1
+	 * @return	returns true if the plank is in the layout
+	 */
+	public boolean hasYPlank(int x, int y){
+		return yPlanks.get(y * n + x);
+	}
+
+	@Override
+	public boolean isConnected(int a, int b){
+		int low = Math.min(a, b);
+		//Ids along x differ by one, ids along y differ by n
+		if(Math.abs(a - b) == 1)
+			return hasXPlank(low % n, low / n);
+		return hasYPlank(low % n, low / n);
+	}
+
+	/**
+	 * Finds the bit that stands for a plank
+	 * @param p	a plank
+	 * @return	returns the bit index, plus n*(n-1) for planks along y, or -1 if p is not a plank of this grid
+	 */
+	private int bitOf(Plank p){
+		Pillar p1 = p.getFirstPillar();
+		Pillar p2 = p.getSecondPillar();
+		if(!p1.isAdjacentTo(p2) || !onGrid(p1) || !onGrid(p2))
+			return -1;
+		//The first pillar of an adjacent plank is always the one at the lower x or y
+		int x = p1.getXCor();
+		int y = p1.getYCor();
+		if(y == p2.getYCor())
+			return y * (n - 1) + x;
+		return n * (n - 1) + y * n + x;
+	}
+
+	/**
+	 * Checks if a pillar is on this grid
+	 * @param p	a pillar
+	 * @return	returns true if both coordinates are less than n
+	 */
+	private boolean onGrid(Pillar p){
+		return p.getXCor() < n && p.getYCor() < n;
+	}
+
+	/**
+	 * Builds the plank that a bit stands for
+	 * @param bit	a bit index, plus n*(n-1) for planks along y
+	 * @return	returns the plank
+	 */
+	private Plank plankOf(int bit){
+		if(bit < n * (n - 1)){
+			int x = bit % (n - 1);
+			int y = bit / (n - 1);
+			return new Plank(new Pillar(x,y), new Pillar(x + 1,y));
+		}
+		bit -= n * (n - 1);
+		return new Plank(new Pillar(bit % n, bit / n), new Pillar(bit % n, bit / n + 1));
+	}
+
+	/**
+	 * Checks a bit
+	 * @param bit	a bit index, plus n*(n-1) for planks along y
+	 * @return	returns true if the bit is set
+	 */
+	private boolean getBit(int bit){
+		if(bit < n * (n - 1))
+			return xPlanks.get(bit);
+		return yPlanks.get(bit - n * (n - 1));
+	}
+
+	/**
+	 * Sets or clears a bit, keeping count and the fingerprint up to date
+	 * @param bit	a bit index, plus n*(n-1) for planks along y
+	 * @param value	true to set the bit, false to clear it
+	 * @return	returns true if the bit changed
+	 */
+	private boolean setBit(int bit, boolean value){
+		if(getBit(bit) == value)
+			return false;
+		int x;
+		int y;
+		boolean alongY = bit >= n * (n - 1);
+		if(!alongY){
+			xPlanks.set(bit, value);
+			x = bit % (n - 1);
+			y = bit / (n - 1);
+		}else{
+			yPlanks.set(bit - n * (n - 1), value);
+			x = (bit - n * (n - 1)) % n;
+			y = (bit - n * (n - 1)) / n;
+		}
+		count += value ? 1 : -1;
+		//Adding and removing both XOR the plank's keys, so the fingerprint follows every change
+		fingerprintHigh ^= LayoutFingerprint.highKey(x, y, alongY);
+		fingerprintLow ^= LayoutFingerprint.lowKey(x, y, alongY);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object o){
+		if(!(o instanceof Plank))
+			return false;
+		int bit = bitOf((Plank) o);
+		return bit >= 0 && getBit(bit);
+	}
+
+	@Override
+	public boolean add(Plank p){
+		if(p == null)
+			throw new NullPointerException("Given plank is null");
+		int bit = bitOf(p);
+		if(bit < 0)
+			throw new IndexOutOfBoundsException("Given plank does not join two adjacent pillars of the grid.");
+		return setBit(bit, true);
+	}
+
+	@Override
+	public boolean remove(Object o){
+		if(!(o instanceof Plank))
+			return false;
+		int bit = bitOf((Plank) o);
+		return bit >= 0 && setBit(bit, false);
+	}
+
+	@Override
+	public void clear(){
+		xPlanks.clear();
+		yPlanks.clear();
+		count = 0;
+		fingerprintHigh = LayoutFingerprint.emptyHigh(n);
+		fingerprintLow = LayoutFingerprint.emptyLow(n);
+	}
+
+	@Override
+	public LayoutFingerprint getFingerprint(){
+		return new LayoutFingerprint(fingerprintHigh, fingerprintLow);
+	}
+
+	@Override
+	public int size(){
+		return count;
+	}
+
+	@Override
+	public Iterator<Plank> iterator(){
+		return new Iterator<Plank>(){
+			/* The bit of the next plank, or -1 if there are no more*/
+			private int next = nextBit(0);
+			/* The bit of the plank last returned, or -1 if it was removed or none was returned*/
+			private int last = -1;
+
+			public boolean hasNext(){
+				return next >= 0;
+			}
+
+			public Plank next(){
+				if(next < 0)
+					throw new NoSuchElementException();
+				last = next;
+				next = nextBit(next + 1);
+				return plankOf(last);
+			}
+
+			public void remove(){
+				if(last < 0)
+					throw new IllegalStateException();
+				setBit(last, false);
+				last = -1;
+			}
+		};
+	}
+
+	/**
+	 * Finds the next set bit across both bitsets
+	 * @param from	the bit index to start looking at, plus n*(n-1) for planks along y
+	 * @return	returns the next set bit at or after from, or -1 if there is none
+	 */
+	private int nextBit(int from){
+		int half = n * (n - 1);
+		if(from < half){
+			int bit = xPlanks.nextSetBit(from);
+			if(bit >= 0)
+				return bit;
+			from = half;
+		}
+		int bit = yPlanks.nextSetBit(from - half);
+		return bit < 0 ? -1 : bit + half;
+	}
+
+	/**
+	 * A test button for testing
+	 * @author gmh73
+	 *
+	 */
+	public class TestButton{
+		/**
+		 * Returns the bitset of planks along x
+		 * @return	this xPlanks
+		 */
+		public BitSet getXPlanks(){
+			return PlankGrid.this.xPlanks;
+		}
+		/**
+		 * Returns the bitset of planks along y
+		 * @return	this yPlanks
+		 */
+		public BitSet getYPlanks(){
+			return PlankGrid.this.yPlanks;
+		}
+		/**
+		 * Calls bitOf
+		 * @param p	a plank
+		 * @return	the bit for p
+		 */
+		public int testBitOf(Plank p){
+			return PlankGrid.this.bitOf(p);
+		}
+	}
+}
@@ -0,0 +1,27 @@
+/**
+ * A layout of planks that can be checked by pillar id (y*n + x) without building a Plank
+ * @author gmh73
+ *
+ */
+public interface PlankIndex {
+
+	/**
+	 * Gets the length and width of the grid the ids are for
+	 * @return	the n of the n x n grid
+	 */
+	public int getLength();
+
+	/**
+	 * Checks if there is a plank between two adjacent pillar ids
+	 * @param a	a pillar id
+	 * @param b	a pillar id adjacent to a
+	 * @return	returns true if the plank is in the layout
+	 */
+	public boolean isConnected(int a, int b);
+
+	/**
+	 * Gets the fingerprint of the layout, kept up to date as planks are added and removed
+	 * @return	the same fingerprint LayoutFingerprint.of works out from the planks
+	 */
+	public LayoutFingerprint getFingerprint();
+}
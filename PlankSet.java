@@ -0,0 +1,329 @@
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A set of planks on an n x n grid stored as primitive long keys (see Plank.key) in an
+ * open addressing table, so nothing is boxed and a lookup is a few integer operations.
+ * Unlike PlankGrid, its size follows the number of planks rather than the size of the grid,
+ * which suits sparse layouts. PlankSet is a Set of Planks, so it can be passed anywhere a
+ * layout Set is accepted. Its LayoutFingerprint is updated as each key is added or removed.
+ * @author gmh73
+ *
+ */
+public class PlankSet extends AbstractSet<Plank> implements PlankIndex {
+	/* Marks a slot that has never held a key. Real keys are always positive*/
+	private static final long EMPTY = 0;
+	/* Marks a slot whose key was removed, so lookups keep probing past it*/
+	private static final long REMOVED = -1;
+
+	/* The length and width of the grid of pillars*/
+	private int n;
+	/* The table of keys, its length is always a power of two*/
+	private long[] keys;
+	/* The number of keys in the table*/
+	private int count;
+	/* The number of slots holding REMOVED*/
+	private int removed;
+	/* Changes every time the set changes, so iterators can notice*/
+	private int modCount;
+	/* The two lanes of the layout's fingerprint*/
+	private long fingerprintHigh;
+	private long fingerprintLow;
+
+	/**
+	 * Constructs an empty set for an n x n grid
+	 * @param n	the length and width of the grid of pillars
+	 */
+	public PlankSet(int n){
+		if(n < 1)
+			throw new IndexOutOfBoundsException("Given maze size < 0.");
+		this.n = n;
+		keys = new long[16];
+		count = 0;
+		removed = 0;
+		fingerprintHigh = LayoutFingerprint.emptyHigh(n);
+		fingerprintLow = LayoutFingerprint.emptyLow(n);
+	}
+
+	/**
+	 * Converts a layout set into a PlankSet for an n x n grid
+	 * @param n	the length and width of the grid of pillars
+	 * @param layout	a set of planks between adjacent pillars of the grid
+	 */
+	public PlankSet(int n, Set<Plank> layout){
+		this(n);
+		if(layout == null)
+			throw new NullPointerException("Given layout is null.");
+		for(Plank p : layout)
+			add(p);
+	}
+
+	@Override
+	public int getLength(){
+		return n;
+	}
+
+	@Override
+	public boolean isConnected(int a, int b){
+		return containsKey(Plank.key(a, b));
+	}
+
+	/**
+	 * Checks if the set holds a key
+	 * @param key	a plank key from Plank.key
+	 * @return	returns true if the key is in the set
+	 */
+	public boolean containsKey(long key){
+		if(key == EMPTY || key == REMOVED)
+			return false;
+		int mask = keys.length - 1;
+		for(int i = slot(key); ; i = (i + 1) & mask){
+			long k = keys[i];
+			if(k == key)
+				return true;
+			if(k == EMPTY)
+				return false;
+		}
+	}
+
+	/**
+	 * Adds a key to the set
+	 * @param key	a plank key from Plank.key for two adjacent pillars of the grid
+	 * @return	returns true if the key was not already in the set
+	 */
+	public boolean addKey(long key){
+		checkKey(key);
+		if(containsKey(key))
+			return false;
+		//Keep at least a quarter of the table empty so probes stay short
+		if(4 * (count + removed + 1) > 3 * keys.length)
+			resize(4 * (count + 1) > keys.length ? 2 * keys.length : keys.length);
+		int mask = keys.length - 1;
+		int i = slot(key);
+		while(keys[i] != EMPTY && keys[i] != REMOVED)
+			i = (i + 1) & mask;
+		if(keys[i] == REMOVED)
+			removed--;
+		keys[i] = key;
+		count++;
+		modCount++;
+		toggleFingerprint(key);
+		return true;
+	}
+
+	/**
+	 * Removes a key from the set
+	 * @param key	a plank key from Plank.key
+	 * @return	returns true if the key was in the set
+	 */
+	public boolean removeKey(long key){
+		int mask = keys.length - 1;
+		for(int i = slot(key); keys[i] != EMPTY; i = (i + 1) & mask){
+			if(keys[i] == key){
+				keys[i] = REMOVED;
+				count--;
+				removed++;
+				modCount++;
+				toggleFingerprint(key);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * XORs a key's plank in or out of the fingerprint
+	 * @param key	a plank key on this grid
+	 */
+	private void toggleFingerprint(long key){
+		int low = (int) (key >>> 32);
+		boolean alongY = (int) key - low == n;
+		fingerprintHigh ^= LayoutFingerprint.highKey(low % n, low / n, alongY);
+		fingerprintLow ^= LayoutFingerprint.lowKey(low % n, low / n, alongY);
+	}
+
+	@Override
+	public LayoutFingerprint getFingerprint(){
+		return new LayoutFingerprint(fingerprintHigh, fingerprintLow);
+	}
+
+	/**
+	 * Throws an exception if key is not the key of a plank between adjacent pillars of the grid
+	 * @param key	a plank key
+	 */
+	private void checkKey(long key){
+		long low = key >>> 32;
+		long high = key & 0xFFFFFFFFL;
+		boolean onGrid = low < high && high < (long) n * n;
+		boolean adjacent = high - low == n || (high - low == 1 && high % n != 0);
+		if(!onGrid || !adjacent)
+			throw new IndexOutOfBoundsException("Given plank does not join two adjacent pillars of the grid.");
+	}
+
+	/**
+	 * Finds the first slot to look for a key in
+	 * @param key	a plank key
+	 * @return	returns the home slot of key
+	 */
+	private int slot(long key){
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h >>> 40) & (keys.length - 1);
+	}
+
+	/**
+	 * Moves every key into a new table, dropping the REMOVED markers
+	 * @param length	the new table length, a power of two
+	 */
+	private void resize(int length){
+		long[] old = keys;
+		keys = new long[length];
+		removed = 0;
+		int mask = length - 1;
+		for(long k : old){
+			if(k != EMPTY && k != REMOVED){
+				int i = slot(k);
+				while(keys[i] != EMPTY)
+					i = (i + 1) & mask;
+				keys[i] = k;
+			}
+		}
+	}
+
+	/**
+	 * Gets the key of a plank, or -1 if it is not between adjacent pillars of the grid
+	 * @param p	a plank
+	 * @return	returns p's key on this grid
+	 */
+	private long keyOf(Plank p){
+		Pillar p1 = p.getFirstPillar();
+		Pillar p2 = p.getSecondPillar();
+		if(!p1.isAdjacentTo(p2) || p2.getXCor() >= n || p2.getYCor() >= n)
+			return REMOVED;
+		return p.getKey(n);
+	}
+
+	/**
+	 * Builds the plank that a key stands for
+	 * @param key	a plank key
+	 * @return	returns the plank
+	 */
+	private Plank plankOf(long key){
+		int low = (int) (key >>> 32);
+		int high = (int) key;
+		return new Plank(new Pillar(low % n, low / n), new Pillar(high % n, high / n));
+	}
+
+	@Override
+	public boolean contains(Object o){
+		if(!(o instanceof Plank))
+			return false;
+		long key = keyOf((Plank) o);
+		return key != REMOVED && containsKey(key);
+	}
+
+	@Override
+	public boolean add(Plank p){
+		if(p == null)
+			throw new NullPointerException("Given plank is null");
+		long key = keyOf(p);
+		if(key == REMOVED)
+			throw new IndexOutOfBoundsException("Given plank does not join two adjacent pillars of the grid.");
+		return addKey(key);
+	}
+
+	@Override
+	public boolean remove(Object o){
+		if(!(o instanceof Plank))
+			return false;
+		long key = keyOf((Plank) o);
+		return key != REMOVED && removeKey(key);
+	}
+
+	@Override
+	public void clear(){
+		keys = new long[16];
+		count = 0;
+		removed = 0;
+		modCount++;
+		fingerprintHigh = LayoutFingerprint.emptyHigh(n);
+		fingerprintLow = LayoutFingerprint.emptyLow(n);
+	}
+
+	@Override
+	public int size(){
+		return count;
+	}
+
+	@Override
+	public Iterator<Plank> iterator(){
+		return new Iterator<Plank>(){
+			/* The slot of the next key, or keys.length if there are no more*/
+			private int next = nextSlot(0);
+			/* The key last returned, or REMOVED if it was removed or none was returned*/
+			private long last = REMOVED;
+			/* The modCount this iterator expects*/
+			private int expected = modCount;
+
+			public boolean hasNext(){
+				return next < keys.length;
+			}
+
+			public Plank next(){
+				if(expected != modCount)
+					throw new ConcurrentModificationException();
+				if(next >= keys.length)
+					throw new NoSuchElementException();
+				last = keys[next];
+				next = nextSlot(next + 1);
+				return plankOf(last);
+			}
+
+			public void remove(){
+				if(last == REMOVED)
+					throw new IllegalStateException();
+				if(expected != modCount)
+					throw new ConcurrentModificationException();
+				//Removing only marks the slot, so nothing moves under the iterator
+				removeKey(last);
+				expected = modCount;
+				last = REMOVED;
+			}
+		};
+	}
+
+	/**
+	 * Finds the next slot holding a key
+	 * @param from	the slot to start looking at
+	 * @return	returns the next slot at or after from that holds a key, or keys.length if there is none
+	 */
+	private int nextSlot(int from){
+		while(from < keys.length && (keys[from] == EMPTY || keys[from] == REMOVED))
+			from++;
+		return from;
+	}
+
+	/**
+	 * A test button for testing
+	 * @author gmh73
+	 *
+	 */
+	public class TestButton{
+		/**
+		 * Returns the table of keys
+		 * @return	this keys
+		 */
+		public long[] getKeys(){
+			return PlankSet.this.keys;
+		}
+		/**
+		 * Calls checkKey
+		 * @param key	a plank key
+		 */
+		public void testCheckKey(long key){
+			PlankSet.this.checkKey(key);
+		}
+	}
+}
@@ -0,0 +1,330 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A least recently used cache of shortest paths, keyed by the fingerprint of the layout, the ids of
+ * the start and end pillars and whether the extra plank may be used.
+ * The entries are split over a power of two number of stripes, each a LinkedHashMap in access order
+ * with a lock of its own, so threads only wait for each other when their keys land in the same stripe.
+ * Each stripe holds at most its share of the entry limit and of the memory limit, and drops its least
+ * recently used entries to stay under both. Memory is estimated from the number of pillars in each path.
+ * The limits are kept per stripe, so the cache as a whole is only approximately least recently used:
+ * an entry can be dropped while another stripe holds older ones, and the cache can drop entries
+ * before it is full when keys crowd into one stripe. To keep that small, the number of stripes is
+ * cut down so every stripe holds at least MIN_STRIPE_ENTRIES entries, down to one stripe for a small cache.
+ * Definitions whose layouts share a fingerprint share entries, so if two layouts collide
+ * (see LayoutFingerprint) a query on one is answered with the path found for the other.
+ * Paths are kept as PersistentPaths, which cannot be changed, so one path can be handed to every
+ * caller that asks for the same query. A query with no path has no pillars to keep, so each caller
+ * gets a new infinite path of its own.
+ * @author gmh73
+ *
+ */
+public class ResultCache {
+	/* The stripes used when no number is given*/
+	public static final int DEFAULT_STRIPES = 16;
+	/* The fewest entries a stripe is made to hold, unless the whole cache holds fewer*/
+	public static final int MIN_STRIPE_ENTRIES = 8;
+	/* The estimated bytes of an entry apart from the pillars of its path*/
+	static final long ENTRY_BYTES = 128;
+	/* The estimated bytes of each pillar of a path*/
+	static final long PILLAR_BYTES = 32;
+
+	/* The stripes, each guarded by its own lock*/
+	private final Stripe[] stripes;
+	/* stripes.length - 1, for picking a stripe from a hash*/
+	private final int mask;
+	/* The most entries a stripe may hold*/
+	private final int entriesPerStripe;
+	/* The most estimated bytes a stripe may hold*/
+	private final long bytesPerStripe;
+	/* How many lookups found their path*/
+	private final AtomicLong hits;
+	/* How many lookups did not*/
+	private final AtomicLong misses;
+	/* How many entries were dropped to stay under the limits*/
+	private final AtomicLong evictions;
+
+	/**
+	 * Constructs an empty cache
+	 * @param maxEntries	the most paths to keep
+	 * @param maxBytes	the most estimated bytes of paths to keep
+	 * @param stripes	the number of separately locked parts, rounded up to a power of two, and then
+	 * down to the largest power of two that leaves every stripe MIN_STRIPE_ENTRIES entries
+	 */
+	public ResultCache(int maxEntries, long maxBytes, int stripes){
+		if(maxEntries < 1 || maxBytes < 1 || stripes < 1)
+			throw new IndexOutOfBoundsException("Given cache limit < 1.");
+		int count = Integer.highestOneBit(stripes);
+		if(count < stripes)
+			count <<= 1;
+		//Every stripe has to hold a few entries, or it drops them long before the cache is full
+		count = Math.min(count, Integer.highestOneBit(Math.max(1, maxEntries / MIN_STRIPE_ENTRIES)));
+		this.stripes = new Stripe[count];
+		for(int i = 0; i < count; i++)
+			this.stripes[i] = new Stripe();
+		mask = count - 1;
+		entriesPerStripe = maxEntries / count;
+		bytesPerStripe = Math.max(1, maxBytes / count);
+		hits = new AtomicLong();
+		misses = new AtomicLong();
+		evictions = new AtomicLong();
+	}
+
+	/**
+	 * Constructs an empty cache with DEFAULT_STRIPES stripes
+	 * @param maxEntries	the most paths to keep
+	 * @param maxBytes	the most estimated bytes of paths to keep
+	 */
+	public ResultCache(int maxEntries, long maxBytes){
+		this(maxEntries, maxBytes, DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Finds a shortest path on a definition, from the cache if the same query was answered before.
+	 * On a miss the path is found outside of any lock, so two threads missing the same query at once
+	 * may both search, and the later one's path is kept
+	 * @param definition	the maze to search
+	 * @param start		the start point
+	 * @param end		the end point
+	 * @param hasPlank	true if the path may use the additional plank
+	 * @return	returns the shortest path, the same one MazeDefinition.shortestPath finds
+	 */
+	public Path shortestPath(MazeDefinition definition, Pillar start, Pillar end, boolean hasPlank){
+		if(definition == null || start == null || end == null)
+			throw new NullPointerException("Given input is null.");
+		int n = definition.getLength();
+		//Ids of pillars off the grid could match ids of pillars on it
+		if(start.getXCor() >= n || start.getYCor() >= n || end.getXCor() >= n || end.getYCor() >= n)
+			throw new IndexOutOfBoundsException("Given pillar is outside of the maze.");
+		Key key = new Key(definition.getFingerprint(), start.getYCor() * n + start.getXCor(), end.getYCor() * n + end.getXCor(), hasPlank);
+		Path found = get(key);
+		if(found != null){
+			hits.incrementAndGet();
+			return share(found);
+		}
+		misses.incrementAndGet();
+		found = freeze(definition.shortestPath(start, end, hasPlank));
+		put(key, found);
+		return share(found);
+	}
+
+	/**
+	 * Makes a path no caller can change, so it can be kept and shared
+	 * @param path	a path from start to end with at most one extra plank, or a path with no pillars
+	 * @return	returns a PersistentPath equal to path, or path itself if it has no pillars
+	 */
+	static Path freeze(Path path){
+		if(path instanceof PersistentPath)
+			return path;
+		PersistentPath node = null;
+		for(Pillar p : path.pillarList())
+			node = new PersistentPath(p, node, null);
+		//Only the last node's plank counts
+		return node == null ? path : node.withPlank(path.getPlank());
+	}
+
+	/**
+	 * Gets a cached path to hand to a caller
+	 * @param path	a path made by freeze
+	 * @return	returns path if it cannot be changed, or a new path equal to it otherwise
+	 */
+	private static Path share(Path path){
+		if(path instanceof PersistentPath)
+			return path;
+		Path empty = new Path();
+		if(path.isSameDistance(Integer.MAX_VALUE))
+			empty.setDistanceToInfinite();
+		return empty;
+	}
+
+	/**
+	 * Picks the stripe for a key
+	 * @param key	a key
+	 * @return	returns the stripe the key belongs to
+	 */
+	private Stripe stripeOf(Key key){
+		int h = key.hashCode();
+		//Fold the high bits in, since only the low ones pick the stripe
+		h ^= (h >>> 16);
+		return stripes[h & mask];
+	}
+
+	/**
+	 * Looks a key up, marking it as the most recently used in its stripe
+	 * @param key	a key
+	 * @return	returns the cached path, or null if there is none
+	 */
+	private Path get(Key key){
+		Stripe s = stripeOf(key);
+		synchronized(s){
+			return s.entries.get(key);
+		}
+	}
+
+	/**
+	 * Adds a path, dropping the least recently used entries of its stripe while it is over a limit
+	 * @param key	a key
+	 * @param path	the path for key
+	 */
+	private void put(Key key, Path path){
+		long size = bytesOf(path);
+		Stripe s = stripeOf(key);
+		synchronized(s){
+			Path old = s.entries.put(key, path);
+			s.bytes += size;
+			if(old != null)
+				s.bytes -= bytesOf(old);
+			Iterator<Path> eldest = s.entries.values().iterator();
+			//Never drop the entry just added, even if it is over the memory limit on its own
+			while(s.entries.size() > 1 && (s.entries.size() > entriesPerStripe || s.bytes > bytesPerStripe)){
+				s.bytes -= bytesOf(eldest.next());
+				eldest.remove();
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Estimates the memory a cached path takes
+	 * @param path	a path
+	 * @return	returns the estimated bytes of its entry
+	 */
+	static long bytesOf(Path path){
+		if(path.getDistance() < 0 || path.getDistance() == Integer.MAX_VALUE)
+			return ENTRY_BYTES;
+		return ENTRY_BYTES + PILLAR_BYTES * (path.getDistance() + 1L);
+	}
+
+	/**
+	 * Gets how many lookups found their path
+	 * @return	the number of hits since the cache was built
+	 */
+	public long getHits(){
+		return hits.get();
+	}
+
+	/**
+	 * Gets how many lookups did not find their path
+	 * @return	the number of misses since the cache was built
+	 */
+	public long getMisses(){
+		return misses.get();
+	}
+
+	/**
+	 * Gets how many entries were dropped to stay under the limits
+	 * @return	the number of evictions since the cache was built
+	 */
+	public long getEvictions(){
+		return evictions.get();
+	}
+
+	/**
+	 * Gets the number of separately locked parts
+	 * @return	the number of stripes, a power of two
+	 */
+	public int getStripes(){
+		return stripes.length;
+	}
+
+	/**
+	 * Gets the number of cached paths
+	 * @return	the number of entries in every stripe
+	 */
+	public int size(){
+		int size = 0;
+		for(Stripe s : stripes){
+			synchronized(s){
+				size += s.entries.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Gets the estimated memory of the cached paths
+	 * @return	the estimated bytes in every stripe
+	 */
+	public long getEstimatedBytes(){
+		long bytes = 0;
+		for(Stripe s : stripes){
+			synchronized(s){
+				bytes += s.bytes;
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Removes every cached path, the counters are kept
+	 */
+	public void clear(){
+		for(Stripe s : stripes){
+			synchronized(s){
+				s.entries.clear();
+				s.bytes = 0;
+			}
+		}
+	}
+
+	/**
+	 * One separately locked part of the cache
+	 * @author gmh73
+	 *
+	 */
+	private static class Stripe {
+		/* The entries, least recently used first*/
+		final LinkedHashMap<Key, Path> entries = new LinkedHashMap<Key, Path>(16, 0.75f, true);
+		/* The estimated bytes of the entries*/
+		long bytes;
+	}
+
+	/**
+	 * A query, the layout it was asked on and its start, end and plank
+	 * @author gmh73
+	 *
+	 */
+	private static final class Key {
+		/* The fingerprint of the layout*/
+		private final LayoutFingerprint layout;
+		/* The id of the start pillar*/
+		private final int start;
+		/* The id of the end pillar*/
+		private final int end;
+		/* true if the path may use the additional plank*/
+		private final boolean hasPlank;
+
+		/**
+		 * Constructs a key
+		 * @param layout	the fingerprint of the layout
+		 * @param start	the id of the start pillar
+		 * @param end	the id of the end pillar
+		 * @param hasPlank	true if the path may use the additional plank
+		 */
+		Key(LayoutFingerprint layout, int start, int end, boolean hasPlank){
+			this.layout = layout;
+			this.start = start;
+			this.end = end;
+			this.hasPlank = hasPlank;
+		}
+
+		@Override
+		public boolean equals(Object o){
+			if(o instanceof Key){
+				Key k = (Key) o;
+				return k.start == start && k.end == end && k.hasPlank == hasPlank && k.layout.equals(layout);
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode(){
+			int h = layout.hashCode();
+			h = 31 * h + start;
+			h = 31 * h + end;
+			return 2 * h + (hasPlank ? 1 : 0);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/**
+ * Buffers for IterativeDepthFirstSolver that are kept from one query to the next, so a thread
+ * answering many queries allocates its frames and path once instead of every time.
+ * A SearchScratch must only be used by one search at a time.
+ * @author gmh73
+ *
+ */
+public class SearchScratch {
+	/* The length of the grid the buffers are sized for, or 0 if they have not been made yet*/
+	private int n;
+	/* The pillar id of each frame*/
+	int[] node;
+	/* The directions each frame has left to try in its current phase*/
+	int[] left;
+	/* The pillar id each frame tried last*/
+	int[] tried;
+	/* true while a frame is trying the pillars reached by laying the extra plank*/
+	boolean[] plankPhase;
+	/* true if the extra plank is still available to a frame*/
+	boolean[] plankLeft;
+	/* The path from the start to the top frame*/
+	ArrayPath path;
+	/* The interned pillars of the grid the buffers are sized for, or null if it is too big for a table*/
+	private PillarTable table;
+
+	/**
+	 * Constructs empty scratch, the buffers are made by the first search
+	 */
+	public SearchScratch(){
+		n = 0;
+	}
+
+	/**
+	 * Gets the buffers ready for a search on an n x n grid, making them only if the size changed
+	 * @param n	the length of the grid
+	 */
+	void prepare(int n){
+		if(this.n == n){
+			path.clear();
+			return;
+		}
+		//A path never holds a pillar twice, so it is at most n*n frames deep
+		int depth = n * n;
+		node = new int[depth];
+		left = new int[depth];
+		tried = new int[depth];
+		plankPhase = new boolean[depth];
+		plankLeft = new boolean[depth];
+		path = new ArrayPath(n, pillars(n));
+		this.n = n;
+	}
+
+	/**
+	 * Gets the interned pillars of an n x n grid, kept with the buffers so every query shares them
+	 * @param n	the length of the grid
+	 * @return	the table for grids of length n, or null if the grid is too big for a table
+	 */
+	PillarTable pillars(int n){
+		if(table == null || table.getLength() != n)
+			table = PillarTable.hasTable(n) ? new PillarTable(n) : null;
+		return table;
+	}
+
+	/**
+	 * Gets the length of the grid the buffers are sized for
+	 * @return	the length, or 0 if no search has used the buffers yet
+	 */
+	public int getLength(){
+		return n;
+	}
+}
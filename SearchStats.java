@@ -0,0 +1,212 @@
+import java.util.Arrays;
+
+/**
+ * Counters kept by a depth first search for one query, for comparing how quickly move orders
+ * and bounds lead the search to a good path. An IDA* search also keeps the limit and expanded
+ * pillars of each iteration.
+ * @author gmh73
+ *
+ */
+public class SearchStats {
+	/* The pillars the search expanded, ie looked past*/
+	private int expanded;
+	/* The pillars expanded before the first path to the end was found, or -1 if none was*/
+	private int expandedBeforeFirst;
+	/* The paths to the end the search reached, shorter or not*/
+	private int solutions;
+	/* The pillars cut because their state was reached before no deeper*/
+	private int cuts;
+	/* The length of the path that seeded the bound, Integer.MAX_VALUE if the seed found none, -1 if there was no seed*/
+	private int seedLength;
+	/* The length of the path the search returned, -1 until it finishes*/
+	private int resultLength;
+	/* The limit of each IDA* iteration, only the first iterations are used*/
+	private int[] limits;
+	/* The pillars expanded by each IDA* iteration*/
+	private int[] iterationExpanded;
+	/* The number of IDA* iterations*/
+	private int iterations;
+
+	/**
+	 * Constructs counters for a search that has not started
+	 */
+	public SearchStats(){
+		limits = new int[4];
+		iterationExpanded = new int[4];
+		reset();
+	}
+
+	/**
+	 * Clears every counter for a new query
+	 */
+	void reset(){
+		expanded = 0;
+		expandedBeforeFirst = -1;
+		solutions = 0;
+		cuts = 0;
+		seedLength = -1;
+		resultLength = -1;
+		iterations = 0;
+	}
+
+	/**
+	 * Records a finished IDA* iteration
+	 * @param limit	the most length plus Manhattan distance left the iteration searched
+	 * @param count	the pillars the iteration expanded
+	 */
+	void iteration(int limit, int count){
+		if(iterations == limits.length){
+			limits = Arrays.copyOf(limits, 2 * iterations);
+			iterationExpanded = Arrays.copyOf(iterationExpanded, 2 * iterations);
+		}
+		limits[iterations] = limit;
+		iterationExpanded[iterations] = count;
+		iterations++;
+	}
+
+	/**
+	 * Counts a pillar cut by the transposition table
+	 */
+	void cut(){
+		cuts++;
+	}
+
+	/**
+	 * Records the length of the path that seeded the bound
+	 * @param length	the distance of the seed path, Integer.MAX_VALUE if none was found
+	 */
+	void seed(int length){
+		seedLength = length;
+	}
+
+	/**
+	 * Records the length of the path the search returned
+	 * @param length	the distance of the path, Integer.MAX_VALUE if there is none
+	 */
+	void finish(int length){
+		resultLength = length;
+	}
+
+	/**
+	 * Counts a pillar the search looks past
+	 */
+	void expand(){
+		expanded++;
+	}
+
+	/**
+	 * Counts a path that has reached the end
+	 */
+	void solution(){
+		if(solutions == 0)
+			expandedBeforeFirst = expanded;
+		solutions++;
+	}
+
+	/**
+	 * Gets the pillars the search expanded
+	 * @return	the number of pillars looked past
+	 */
+	public int getExpanded(){
+		return expanded;
+	}
+
+	/**
+	 * Gets the pillars expanded before the first path to the end was found
+	 * @return	the number of pillars, or -1 if the search never reached the end
+	 */
+	public int getExpandedBeforeFirst(){
+		return expandedBeforeFirst;
+	}
+
+	/**
+	 * Gets the paths to the end the search reached
+	 * @return	the number of times the end was reached
+	 */
+	public int getSolutions(){
+		return solutions;
+	}
+
+	/**
+	 * Gets the pillars cut by the transposition table
+	 * @return	the number of pillars whose state was reached before no deeper
+	 */
+	public int getCuts(){
+		return cuts;
+	}
+
+	/**
+	 * Gets the number of IDA* iterations
+	 * @return	the number of iterations, 0 if the search was not IDA*
+	 */
+	public int getIterations(){
+		return iterations;
+	}
+
+	/**
+	 * Gets the limit of an IDA* iteration
+	 * @param i	the iteration, from 0
+	 * @return	the most length plus Manhattan distance left that iteration searched
+	 */
+	public int getIterationLimit(int i){
+		checkIteration(i);
+		return limits[i];
+	}
+
+	/**
+	 * Gets the pillars an IDA* iteration expanded, its cost
+	 * @param i	the iteration, from 0
+	 * @return	the number of pillars expanded by that iteration
+	 */
+	public int getIterationExpanded(int i){
+		checkIteration(i);
+		return iterationExpanded[i];
+	}
+
+	/**
+	 * Throws IndexOutOfBoundsException if there is no such iteration
+	 * @param i	an iteration
+	 */
+	private void checkIteration(int i){
+		if(i < 0 || i >= iterations)
+			throw new IndexOutOfBoundsException("Given iteration is not in the search.");
+	}
+
+	/**
+	 * Gets the length of the path that seeded the bound
+	 * @return	the seed's distance, Integer.MAX_VALUE if the seed found no path, -1 if the search was not seeded
+	 */
+	public int getSeedLength(){
+		return seedLength;
+	}
+
+	/**
+	 * Gets the length of the path the search returned
+	 * @return	the distance of the result, Integer.MAX_VALUE if there is no path, -1 if the search has not finished
+	 */
+	public int getResultLength(){
+		return resultLength;
+	}
+
+	/**
+	 * Gets how much longer the seed path was than the path the search returned, 0 for a perfect seed
+	 * @return	the difference in distance, or -1 if either path is missing
+	 */
+	public int getSeedExcess(){
+		if(seedLength < 0 || seedLength == Integer.MAX_VALUE || resultLength < 0 || resultLength == Integer.MAX_VALUE)
+			return -1;
+		return seedLength - resultLength;
+	}
+
+	@Override
+	public String toString(){
+		String s = "expanded " + expanded + ", before first " + expandedBeforeFirst + ", solutions " + solutions;
+		if(cuts > 0)
+			s += ", cuts " + cuts;
+		if(seedLength >= 0)
+			s += ", seed excess " + getSeedExcess();
+		for(int i = 0; i < iterations; i++)
+			s += (i == 0 ? ", iterations " : " ") + limits[i] + ":" + iterationExpanded[i];
+		return s;
+	}
+}
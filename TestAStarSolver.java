@@ -0,0 +1,124 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing on AStarSolver
+ * @author gmh73
+ *
+ */
+public class TestAStarSolver {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Structural Basis
+	 * One plank is missing, so the path must use the extra plank
+	 */
+	@Test
+	public void testPathUsesPlank(){
+		Path expected = new Path();
+		expected.addPillar(new Pillar(0,0));
+		for(int x = 1; x < 5; x++){
+			if(x != 3)
+				layout.add(new Plank(new Pillar(x - 1,0), new Pillar(x,0)));
+			expected.addPillar(new Pillar(x,0));
+		}
+		expected.setPlank(new Plank(new Pillar(2,0), new Pillar(3,0)));
+		AStarSolver s = new AStarSolver(5, layout, new Pillar(0,0), new Pillar(4,0));
+		assertEquals(expected, s.shortestPath(true));
+		assertTrue(s.shortestPath(false).isSameDistance(Integer.MAX_VALUE));
+	}
+
+	/**
+	 * Bad data, layout is empty (no path to finish)
+	 */
+	@Test
+	public void testEmptyLayout(){
+		Path infinite = new Path();
+		infinite.setDistanceToInfinite();
+		assertEquals(infinite, new AStarSolver(5, layout).shortestPath(false));
+		assertEquals(infinite, new AStarSolver(5, layout).shortestPath(true));
+	}
+
+	/**
+	 * Boundary case, maze is only one pillar
+	 */
+	@Test
+	public void testMazeIsOne(){
+		Path expected = new Path();
+		expected.addPillar(new Pillar(0,0));
+		assertEquals(expected, new AStarSolver(1, layout).shortestPath(true));
+	}
+
+	/**
+	 * Compares the A* engine with the depth first engine on small random layouts
+	 */
+	@Test
+	public void testMatchesDepthFirst(){
+		for(int trial = 0; trial < 200; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.5 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			boolean hasPlank = r.nextBoolean();
+			Path expected = new Maze(n, layout, start, end).shortestPath(hasPlank);
+			Maze m = new Maze(n, layout, start, end);
+			m.setEngine(Maze.Engine.A_STAR);
+			Path found = m.shortestPath(hasPlank);
+			assertTrue(expected.isSameDistance(found));
+			if(!found.isSameDistance(Integer.MAX_VALUE))
+				assertTrue(TestLayouts.pathIsValid(found, start, end, layout));
+		}
+	}
+
+	/**
+	 * Compares the A* engine with the breadth first engine on larger random layouts
+	 */
+	@Test
+	public void testMatchesBreadthFirst(){
+		for(int trial = 0; trial < 50; trial++){
+			int n = 10 + r.nextInt(40);
+			layout = TestLayouts.randomLayout(n, 0.4 + 0.3 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			boolean hasPlank = r.nextBoolean();
+			Path expected = new BreadthFirstSolver(n, layout, start, end).shortestPath(hasPlank);
+			Path found = new AStarSolver(n, layout, start, end).shortestPath(hasPlank);
+			assertTrue(expected.isSameDistance(found));
+			if(!found.isSameDistance(Integer.MAX_VALUE))
+				assertTrue(TestLayouts.pathIsValid(found, start, end, layout));
+		}
+	}
+
+	/**
+	 * Stress test, corner to corner on a large, mostly connected layout
+	 * A* should expand far fewer states than breadth first search
+	 */
+	@Test
+	public void stressTestExpandsFewerStates(){
+		int n = 200;
+		layout = TestLayouts.randomLayout(n, 0.9, r);
+		BreadthFirstSolver bfs = new BreadthFirstSolver(n, layout);
+		AStarSolver aStar = new AStarSolver(n, layout);
+		Path expected = bfs.shortestPath(true);
+		Path found = aStar.shortestPath(true);
+		assertTrue(expected.isSameDistance(found));
+		assertTrue(TestLayouts.pathIsValid(found, new Pillar(0,0), new Pillar(n - 1, n - 1), layout));
+		assertTrue(aStar.getExpandedStates() * 4 < bfs.getExpandedStates());
+	}
+}
@@ -0,0 +1,221 @@
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Exhaustive testing on ArrayPath Class.
+ * @author gmh73
+ *
+ */
+public class TestArrayPath {
+	private ArrayPath p;
+	private ArrayPath.TestButton t;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		p = new ArrayPath(4);
+		t = p.new TestButton();
+	}
+
+	/**
+	 * Structural Basis
+	 * A new path is empty, like a new Path
+	 */
+	@Test
+	public void testConstructor(){
+		assertTrue(p.isSameDistance(-1));
+		assertNull(p.lastPillar());
+		assertNull(p.getPlank());
+		assertTrue(t.getVisited().isEmpty());
+		assertEquals(new Path(), p);
+		p.setDistanceToInfinite();
+		assertTrue(p.isSameDistance(Integer.MAX_VALUE));
+	}
+
+	/**
+	 * Bad data, n < 1, null pillars and pillars outside of the grid
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			new ArrayPath(0);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			p.addPillar(null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			p.addPillar(new Pillar(4,0));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		assertFalse(p.containsPillar(null));
+		assertFalse(p.containsPillar(new Pillar(0,4)));
+	}
+
+	/**
+	 * Structural Basis
+	 * Adding pillars, skipping ones that are not adjacent or already in the path, then removing them
+	 */
+	@Test
+	public void testAddAndRemove(){
+		p.addPillar(new Pillar(0,0));
+		p.addPillar(new Pillar(1,0));
+		//Not adjacent to (1,0)
+		p.addPillar(new Pillar(3,0));
+		//Already in the path
+		p.addPillar(new Pillar(0,0));
+		p.addPillar(new Pillar(1,1));
+		assertTrue(p.isSameDistance(2));
+		assertEquals(new Pillar(1,1), p.lastPillar());
+		assertTrue(p.containsPillar(new Pillar(1,0)));
+		assertFalse(p.containsPillar(new Pillar(3,0)));
+		//Only the last pillar can be removed
+		p.removeLastPillar(new Pillar(1,0));
+		assertTrue(p.isSameDistance(2));
+		p.removeLastPillar(new Pillar(1,1));
+		assertTrue(p.isSameDistance(1));
+		assertFalse(p.containsPillar(new Pillar(1,1)));
+		assertEquals(new Pillar(1,0), p.lastPillar());
+		assertEquals(2, t.getVisited().cardinality());
+	}
+
+	/**
+	 * Structural Basis
+	 * Ids one apart are only adjacent on the same row
+	 */
+	@Test
+	public void testIsAdjacent(){
+		assertTrue(t.testIsAdjacent(0, 1));
+		assertTrue(t.testIsAdjacent(5, 1));
+		assertFalse(t.testIsAdjacent(3, 4));
+		assertFalse(t.testIsAdjacent(0, 5));
+		assertFalse(t.testIsAdjacent(2, 2));
+	}
+
+	/**
+	 * Structural Basis
+	 * An ArrayPath equals, prints and copies like the Path with the same pillars and plank
+	 */
+	@Test
+	public void testSameAsPath(){
+		Path q = new Path();
+		Pillar[] pillars = {new Pillar(0,0), new Pillar(0,1), new Pillar(1,1), new Pillar(2,1)};
+		for(Pillar pil : pillars){
+			p.addPillar(pil);
+			q.addPillar(pil);
+		}
+		Plank plank = new Plank(new Pillar(1,1), new Pillar(0,1));
+		p.setPlank(plank);
+		assertFalse(p.equals(q));
+		assertFalse(q.equals(p));
+		q.setPlank(plank);
+		assertTrue(p.equals(q));
+		assertTrue(q.equals(p));
+		assertEquals(q.toString(), p.toString());
+		assertEquals(q, p.copy());
+		assertFalse(p.copy() instanceof ArrayPath);
+		Path asPath = p;
+		assertEquals(q.new TestButton().getPillars(), asPath.new TestButton().getPillars());
+		assertTrue(p.isSameDistance(q));
+		q.removeLastPillar(new Pillar(2,1));
+		assertTrue(q.isShorterThan(p));
+	}
+
+	/**
+	 * Stress test, a random walk of pushes and pops against a Path
+	 */
+	@Test
+	public void stressTestMatchesPath(){
+		Random r = TestLayouts.random();
+		int n = 12;
+		p = new ArrayPath(n);
+		Path q = new Path();
+		for(int i = 0; i < 20000; i++){
+			Pillar last = q.lastPillar();
+			if(last != null && r.nextInt(3) == 0){
+				p.removeLastPillar(last);
+				q.removeLastPillar(last);
+			}else{
+				Pillar next = new Pillar(r.nextInt(n), r.nextInt(n));
+				if(last != null && r.nextBoolean()){
+					int x = Math.min(n - 1, Math.max(0, last.getXCor() + r.nextInt(3) - 1));
+					int y = Math.min(n - 1, Math.max(0, last.getYCor() + r.nextInt(3) - 1));
+					next = new Pillar(x, y);
+				}
+				p.addPillar(next);
+				q.addPillar(next);
+			}
+			assertEquals(q, p);
+			Pillar probe = new Pillar(r.nextInt(n), r.nextInt(n));
+			assertEquals(q.containsPillar(probe), p.containsPillar(probe));
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * A snapshot keeps the path as it was, and the next snapshot reuses every node that still matches
+	 */
+	@Test
+	public void testSnapshot(){
+		Path empty = p.snapshot();
+		assertEquals(new Path(), empty);
+		p.addPillar(new Pillar(0,0));
+		p.addPillar(new Pillar(0,1));
+		p.addPillar(new Pillar(1,1));
+		Path first = p.snapshot();
+		assertEquals(3, t.getValidDepth());
+		assertEquals(p, first);
+		p.removeLastPillar(new Pillar(1,1));
+		assertEquals(3, t.getValidDepth());
+		Plank plank = new Plank(new Pillar(0,1), new Pillar(0,2));
+		p.setPlank(plank);
+		p.addPillar(new Pillar(0,2));
+		assertEquals(2, t.getValidDepth());
+		PersistentPath second = (PersistentPath) p.snapshot();
+		assertEquals(p, second);
+		assertEquals(plank, second.getPlank());
+		//The first snapshot did not change, and both share the first two nodes
+		assertEquals(new Pillar(1,1), first.lastPillar());
+		assertNull(first.getPlank());
+		assertSame(((PersistentPath) first).getParent(), second.getParent());
+		//Taking it again without changes builds nothing
+		assertSame(second, p.snapshot());
+		p.removePlank();
+		assertFalse(p.snapshot().equals(second));
+		assertSame(second.getParent(), ((PersistentPath) p.snapshot()).getParent());
+	}
+
+	/**
+	 * Structural Basis
+	 * A cleared path is empty and can be used again
+	 */
+	@Test
+	public void testClear(){
+		p.addPillar(new Pillar(0,0));
+		p.addPillar(new Pillar(0,1));
+		p.setPlank(new Plank(new Pillar(0,1), new Pillar(0,0)));
+		Path before = p.snapshot();
+		p.clear();
+		assertEquals(new Path(), p);
+		assertTrue(t.getVisited().isEmpty());
+		assertEquals(0, t.getValidDepth());
+		p.addPillar(new Pillar(3,3));
+		assertTrue(p.isSameDistance(0));
+		assertFalse(p.containsPillar(new Pillar(0,0)));
+		assertEquals(new Pillar(3,3), p.snapshot().lastPillar());
+		assertTrue(before.isSameDistance(1));
+	}
+}
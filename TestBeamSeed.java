@@ -0,0 +1,117 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Testing on BeamSeed, checking its paths are valid and never shorter than the breadth first search
+ * @author gmh73
+ *
+ */
+public class TestBeamSeed {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Bad data, null pillars and layout, and a beam width < 1
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			new BeamSeed(3, layout, null, new Pillar(0,0), 1);
+			fail();
+		}catch(NullPointerException e){
+		}
+		try{
+			new BeamSeed(3, null, new Pillar(0,0), new Pillar(2,2), 1);
+			fail();
+		}catch(NullPointerException e){
+		}
+		try{
+			new BeamSeed(3, layout, new Pillar(0,0), new Pillar(2,2), 0);
+			fail();
+		}catch(IndexOutOfBoundsException e){
+		}
+		assertEquals(4, new BeamSeed(3, layout, new Pillar(0,0), new Pillar(2,2), 4).getWidth());
+	}
+
+	/**
+	 * A greedy walk runs into a dead end that a wider beam gets around
+	 */
+	@Test
+	public void testGreedyDeadEnd(){
+		//(0,0) -> (1,0) -> (1,1) goes nowhere, the way to (2,0) is round the outside
+		layout.add(new Plank(new Pillar(0,0), new Pillar(1,0)));
+		layout.add(new Plank(new Pillar(1,0), new Pillar(1,1)));
+		layout.add(new Plank(new Pillar(0,0), new Pillar(0,1)));
+		layout.add(new Plank(new Pillar(0,1), new Pillar(0,2)));
+		layout.add(new Plank(new Pillar(0,2), new Pillar(1,2)));
+		layout.add(new Plank(new Pillar(1,2), new Pillar(2,2)));
+		layout.add(new Plank(new Pillar(2,2), new Pillar(2,1)));
+		layout.add(new Plank(new Pillar(2,1), new Pillar(2,0)));
+		Pillar start = new Pillar(0,0);
+		Pillar end = new Pillar(2,0);
+		assertEquals(Integer.MAX_VALUE, new BeamSeed(3, layout, start, end, 1).shortestPath(false).getDistance());
+		Path wide = new BeamSeed(3, layout, start, end, 2).shortestPath(false);
+		assertEquals(6, wide.getDistance());
+		assertTrue(TestLayouts.pathIsValid(wide, start, end, layout));
+		assertTrue(TestLayouts.isSimple(wide));
+		//With the plank the greedy walk steps straight across
+		Path planked = new BeamSeed(3, layout, start, end, 1).shortestPath(true);
+		assertEquals(2, planked.getDistance());
+		assertEquals(new Plank(new Pillar(1,0), new Pillar(2,0)), planked.getPlank());
+	}
+
+	/**
+	 * The start is the end
+	 */
+	@Test
+	public void testStartIsEnd(){
+		Path path = new BeamSeed(3, layout, new Pillar(1,1), new Pillar(1,1), 1).shortestPath(true);
+		assertEquals(0, path.getDistance());
+	}
+
+	/**
+	 * Every path found is valid and no shorter than the breadth first one, and none is found when
+	 * there is no path at all
+	 */
+	@Test
+	public void testAgainstBreadthFirst(){
+		for(int trial = 0; trial < 60; trial++){
+			int n = 2 + r.nextInt(10);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.6 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			for(boolean hasPlank : new boolean[]{false, true}){
+				int best = new BreadthFirstSolver(n, layout, start, end).shortestPath(hasPlank).getDistance();
+				for(int width : new int[]{1, 4, 64}){
+					Path path = new BeamSeed(n, layout, start, end, width).shortestPath(hasPlank);
+					if(best == Integer.MAX_VALUE){
+						assertEquals(Integer.MAX_VALUE, path.getDistance());
+						continue;
+					}
+					if(path.getDistance() == Integer.MAX_VALUE)
+						continue;
+					assertTrue(path.getDistance() >= best);
+					assertTrue(TestLayouts.pathIsValid(path, start, end, layout));
+					assertTrue(TestLayouts.isSimple(path));
+					assertTrue(hasPlank || path.getPlank() == null);
+				}
+			}
+		}
+	}
+}
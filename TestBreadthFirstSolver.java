@@ -0,0 +1,206 @@
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing on BreadthFirstSolver, mostly by comparing it against the depth first search in Maze
+ * @author gmh73
+ *
+ */
+public class TestBreadthFirstSolver {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Structural Basis
+	 * Nominal case, a straight path along the bottom of the grid
+	 */
+	@Test
+	public void testStraightPath(){
+		Path expected = new Path();
+		expected.addPillar(new Pillar(0,0));
+		for(int x = 1; x < 5; x++){
+			layout.add(new Plank(new Pillar(x - 1,0), new Pillar(x,0)));
+			expected.addPillar(new Pillar(x,0));
+		}
+		BreadthFirstSolver s = new BreadthFirstSolver(5, layout, new Pillar(0,0), new Pillar(4,0));
+		assertEquals(expected, s.shortestPath(false));
+		assertEquals(expected, s.shortestPath(true));
+	}
+
+	/**
+	 * Structural Basis
+	 * One plank is missing, so the path must use the extra plank
+	 */
+	@Test
+	public void testPathUsesPlank(){
+		Path expected = new Path();
+		expected.addPillar(new Pillar(0,0));
+		for(int x = 1; x < 5; x++){
+			if(x != 2)
+				layout.add(new Plank(new Pillar(x - 1,0), new Pillar(x,0)));
+			expected.addPillar(new Pillar(x,0));
+		}
+		expected.setPlank(new Plank(new Pillar(1,0), new Pillar(2,0)));
+		BreadthFirstSolver s = new BreadthFirstSolver(5, layout, new Pillar(0,0), new Pillar(4,0));
+		assertEquals(expected, s.shortestPath(true));
+		//Without the plank there is no way across
+		assertTrue(s.shortestPath(false).isSameDistance(Integer.MAX_VALUE));
+	}
+
+	/**
+	 * Bad data, layout is empty
+	 * Without a plank there is no path, with a plank only neighbors of the start are reachable
+	 */
+	@Test
+	public void testEmptyLayout(){
+		Path infinite = new Path();
+		infinite.setDistanceToInfinite();
+		assertEquals(infinite, new BreadthFirstSolver(5, layout).shortestPath(false));
+		assertEquals(infinite, new BreadthFirstSolver(5, layout).shortestPath(true));
+		Path expected = new Path();
+		expected.addPillar(new Pillar(0,0));
+		expected.addPillar(new Pillar(0,1));
+		expected.setPlank(new Plank(new Pillar(0,0), new Pillar(0,1)));
+		assertEquals(expected, new BreadthFirstSolver(5, layout, new Pillar(0,0), new Pillar(0,1)).shortestPath(true));
+	}
+
+	/**
+	 * Boundary case, maze is only one pillar
+	 */
+	@Test
+	public void testMazeIsOne(){
+		Path expected = new Path();
+		expected.addPillar(new Pillar(0,0));
+		assertEquals(expected, new BreadthFirstSolver(1, layout).shortestPath(false));
+		assertEquals(expected, new BreadthFirstSolver(1, layout).shortestPath(true));
+	}
+
+	/**
+	 * Bad data, bad constructor inputs
+	 */
+	@Test
+	public void testConstructorBadData(){
+		try{
+			new BreadthFirstSolver(5, null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			new BreadthFirstSolver(0, layout);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new BreadthFirstSolver(5, layout, new Pillar(0,0), new Pillar(5,0));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * The breadth first engine finds exactly the depth first engine's path on many small random layouts
+	 */
+	@Test
+	public void testMatchesDepthFirst(){
+		for(int trial = 0; trial < 200; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.5 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			boolean hasPlank = r.nextBoolean();
+			Path expected = new Maze(n, layout, start, end).shortestPath(hasPlank);
+			Maze m = new Maze(n, layout, start, end);
+			m.setEngine(Maze.Engine.BREADTH_FIRST);
+			Path found = m.shortestPath(hasPlank);
+			//Ties are broken as the depth first search breaks them, so the path and plank are the same
+			assertEquals(expected, found);
+			if(!found.isSameDistance(Integer.MAX_VALUE))
+				assertTrue(TestLayouts.pathIsValid(found, start, end, layout));
+		}
+	}
+
+	/**
+	 * Stress test, large sparse grid where a single serpentine corridor is the only path
+	 */
+	@Test
+	public void stressTestSerpentine(){
+		int n = 300;
+		//Every row is connected along x, and rows are joined alternately at the right and left ends
+		for(int y = 0; y < n; y++){
+			for(int x = 0; x + 1 < n; x++)
+				layout.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+			if(y + 1 < n){
+				int x = y % 2 == 0 ? n - 1 : 0;
+				layout.add(new Plank(new Pillar(x,y), new Pillar(x,y + 1)));
+			}
+		}
+		Pillar end = new Pillar(0, n - 1);
+		Path found = new BreadthFirstSolver(n, layout, new Pillar(0,0), end).shortestPath(false);
+		assertTrue(found.isSameDistance(n * n - 1));
+		assertTrue(TestLayouts.pathIsValid(found, new Pillar(0,0), end, layout));
+		//With the plank we can step straight across once, which cuts off one whole row
+		found = new BreadthFirstSolver(n, layout, new Pillar(0,0), end).shortestPath(true);
+		assertTrue(found.isShorterThan(n * n - 1));
+		assertTrue(TestLayouts.pathIsValid(found, new Pillar(0,0), end, layout));
+	}
+
+	/**
+	 * Stress test
+	 * Expanding states allocates nothing on a PlankGrid: a query that expands every state
+	 * allocates no more than one that expands three, apart from the path it returns
+	 */
+	@Test
+	public void stressTestExpansionAllocatesNothing(){
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+		int n = 200;
+		PlankGrid full = new PlankGrid(n);
+		for(int x = 0; x < n; x++){
+			for(int y = 0; y < n; y++){
+				if(x + 1 < n)
+					full.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+				if(y + 1 < n)
+					full.add(new Plank(new Pillar(x,y), new Pillar(x,y + 1)));
+			}
+		}
+		BreadthFirstSolver busy = new BreadthFirstSolver(n, full);
+		BreadthFirstSolver idle = new BreadthFirstSolver(n, new PlankGrid(n));
+		long tid = Thread.currentThread().getId();
+		long busyBytes = 0;
+		long idleBytes = 0;
+		//The first rounds warm up the JIT, the last one is measured
+		for(int round = 0; round < 5; round++){
+			long before = threads.getThreadAllocatedBytes(tid);
+			busy.shortestPath(true);
+			busyBytes = threads.getThreadAllocatedBytes(tid) - before;
+			before = threads.getThreadAllocatedBytes(tid);
+			idle.shortestPath(true);
+			idleBytes = threads.getThreadAllocatedBytes(tid) - before;
+		}
+		assertTrue(busy.getExpandedStates() > 10000 * idle.getExpandedStates());
+		//Any object per expansion would cost at least 16 bytes each
+		assertTrue(busyBytes - idleBytes < 2 * busy.getExpandedStates());
+	}
+}
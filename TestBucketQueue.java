@@ -0,0 +1,132 @@
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Exhaustive testing on BucketQueue Class.
+ * @author gmh73
+ *
+ */
+public class TestBucketQueue {
+	private BucketQueue q;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		q = new BucketQueue(3);
+	}
+
+	/**
+	 * Structural Basis
+	 * A new queue is empty
+	 */
+	@Test
+	public void testConstructor(){
+		assertTrue(q.isEmpty());
+	}
+
+	/**
+	 * Boundary case, a queue as wide as the largest step cost only fills the buckets it uses
+	 */
+	@Test
+	public void testWideSpan(){
+		BucketQueue wide = new BucketQueue(WeightedLayout.MAX_COST + 1);
+		wide.push(1, WeightedLayout.MAX_COST);
+		wide.push(2, 7);
+		assertEquals(7, wide.peekPriority());
+		assertEquals(2, wide.pop());
+		wide.push(3, WeightedLayout.MAX_COST + 7);
+		assertEquals(1, wide.pop());
+		assertEquals(3, wide.pop());
+		assertTrue(wide.isEmpty());
+	}
+
+	/**
+	 * Bad data, span < 1
+	 */
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testConstructorBadSpan(){
+		new BucketQueue(0);
+	}
+
+	/**
+	 * Structural Basis
+	 * Items come out by priority, and last in first out within a priority
+	 */
+	@Test
+	public void testPushAndPop(){
+		q.push(1, 4);
+		q.push(2, 6);
+		q.push(3, 4);
+		assertEquals(4, q.peekPriority());
+		assertEquals(3, q.pop());
+		assertEquals(1, q.pop());
+		//Now that 4 is done, 5 and 6 are in the span
+		q.push(4, 5);
+		assertEquals(5, q.peekPriority());
+		assertEquals(4, q.pop());
+		assertEquals(2, q.pop());
+		assertTrue(q.isEmpty());
+	}
+
+	/**
+	 * Structural Basis
+	 * Buckets grow past their starting size
+	 */
+	@Test
+	public void testGrow(){
+		for(int i = 0; i < 1000; i++)
+			q.push(i, i % 2);
+		for(int i = 999; i >= 1; i -= 2)
+			assertEquals(i - 1, q.pop());
+		for(int i = 999; i >= 1; i -= 2)
+			assertEquals(i, q.pop());
+		assertTrue(q.isEmpty());
+	}
+
+	/**
+	 * Bad data, priorities outside of the span
+	 */
+	@Test
+	public void testPushOutsideSpan(){
+		q.push(1, 10);
+		try{
+			q.push(2, 13);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			q.push(2, 9);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Bad data, popping an empty queue
+	 */
+	@Test(expected=IllegalStateException.class)
+	public void testPopEmpty(){
+		q.pop();
+	}
+
+	/**
+	 * Structural Basis
+	 * Clear empties the queue so it can start over from a lower priority
+	 */
+	@Test
+	public void testClear(){
+		q.push(1, 10);
+		q.push(2, 11);
+		q.clear();
+		assertTrue(q.isEmpty());
+		q.push(3, 0);
+		assertEquals(0, q.peekPriority());
+		assertEquals(3, q.pop());
+	}
+}
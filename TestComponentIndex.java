@@ -0,0 +1,207 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Testing on ComponentIndex, mostly by checking it against the breadth first search
+ * @author gmh73
+ *
+ */
+public class TestComponentIndex {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Bad data, null layout and bad size
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			new ComponentIndex(3, null);
+			fail();
+		}catch(NullPointerException e){
+		}
+		try{
+			new ComponentIndex(0, layout);
+			fail();
+		}catch(IndexOutOfBoundsException e){
+		}
+		try{
+			new IterativeDepthFirstSolver(3, layout, new Pillar(0,0), new Pillar(2,2), new SearchScratch(), new ComponentIndex(4, layout));
+			fail();
+		}catch(IndexOutOfBoundsException e){
+		}
+	}
+
+	/**
+	 * An empty layout has a component per pillar, each next to its neighbours only
+	 */
+	@Test
+	public void testEmptyLayout(){
+		ComponentIndex c = new ComponentIndex(3, layout);
+		assertEquals(9, c.getComponentCount());
+		assertEquals(3, c.getLength());
+		for(int id = 0; id < 9; id++)
+			assertEquals(id, c.label(id));
+		assertTrue(c.canBridge(0, 1));
+		assertTrue(c.canBridge(4, 1));
+		assertFalse(c.canBridge(0, 4));
+		assertFalse(c.canBridge(0, 8));
+		assertTrue(c.canReach(0, 1, true));
+		assertFalse(c.canReach(0, 1, false));
+		assertTrue(c.canReach(5, 5, false));
+	}
+
+	/**
+	 * Two components joined by a plank chain, and a third only next to one of them
+	 */
+	@Test
+	public void testSmallLayout(){
+		//Row 0 is one component, (0,2) to (2,2) another, and (0,1) to (2,1) are alone
+		layout.add(new Plank(new Pillar(0,0), new Pillar(1,0)));
+		layout.add(new Plank(new Pillar(1,0), new Pillar(2,0)));
+		layout.add(new Plank(new Pillar(0,2), new Pillar(1,2)));
+		layout.add(new Plank(new Pillar(1,2), new Pillar(2,2)));
+		ComponentIndex c = new ComponentIndex(3, layout);
+		assertEquals(5, c.getComponentCount());
+		int[] labels = c.getLabels();
+		assertArrayEquals(new int[]{0, 0, 0, 1, 2, 3, 4, 4, 4}, labels);
+		//The labels handed out are a copy
+		labels[0] = 7;
+		assertEquals(0, c.label(0));
+		assertTrue(c.sameComponent(0, 2));
+		assertFalse(c.sameComponent(0, 6));
+		assertFalse(c.canBridge(0, 4));
+		assertFalse(c.canReach(0, 8, true));
+		assertTrue(c.canReach(0, 4, true));
+		assertTrue(c.canBridge(2, 4));
+	}
+
+	/**
+	 * Labels match reachability on the layout, and canReach matches the breadth first search
+	 */
+	@Test
+	public void testAgainstBreadthFirst(){
+		for(int trial = 0; trial < 30; trial++){
+			int n = 2 + r.nextInt(8);
+			layout = TestLayouts.randomLayout(n, 0.2 + 0.6 * r.nextDouble(), r);
+			ComponentIndex c = new ComponentIndex(n, layout);
+			for(int a = 0; a < n * n; a++){
+				Pillar source = new Pillar(a % n, a / n);
+				DistanceMap without = new DistanceMap(n, layout, source, false);
+				DistanceMap with = new DistanceMap(n, layout, source, true);
+				for(int b = 0; b < n * n; b++){
+					Pillar target = new Pillar(b % n, b / n);
+					boolean reachable = without.distanceTo(target) != Integer.MAX_VALUE;
+					assertEquals(reachable, c.sameComponent(a, b));
+					assertEquals(reachable, c.canReach(a, b, false));
+					assertEquals(with.distanceTo(target) != Integer.MAX_VALUE, c.canReach(a, b, true));
+				}
+			}
+		}
+	}
+
+	/**
+	 * The pruned depth first searches still find the same path as each other and the breadth first distance
+	 */
+	@Test
+	public void testPrunedSearches(){
+		Maze.Engine[] engines = {Maze.Engine.DEPTH_FIRST, Maze.Engine.ITERATIVE_DEPTH_FIRST, Maze.Engine.PARALLEL_DEPTH_FIRST};
+		for(int trial = 0; trial < 40; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.4 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			for(boolean hasPlank : new boolean[]{false, true}){
+				int expected = new DistanceMap(n, layout, start, hasPlank).distanceTo(end);
+				Path first = null;
+				for(Maze.Engine engine : engines){
+					Maze m = new Maze(n, layout, start, end);
+					m.setEngine(engine);
+					Path found = m.shortestPath(hasPlank);
+					assertEquals(expected, found.getDistance());
+					if(first == null)
+						first = found;
+					assertEquals(first, found);
+				}
+				MazeDefinition d = new MazeDefinition(n, layout);
+				assertEquals(first, d.shortestPath(start, end, hasPlank));
+			}
+		}
+	}
+
+	/**
+	 * An end that cannot be reached gives up at once, however big the maze
+	 */
+	@Test(timeout = 5000)
+	public void testUnreachableStress(){
+		int n = 200;
+		//Every pillar is joined to its row except for a wall of gaps two wide in the middle
+		for(int y = 0; y < n; y++)
+			for(int x = 0; x + 1 < n; x++)
+				if(x != n / 2 && x != n / 2 + 1)
+					layout.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+		for(int y = 0; y + 1 < n; y++){
+			layout.add(new Plank(new Pillar(0,y), new Pillar(0,y + 1)));
+			layout.add(new Plank(new Pillar(n - 1,y), new Pillar(n - 1,y + 1)));
+		}
+		Pillar start = new Pillar(0,0);
+		Pillar end = new Pillar(n - 1,n - 1);
+		for(Maze.Engine engine : new Maze.Engine[]{Maze.Engine.DEPTH_FIRST, Maze.Engine.ITERATIVE_DEPTH_FIRST, Maze.Engine.PARALLEL_DEPTH_FIRST}){
+			Maze m = new Maze(n, layout, start, end);
+			m.setEngine(engine);
+			assertEquals(Integer.MAX_VALUE, m.shortestPath(true).getDistance());
+			assertEquals(Integer.MAX_VALUE, m.shortestPath(false).getDistance());
+		}
+		assertEquals(Integer.MAX_VALUE, new MazeDefinition(n, layout).shortestPath(start, end, true).getDistance());
+	}
+
+	/**
+	 * Maze labels the components once and keeps them while the layout stays the same,
+	 * and labels them again when planks are added, removed or swapped
+	 */
+	@Test
+	public void testMazeKeepsComponents(){
+		int n = 3;
+		Pillar start = new Pillar(0,0);
+		Pillar end = new Pillar(2,0);
+		layout.add(new Plank(new Pillar(0,0), new Pillar(1,0)));
+		layout.add(new Plank(new Pillar(0,1), new Pillar(1,1)));
+		Maze m = new Maze(n, layout, start, end);
+		Maze.TestButton t = m.new TestButton();
+		assertEquals(Integer.MAX_VALUE, m.shortestPath(false).getDistance());
+		ComponentIndex first = t.getLabelled();
+		assertNotNull(first);
+		assertEquals(2, m.shortestPath(true).getDistance());
+		assertSame(first, t.getLabelled());
+		//Swapping one plank for another keeps the size but not the components
+		layout.remove(new Plank(new Pillar(0,1), new Pillar(1,1)));
+		layout.add(new Plank(new Pillar(1,0), new Pillar(2,0)));
+		assertEquals(2, m.shortestPath(false).getDistance());
+		assertNotSame(first, t.getLabelled());
+		//A PlankGrid keeps its own fingerprint, so a change to it is seen too
+		PlankGrid grid = new PlankGrid(n, layout);
+		m = new Maze(n, grid, start, end);
+		t = m.new TestButton();
+		assertEquals(2, m.shortestPath(false).getDistance());
+		first = t.getLabelled();
+		grid.remove(new Plank(new Pillar(1,0), new Pillar(2,0)));
+		assertEquals(Integer.MAX_VALUE, m.shortestPath(false).getDistance());
+		assertNotSame(first, t.getLabelled());
+	}
+}
@@ -0,0 +1,267 @@
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Testing on DijkstraSolver, against the breadth first solver for unit costs
+ * and against an exhaustive search for random costs
+ * @author gmh73
+ *
+ */
+public class TestDijkstraSolver {
+	private Random r;
+	private WeightedLayout layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new WeightedLayout(3, 1);
+	}
+
+	/**
+	 * Fills layout with random planks, each possible plank is added with probability density
+	 * at a cost from 1 to maxCost
+	 * @param n	the length of the grid
+	 * @param density	the chance each plank is in the layout
+	 * @param maxCost	the largest cost of a plank
+	 * @param plankCost	the cost of laying the extra plank
+	 */
+	private void randomLayout(int n, double density, int maxCost, int plankCost){
+		layout = new WeightedLayout(n, plankCost);
+		for(Plank p : TestLayouts.randomLayout(n, density, r))
+			layout.add(p, 1 + r.nextInt(maxCost));
+	}
+
+	/**
+	 * Goes through a path and makes sure it makes it step by step to the end,
+	 * only leaving the layout on the added plank, and adds up its cost
+	 * @param path	a found path
+	 * @param start	the start pillar
+	 * @param end	the end pillar
+	 * @return	returns the cost of path, or -1 if it is not a valid path from start to end
+	 */
+	private int costOf(Path path, Pillar start, Pillar end){
+		List<Pillar> ppath = path.new TestButton().getPPath();
+		Iterator<Pillar> i = ppath.iterator();
+		Pillar prev = i.next();
+		if(!prev.equals(start))
+			return -1;
+		int cost = 0;
+		while(i.hasNext()){
+			Pillar curr = i.next();
+			Plank step = new Plank(prev, curr);
+			if(curr.shortestDistanceTo(prev) != 1)
+				return -1;
+			if(layout.contains(step))
+				cost += layout.getCost(step);
+			else if(step.equals(path.getPlank()))
+				cost += layout.getPlankCost();
+			else
+				return -1;
+			prev = curr;
+		}
+		boolean valid = prev.equals(end) && (path.getPlank() == null || !layout.contains(path.getPlank()));
+		return valid ? cost : -1;
+	}
+
+	/**
+	 * Finds the cheapest cost by trying every simple path
+	 * @param curr	the current pillar
+	 * @param end	the end pillar
+	 * @param hasPlank	true if the extra plank may still be laid
+	 * @param visited	the pillars on the current path
+	 * @return	returns the cheapest cost from curr to end, or Integer.MAX_VALUE if there is no path
+	 */
+	private int exhaustiveCost(Pillar curr, Pillar end, boolean hasPlank, Set<Pillar> visited){
+		if(curr.equals(end))
+			return 0;
+		int n = layout.getLength();
+		int best = Integer.MAX_VALUE;
+		visited.add(curr);
+		int[][] steps = {{1,0},{0,1},{-1,0},{0,-1}};
+		for(int[] step : steps){
+			int x = curr.getXCor() + step[0];
+			int y = curr.getYCor() + step[1];
+			if(x < 0 || y < 0 || x >= n || y >= n)
+				continue;
+			Pillar next = new Pillar(x, y);
+			int cost = layout.getCost(new Plank(curr, next));
+			if(visited.contains(next) || (cost == 0 && !hasPlank))
+				continue;
+			int rest = exhaustiveCost(next, end, hasPlank && cost != 0, visited);
+			if(rest != Integer.MAX_VALUE)
+				best = Math.min(best, rest + (cost == 0 ? layout.getPlankCost() : cost));
+		}
+		visited.remove(curr);
+		return best;
+	}
+
+	/**
+	 * Bad data, null layout and out of maze pillars
+	 */
+	@Test
+	public void testConstructorBadData(){
+		try{
+			new DijkstraSolver(null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			new DijkstraSolver(layout, new Pillar(0,0), new Pillar(3,0));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * Start and end are the same pillar, and the end cannot be reached
+	 */
+	@Test
+	public void testTrivialCases(){
+		DijkstraSolver solver = new DijkstraSolver(layout, new Pillar(1,1), new Pillar(1,1));
+		Path expected = new Path();
+		expected.addPillar(new Pillar(1,1));
+		assertEquals(expected, solver.shortestPath(true));
+		assertEquals(0, solver.getPathCost());
+		solver = new DijkstraSolver(layout);
+		assertTrue(solver.shortestPath(true).isSameDistance(Integer.MAX_VALUE));
+		assertEquals(Integer.MAX_VALUE, solver.getPathCost());
+	}
+
+	/**
+	 * Structural Basis
+	 * A cheap detour is taken over an expensive direct plank, and the extra plank is laid
+	 * only when it is cheaper than walking around
+	 */
+	@Test
+	public void testPrefersCheaperPath(){
+		layout = new WeightedLayout(2, 5);
+		layout.add(new Plank(new Pillar(0,0), new Pillar(1,0)), 10);
+		layout.add(new Plank(new Pillar(0,0), new Pillar(0,1)), 1);
+		layout.add(new Plank(new Pillar(0,1), new Pillar(1,1)), 1);
+		layout.add(new Plank(new Pillar(1,1), new Pillar(1,0)), 1);
+		DijkstraSolver solver = new DijkstraSolver(layout, new Pillar(0,0), new Pillar(1,0));
+		Path found = solver.shortestPath(true);
+		assertEquals(3, solver.getPathCost());
+		assertTrue(found.isSameDistance(3));
+		assertEquals(3, costOf(found, new Pillar(0,0), new Pillar(1,0)));
+		layout.setPlankCost(1);
+		layout.remove(new Plank(new Pillar(0,0), new Pillar(1,0)));
+		layout.add(new Plank(new Pillar(0,1), new Pillar(1,1)), 20);
+		found = solver.shortestPath(true);
+		assertEquals(1, solver.getPathCost());
+		assertEquals(new Plank(new Pillar(0,0), new Pillar(1,0)), found.getPlank());
+		solver.shortestPath(false);
+		assertEquals(22, solver.getPathCost());
+	}
+
+	/**
+	 * With every cost 1 the cost is the distance, as short as the breadth first solver's path
+	 */
+	@Test
+	public void testUnitCostsMatchBreadthFirst(){
+		for(int trial = 0; trial < 100; trial++){
+			int n = 2 + r.nextInt(6);
+			randomLayout(n, 0.3 + 0.5 * r.nextDouble(), 1, 1);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			boolean hasPlank = r.nextBoolean();
+			Path expected = new BreadthFirstSolver(n, layout, start, end).shortestPath(hasPlank);
+			DijkstraSolver solver = new DijkstraSolver(layout, start, end);
+			Path found = solver.shortestPath(hasPlank);
+			assertTrue(expected.isSameDistance(found));
+			if(!found.isSameDistance(Integer.MAX_VALUE))
+				assertEquals(solver.getPathCost(), costOf(found, start, end));
+		}
+	}
+
+	/**
+	 * With random costs the cost is as cheap as an exhaustive search finds, and is the cost of the path
+	 */
+	@Test
+	public void testMatchesExhaustiveSearch(){
+		for(int trial = 0; trial < 150; trial++){
+			int n = 2 + r.nextInt(3);
+			randomLayout(n, 0.3 + 0.6 * r.nextDouble(), 1 + r.nextInt(9), 1 + r.nextInt(12));
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			boolean hasPlank = r.nextBoolean();
+			DijkstraSolver solver = new DijkstraSolver(layout, start, end);
+			Path found = solver.shortestPath(hasPlank);
+			assertEquals(exhaustiveCost(start, end, hasPlank, new HashSet<Pillar>()), solver.getPathCost());
+			if(!found.isSameDistance(Integer.MAX_VALUE))
+				assertEquals(solver.getPathCost(), costOf(found, start, end));
+			assertEquals(solver.getPathCost(), layout.costOf(found));
+		}
+	}
+
+	/**
+	 * Maze's DIJKSTRA engine uses the costs of a WeightedLayout, and cost 1 for any other layout
+	 */
+	@Test
+	public void testEngine(){
+		int n = 6;
+		randomLayout(n, 0.7, 9, 3);
+		Maze m = new Maze(n, layout);
+		m.setEngine(Maze.Engine.DIJKSTRA);
+		DijkstraSolver solver = new DijkstraSolver(layout);
+		Path found = m.shortestPath(true);
+		assertEquals(solver.shortestPath(true), found);
+		assertEquals(solver.getPathCost(), m.pathCost(found));
+		Set<Plank> plain = new HashSet<Plank>(layout);
+		m = new Maze(n, plain);
+		m.setEngine(Maze.Engine.DIJKSTRA);
+		found = m.shortestPath(true);
+		assertTrue(new BreadthFirstSolver(n, plain).shortestPath(true).isSameDistance(found));
+		//Without costs every step costs 1
+		assertTrue(found.isSameDistance(m.pathCost(found)));
+	}
+
+	/**
+	 * Stress test
+	 * Expanding states allocates nothing: a query that expands every state
+	 * allocates no more than one that expands three, apart from the path it returns
+	 */
+	@Test
+	public void stressTestExpansionAllocatesNothing(){
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+		int n = 200;
+		randomLayout(n, 1.0, 20, 50);
+		DijkstraSolver busy = new DijkstraSolver(layout);
+		DijkstraSolver idle = new DijkstraSolver(new WeightedLayout(n, 50));
+		long tid = Thread.currentThread().getId();
+		long busyBytes = 0;
+		long idleBytes = 0;
+		//The first rounds warm up the JIT and grow the buckets, the last one is measured
+		for(int round = 0; round < 5; round++){
+			long before = threads.getThreadAllocatedBytes(tid);
+			busy.shortestPath(true);
+			busyBytes = threads.getThreadAllocatedBytes(tid) - before;
+			before = threads.getThreadAllocatedBytes(tid);
+			idle.shortestPath(true);
+			idleBytes = threads.getThreadAllocatedBytes(tid) - before;
+		}
+		assertTrue(busy.getExpandedStates() > 10000 * idle.getExpandedStates());
+		//Any object per expansion would cost at least 16 bytes each
+		assertTrue(busyBytes - idleBytes < 2 * busy.getExpandedStates());
+	}
+}
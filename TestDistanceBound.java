@@ -0,0 +1,157 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Testing on DistanceBound, and on the depth first searches that are cut by it
+ * @author gmh73
+ *
+ */
+public class TestDistanceBound {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Fills layout with every plank of an n x n grid except a wall at x = n/2 that is only open at the top,
+	 * so every short way to the end has to go around it and the plank can only cut one step off
+	 * @param n	the length of the grid
+	 */
+	private void wallLayout(int n){
+		layout = new HashSet<Plank>();
+		for(int x = 0; x < n; x++){
+			for(int y = 0; y < n; y++){
+				if(x + 1 < n && (x != n / 2 || y == n - 1))
+					layout.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+				if(y + 1 < n)
+					layout.add(new Plank(new Pillar(x,y), new Pillar(x,y + 1)));
+			}
+		}
+	}
+
+	/**
+	 * Bad data, null end and layout, and an end off the grid
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			new DistanceBound(3, layout, null);
+			fail();
+		}catch(NullPointerException e){
+		}
+		try{
+			new DistanceBound(3, null, new Pillar(0,0));
+			fail();
+		}catch(NullPointerException e){
+		}
+		try{
+			new DistanceBound(3, layout, new Pillar(3,0));
+			fail();
+		}catch(IndexOutOfBoundsException e){
+		}
+	}
+
+	/**
+	 * The distance left from every pillar is the breadth first distance from it to the end
+	 */
+	@Test
+	public void testRemaining(){
+		for(int trial = 0; trial < 20; trial++){
+			int n = 2 + r.nextInt(6);
+			layout = TestLayouts.randomLayout(n, 0.2 + 0.6 * r.nextDouble(), r);
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			DistanceBound bound = new DistanceBound(n, layout, end);
+			for(int id = 0; id < n * n; id++){
+				Pillar p = new Pillar(id % n, id / n);
+				assertEquals(new DistanceMap(n, layout, p, false).distanceTo(end), bound.remaining(id, false));
+				assertEquals(new DistanceMap(n, layout, p, true).distanceTo(end), bound.remaining(id, true));
+			}
+		}
+	}
+
+	/**
+	 * A branch is only worth searching if it could end strictly shorter than the best
+	 */
+	@Test
+	public void testCanImprove(){
+		wallLayout(3);
+		DistanceBound bound = new DistanceBound(3, layout, new Pillar(2,0));
+		//From (0,0) the way round the wall is 6 steps, laying the plank it is 2
+		assertEquals(6, bound.remaining(0, false));
+		assertEquals(2, bound.remaining(0, true));
+		assertTrue(bound.canImprove(0, 0, false, 7));
+		assertFalse(bound.canImprove(0, 0, false, 6));
+		assertFalse(bound.canImprove(1, 0, false, 6));
+		assertTrue(bound.canImprove(3, 0, true, Integer.MAX_VALUE));
+		assertTrue(bound.canImprove(5, 0, true, 8));
+		//The sum is worked out without overflowing
+		assertFalse(bound.canImprove(Integer.MAX_VALUE - 1, 0, true, Integer.MAX_VALUE));
+		layout.clear();
+		bound = new DistanceBound(3, layout, new Pillar(2,0));
+		assertEquals(Integer.MAX_VALUE, bound.remaining(0, false));
+		assertFalse(bound.canImprove(0, 0, false, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * The cut searches find exactly the same path as the searches without the bound
+	 */
+	@Test
+	public void testSamePath(){
+		for(int trial = 0; trial < 40; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.5 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			for(boolean hasPlank : new boolean[]{false, true}){
+				Path expected = new Maze(n, layout, start, end).shortestPath(hasPlank);
+				for(Maze.Engine engine : new Maze.Engine[]{Maze.Engine.DEPTH_FIRST, Maze.Engine.ITERATIVE_DEPTH_FIRST}){
+					Maze m = new Maze(n, layout, start, end);
+					m.setEngine(engine);
+					m.setExactBound(true);
+					assertTrue(m.hasExactBound());
+					assertEquals(expected, m.shortestPath(hasPlank));
+				}
+			}
+		}
+	}
+
+	/**
+	 * On a layout where the shortest path is much longer than the Manhattan distance, the bound
+	 * cuts the search down to a small part of the frames without it
+	 */
+	@Test
+	public void testPathologicalLayout(){
+		int n = 6;
+		wallLayout(n);
+		Pillar start = new Pillar(0,0);
+		Pillar end = new Pillar(n - 1,0);
+		IterativeDepthFirstSolver plain = new IterativeDepthFirstSolver(n, layout, start, end);
+		IterativeDepthFirstSolver cut = new IterativeDepthFirstSolver(n, layout, start, end);
+		cut.setExactBound(true);
+		Path expected = plain.shortestPath(false);
+		assertEquals(expected, cut.shortestPath(false));
+		assertEquals(n - 1 + 2 * (n - 1), expected.getDistance());
+		assertTrue(cut.getExpandedStates() * 100 < plain.getExpandedStates());
+		//Cut on a bigger grid it still finishes at once
+		n = 12;
+		wallLayout(n);
+		Maze m = new Maze(n, layout, start, new Pillar(n - 1,0));
+		m.setExactBound(true);
+		assertEquals(n - 1 + 2 * (n - 1), m.shortestPath(false).getDistance());
+		assertEquals(n - 1 + 2 * (n - 1), new DistanceMap(n, layout, start, false).distanceTo(new Pillar(n - 1,0)));
+	}
+}
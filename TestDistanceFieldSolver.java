@@ -0,0 +1,129 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing on DistanceFieldSolver
+ * @author gmh73
+ *
+ */
+public class TestDistanceFieldSolver {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Structural Basis
+	 * The layout has a long way around, and one missing plank makes a short cut
+	 */
+	@Test
+	public void testPlankMakesShortCut(){
+		//A U shape: up the left side, across the top, down the right side
+		for(int y = 0; y < 4; y++){
+			layout.add(new Plank(new Pillar(0,y), new Pillar(0,y + 1)));
+			layout.add(new Plank(new Pillar(2,y), new Pillar(2,y + 1)));
+		}
+		layout.add(new Plank(new Pillar(0,4), new Pillar(1,4)));
+		layout.add(new Plank(new Pillar(1,4), new Pillar(2,4)));
+		layout.add(new Plank(new Pillar(1,0), new Pillar(2,0)));
+		DistanceFieldSolver s = new DistanceFieldSolver(5, layout, new Pillar(0,0), new Pillar(2,0));
+		assertTrue(s.shortestPath(false).isSameDistance(10));
+		Path expected = new Path();
+		expected.addPillar(new Pillar(0,0));
+		expected.addPillar(new Pillar(1,0));
+		expected.addPillar(new Pillar(2,0));
+		expected.setPlank(new Plank(new Pillar(0,0), new Pillar(1,0)));
+		assertEquals(expected, s.shortestPath(true));
+	}
+
+	/**
+	 * Structural Basis
+	 * When the plank does not help, the plank free path is returned without a plank
+	 */
+	@Test
+	public void testPlankDoesNotHelp(){
+		Path expected = new Path();
+		expected.addPillar(new Pillar(0,0));
+		for(int x = 1; x < 5; x++){
+			layout.add(new Plank(new Pillar(x - 1,0), new Pillar(x,0)));
+			expected.addPillar(new Pillar(x,0));
+		}
+		DistanceFieldSolver s = new DistanceFieldSolver(5, layout, new Pillar(0,0), new Pillar(4,0));
+		assertEquals(expected, s.shortestPath(true));
+		assertEquals(expected, s.shortestPath(false));
+	}
+
+	/**
+	 * Bad data, layout is empty (no path to finish)
+	 */
+	@Test
+	public void testEmptyLayout(){
+		Path infinite = new Path();
+		infinite.setDistanceToInfinite();
+		assertEquals(infinite, new DistanceFieldSolver(5, layout).shortestPath(false));
+		assertEquals(infinite, new DistanceFieldSolver(5, layout).shortestPath(true));
+	}
+
+	/**
+	 * Boundary case, maze is only one pillar
+	 */
+	@Test
+	public void testMazeIsOne(){
+		Path expected = new Path();
+		expected.addPillar(new Pillar(0,0));
+		assertEquals(expected, new DistanceFieldSolver(1, layout).shortestPath(false));
+		assertEquals(expected, new DistanceFieldSolver(1, layout).shortestPath(true));
+	}
+
+	/**
+	 * Compares the distance field engine with the depth first engine on small random layouts
+	 */
+	@Test
+	public void testMatchesDepthFirst(){
+		for(int trial = 0; trial < 200; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.5 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			boolean hasPlank = r.nextBoolean();
+			Path expected = new Maze(n, layout, start, end).shortestPath(hasPlank);
+			Maze m = new Maze(n, layout, start, end);
+			m.setEngine(Maze.Engine.DISTANCE_FIELD);
+			Path found = m.shortestPath(hasPlank);
+			assertTrue(expected.isSameDistance(found));
+			if(!found.isSameDistance(Integer.MAX_VALUE))
+				assertTrue(TestLayouts.pathIsValid(found, start, end, layout));
+		}
+	}
+
+	/**
+	 * Compares the distance field engine with the breadth first engine on larger random layouts
+	 */
+	@Test
+	public void testMatchesBreadthFirst(){
+		for(int trial = 0; trial < 50; trial++){
+			int n = 10 + r.nextInt(40);
+			layout = TestLayouts.randomLayout(n, 0.4 + 0.3 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			Path expected = new BreadthFirstSolver(n, layout, start, end).shortestPath(true);
+			Path found = new DistanceFieldSolver(n, layout, start, end).shortestPath(true);
+			assertTrue(expected.isSameDistance(found));
+			if(!found.isSameDistance(Integer.MAX_VALUE))
+				assertTrue(TestLayouts.pathIsValid(found, start, end, layout));
+		}
+	}
+}
@@ -0,0 +1,174 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Testing on DistanceMap, mostly by checking it against the depth first search in Maze
+ * @author gmh73
+ *
+ */
+public class TestDistanceMap {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Bad data, null and out of maze pillars, null layout and bad size
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			new DistanceMap(3, layout, null, true);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			new DistanceMap(3, null, new Pillar(0,0), true);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			new DistanceMap(0, layout, new Pillar(0,0), true);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new DistanceMap(3, layout, new Pillar(3,0), true);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		DistanceMap map = new DistanceMap(3, layout, new Pillar(0,0), true);
+		try{
+			map.pathTo(new Pillar(0,3));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			map.distanceTo(null, false);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * The source is 0 from itself, and with no planks only its neighbors can be reached, with the plank
+	 */
+	@Test
+	public void testEmptyLayout(){
+		DistanceMap map = new DistanceMap(3, layout, new Pillar(1,1), true);
+		assertEquals(new Pillar(1,1), map.getSource());
+		assertEquals(3, map.getLength());
+		Path expected = new Path();
+		expected.addPillar(new Pillar(1,1));
+		assertEquals(expected, map.pathTo(new Pillar(1,1)));
+		assertEquals(0, map.distanceTo(new Pillar(1,1)));
+		assertEquals(1, map.distanceTo(new Pillar(2,1)));
+		assertEquals(Integer.MAX_VALUE, map.distanceTo(new Pillar(2,1), false));
+		assertEquals(Integer.MAX_VALUE, map.distanceTo(new Pillar(2,2)));
+		assertTrue(map.pathTo(new Pillar(2,2)).isSameDistance(Integer.MAX_VALUE));
+		int[] free = map.getDistances(false);
+		int[] planked = map.getDistances(true);
+		int[] parents = map.getParents(true);
+		for(int id = 0; id < 9; id++){
+			assertEquals(id == 4 ? 0 : -1, free[id]);
+			boolean neighbor = id == 1 || id == 3 || id == 5 || id == 7;
+			assertEquals(neighbor ? 1 : -1, planked[id]);
+			assertEquals(neighbor ? 4 : -1, parents[id]);
+		}
+		map = new DistanceMap(3, layout, new Pillar(1,1), false);
+		for(int d : map.getDistances(true))
+			assertEquals(-1, d);
+	}
+
+	/**
+	 * The distance to every pillar, with and without the plank, is what Maze finds,
+	 * every path built is valid, and the parent arrays lead back to the source one step at a time
+	 */
+	@Test
+	public void testMatchesMaze(){
+		for(int trial = 0; trial < 60; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.5 * r.nextDouble(), r);
+			Pillar source = new Pillar(r.nextInt(n), r.nextInt(n));
+			DistanceMap map = new DistanceMap(n, layout, source, true);
+			DistanceMap noPlank = new DistanceMap(n, layout, source, false);
+			int[] free = map.getDistances(false);
+			int[] freeParents = map.getParents(false);
+			int[] planked = map.getDistances(true);
+			int[] plankedParents = map.getParents(true);
+			assertArrayEquals(free, noPlank.getDistances(false));
+			for(int id = 0; id < n * n; id++){
+				Pillar target = new Pillar(id % n, id / n);
+				Path with = new Maze(n, layout, source, target).shortestPath(true);
+				Path without = new Maze(n, layout, source, target).shortestPath(false);
+				assertTrue(with.isSameDistance(map.distanceTo(target)));
+				assertTrue(without.isSameDistance(map.distanceTo(target, false)));
+				assertTrue(without.isSameDistance(noPlank.distanceTo(target)));
+				assertTrue(map.pathTo(target).isSameDistance(map.distanceTo(target)));
+				if(map.distanceTo(target) != Integer.MAX_VALUE)
+					assertTrue(TestLayouts.pathIsValid(map.pathTo(target), source, target, layout));
+				if(planked[id] != -1 && (free[id] == -1 || planked[id] < free[id]))
+					assertNotNull(map.pathTo(target).getPlank());
+				if(free[id] > 0)
+					assertEquals(free[id] - 1, free[freeParents[id]]);
+				if(planked[id] != -1){
+					//A step along the layout stays in the plank layer, any other step laid the plank
+					int p = plankedParents[id];
+					boolean connected = layout.contains(new Plank(target, new Pillar(p % n, p / n)));
+					assertEquals(planked[id] - 1, connected ? planked[p] : free[p]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Maze and MazeDefinition give the same map for the same source
+	 */
+	@Test
+	public void testAccessors(){
+		int n = 6;
+		layout = TestLayouts.randomLayout(n, 0.6, r);
+		Pillar start = new Pillar(2,3);
+		DistanceMap fromMaze = new Maze(n, layout, start, new Pillar(0,0)).distanceMap(true);
+		DistanceMap fromDefinition = new MazeDefinition(n, layout).distanceMap(start, true);
+		assertEquals(start, fromMaze.getSource());
+		assertArrayEquals(fromMaze.getDistances(false), fromDefinition.getDistances(false));
+		assertArrayEquals(fromMaze.getDistances(true), fromDefinition.getDistances(true));
+		assertArrayEquals(fromMaze.getParents(true), fromDefinition.getParents(true));
+	}
+
+	/**
+	 * Stress test, one sweep of a 300 x 300 grid agrees with the breadth first solver at the far corner
+	 */
+	@Test
+	public void stressTestLargeGrid(){
+		int n = 300;
+		layout = TestLayouts.randomLayout(n, 0.6, r);
+		PlankGrid grid = new PlankGrid(n, layout);
+		DistanceMap map = new DistanceMap(n, grid, new Pillar(0,0), true);
+		Path expected = new BreadthFirstSolver(n, grid).shortestPath(true);
+		assertTrue(expected.isSameDistance(map.distanceTo(new Pillar(n - 1, n - 1))));
+		assertTrue(map.getExpandedStates() <= 2 * n * n);
+	}
+}
@@ -0,0 +1,161 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing on IterativeDepthFirstSolver, mostly by checking it finds exactly what the recursive search in Maze finds
+ * @author gmh73
+ *
+ */
+public class TestIterativeDepthFirstSolver {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	/**
+	 * Builds a layout where a single serpentine corridor is the only path from (0,0) to (0,n-1)
+	 * @param n	the length of the grid
+	 */
+	private void serpentineLayout(int n){
+		layout = new HashSet<Plank>();
+		//Every row is connected along x, and rows are joined alternately at the right and left ends
+		for(int y = 0; y < n; y++){
+			for(int x = 0; x + 1 < n; x++)
+				layout.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+			if(y + 1 < n){
+				int x = y % 2 == 0 ? n - 1 : 0;
+				layout.add(new Plank(new Pillar(x,y), new Pillar(x,y + 1)));
+			}
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * Start and end are the same pillar, and the end cannot be reached
+	 */
+	@Test
+	public void testTrivialCases(){
+		Path found = new IterativeDepthFirstSolver(3, layout, new Pillar(1,1), new Pillar(1,1)).shortestPath(true);
+		Path expected = new Path();
+		expected.addPillar(new Pillar(1,1));
+		assertEquals(expected, found);
+		found = new IterativeDepthFirstSolver(3, layout).shortestPath(true);
+		assertTrue(found.isSameDistance(Integer.MAX_VALUE));
+		assertEquals(new Maze(3, layout).shortestPath(true), found);
+	}
+
+	/**
+	 * Bad data, n < 1, null layout, null and out of maze pillars
+	 */
+	@Test
+	public void testConstructorBadData(){
+		try{
+			new IterativeDepthFirstSolver(0, layout);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new IterativeDepthFirstSolver(3, null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			new IterativeDepthFirstSolver(3, layout, new Pillar(0,0), new Pillar(3,0));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Finds exactly the same path, plank included, as the recursive search on many small random layouts
+	 */
+	@Test
+	public void testMatchesDepthFirstExactly(){
+		for(int trial = 0; trial < 300; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.5 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			boolean hasPlank = r.nextBoolean();
+			Path expected = new Maze(n, layout, start, end).shortestPath(hasPlank);
+			Maze m = new Maze(n, layout, start, end);
+			m.setEngine(Maze.Engine.ITERATIVE_DEPTH_FIRST);
+			Path found = m.shortestPath(hasPlank);
+			assertEquals(expected, found);
+			if(!found.isSameDistance(Integer.MAX_VALUE))
+				assertTrue(TestLayouts.pathIsValid(found, start, end, layout));
+		}
+	}
+
+	/**
+	 * Finds exactly the same path as the recursive search along a serpentine corridor, with and without the plank
+	 */
+	@Test
+	public void testMatchesDepthFirstOnSerpentine(){
+		int n = 12;
+		serpentineLayout(n);
+		for(boolean hasPlank : new boolean[]{false, true}){
+			Path expected = new Maze(n, layout, new Pillar(0,0), new Pillar(0, n - 1)).shortestPath(hasPlank);
+			Path found = new IterativeDepthFirstSolver(n, layout, new Pillar(0,0), new Pillar(0, n - 1)).shortestPath(hasPlank);
+			assertEquals(expected, found);
+		}
+	}
+
+	/**
+	 * Stress test, a 300 x 300 serpentine corridor is a path of 89999 steps,
+	 * which the recursive search cannot follow on a default thread stack
+	 */
+	@Test
+	public void stressTestSerpentine(){
+		int n = 300;
+		serpentineLayout(n);
+		Pillar end = new Pillar(0, n - 1);
+		IterativeDepthFirstSolver solver = new IterativeDepthFirstSolver(n, new PlankGrid(n, layout), new Pillar(0,0), end);
+		Path found = solver.shortestPath(false);
+		assertTrue(found.isSameDistance(n * n - 1));
+		assertTrue(TestLayouts.pathIsValid(found, new Pillar(0,0), end, layout));
+		assertEquals(n * n - 1, solver.getExpandedStates());
+	}
+
+	/**
+	 * Structural Basis
+	 * Solvers sharing one scratch, on grids of different sizes, find what fresh solvers find
+	 */
+	@Test
+	public void testSharedScratch(){
+		SearchScratch scratch = new SearchScratch();
+		assertEquals(0, scratch.getLength());
+		for(int trial = 0; trial < 60; trial++){
+			int n = 2 + r.nextInt(4);
+			layout = TestLayouts.randomLayout(n, 0.6, r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			Path expected = new IterativeDepthFirstSolver(n, layout, start, end).shortestPath(true);
+			assertEquals(expected, new IterativeDepthFirstSolver(n, layout, start, end, scratch).shortestPath(true));
+			assertEquals(n, scratch.getLength());
+		}
+		try{
+			new IterativeDepthFirstSolver(3, layout, new Pillar(0,0), new Pillar(2,2), null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+}
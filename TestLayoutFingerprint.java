@@ -0,0 +1,184 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Testing on LayoutFingerprint
+ * @author gmh73
+ *
+ */
+public class TestLayoutFingerprint {
+	private Random r;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+	}
+
+	/**
+	 * Bad data, null layout and bad size
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			LayoutFingerprint.of(3, null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			LayoutFingerprint.of(0, new HashSet<Plank>());
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * The same planks give the same fingerprint whatever kind of set holds them,
+	 * and a different size or one plank more gives a different one
+	 */
+	@Test
+	public void testEquality(){
+		Set<Plank> layout = new HashSet<Plank>();
+		layout.add(new Plank(new Pillar(0,0), new Pillar(1,0)));
+		layout.add(new Plank(new Pillar(1,1), new Pillar(1,2)));
+		LayoutFingerprint f = LayoutFingerprint.of(3, layout);
+		assertEquals(f, LayoutFingerprint.of(3, new PlankGrid(3, layout)));
+		assertEquals(f, LayoutFingerprint.of(3, new PlankSet(3, layout)));
+		assertEquals(f.hashCode(), LayoutFingerprint.of(3, new PlankGrid(3, layout)).hashCode());
+		assertEquals(f, new LayoutFingerprint(f.getHigh(), f.getLow()));
+		assertEquals(32, f.toString().length());
+		assertFalse(f.equals(LayoutFingerprint.of(4, layout)));
+		assertFalse(f.equals(null));
+		layout.add(new Plank(new Pillar(2,1), new Pillar(2,2)));
+		assertFalse(f.equals(LayoutFingerprint.of(3, layout)));
+		assertFalse(LayoutFingerprint.of(3, new HashSet<Plank>()).equals(LayoutFingerprint.of(4, new HashSet<Plank>())));
+		assertEquals(LayoutFingerprint.of(3, new HashSet<Plank>()), LayoutFingerprint.empty(3));
+	}
+
+	/**
+	 * Structural Basis
+	 * Toggling a plank in and out again gives back the fingerprint it started from
+	 */
+	@Test
+	public void testToggle(){
+		Plank p = new Plank(new Pillar(1,0), new Pillar(0,0));
+		Set<Plank> layout = new HashSet<Plank>();
+		LayoutFingerprint f = LayoutFingerprint.empty(3).toggle(p);
+		layout.add(p);
+		assertEquals(LayoutFingerprint.of(3, layout), f);
+		assertEquals(LayoutFingerprint.empty(3), f.toggle(new Plank(new Pillar(0,0), new Pillar(1,0))));
+		try{
+			f.toggle(null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+
+	/**
+	 * PlankGrid, PlankSet and WeightedLayout keep their fingerprints equal to one worked out from scratch
+	 * through random adds, removes, iterator removes and clears
+	 */
+	@Test
+	public void testIncrementalMatchesScratch(){
+		int n = 6;
+		Set<Plank> expected = new HashSet<Plank>();
+		PlankGrid grid = new PlankGrid(n);
+		PlankSet set = new PlankSet(n);
+		WeightedLayout weighted = new WeightedLayout(n, 1);
+		List<Set<Plank>> layouts = Arrays.<Set<Plank>>asList(grid, set, weighted);
+		LayoutFingerprint toggled = LayoutFingerprint.empty(n);
+		for(int step = 0; step < 2000; step++){
+			int x = r.nextInt(n);
+			int y = r.nextInt(n - 1);
+			Plank p = r.nextBoolean() ? new Plank(new Pillar(x,y), new Pillar(x,y + 1)) : new Plank(new Pillar(y,x), new Pillar(y + 1,x));
+			int action = r.nextInt(100);
+			if(action == 0){
+				expected.clear();
+				toggled = LayoutFingerprint.empty(n);
+				for(Set<Plank> layout : layouts)
+					layout.clear();
+			}else if(action < 5 && !expected.isEmpty()){
+				//Remove the first plank of each through its iterator
+				for(Set<Plank> layout : layouts){
+					Iterator<Plank> i = layout.iterator();
+					Plank first = i.next();
+					i.remove();
+					if(layout == grid){
+						expected.remove(first);
+						toggled = toggled.toggle(first);
+					}
+				}
+			}else if(r.nextBoolean()){
+				if(expected.add(p))
+					toggled = toggled.toggle(p);
+				for(Set<Plank> layout : layouts)
+					layout.add(p);
+			}else{
+				if(expected.remove(p))
+					toggled = toggled.toggle(p);
+				for(Set<Plank> layout : layouts)
+					layout.remove(p);
+			}
+			LayoutFingerprint scratch = LayoutFingerprint.of(n, expected);
+			assertEquals(scratch, toggled);
+			assertEquals(scratch, grid.getFingerprint());
+			assertEquals(scratch, weighted.getFingerprint());
+			assertEquals(LayoutFingerprint.of(n, new HashSet<Plank>(set)), set.getFingerprint());
+		}
+	}
+
+	/**
+	 * Stress test, every layout that differs from a base layout by one or two planks has its own fingerprint
+	 */
+	@Test
+	public void stressTestNearbyLayoutsDiffer(){
+		int n = 8;
+		PlankGrid all = new PlankGrid(n);
+		for(int x = 0; x < n; x++){
+			for(int y = 0; y < n; y++){
+				if(x + 1 < n)
+					all.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+				if(y + 1 < n)
+					all.add(new Plank(new Pillar(x,y), new Pillar(x,y + 1)));
+			}
+		}
+		Plank[] planks = all.toArray(new Plank[0]);
+		Set<Plank> base = new HashSet<Plank>();
+		for(Plank p : planks)
+			if(r.nextBoolean())
+				base.add(p);
+		Set<LayoutFingerprint> seen = new HashSet<LayoutFingerprint>();
+		Set<Integer> lows = new HashSet<Integer>();
+		for(int i = 0; i < planks.length; i++){
+			for(int j = i; j < planks.length; j++){
+				//j == i changes just the one plank
+				Set<Plank> layout = new HashSet<Plank>(base);
+				if(!layout.remove(planks[i]))
+					layout.add(planks[i]);
+				if(j != i && !layout.remove(planks[j]))
+					layout.add(planks[j]);
+				LayoutFingerprint f = LayoutFingerprint.of(n, layout);
+				assertTrue(seen.add(f));
+				lows.add(f.hashCode());
+			}
+		}
+		//The hash codes should be nearly as spread out as the fingerprints
+		assertTrue(lows.size() > seen.size() - 5);
+	}
+}
@@ -0,0 +1,120 @@
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Fixtures shared by the tests: seeded random layouts, and checks that a path found by a solver
+ * really walks from the start to the end of its layout
+ * @author gmh73
+ *
+ */
+final class TestLayouts {
+	/* The seed of every test's Random, so a failing layout can be built again*/
+	static final long SEED = 293;
+
+	/**
+	 * Not to be constructed, every method is static
+	 */
+	private TestLayouts(){
+	}
+
+	/**
+	 * Makes the Random the tests build their layouts and queries from
+	 * @return	returns a new Random seeded with SEED
+	 */
+	static Random random(){
+		return new Random(SEED);
+	}
+
+	/**
+	 * Builds a layout of random planks, each possible plank is added with probability density
+	 * @param n	the length of the grid
+	 * @param density	the chance each plank is in the layout
+	 * @param r	where the randomness comes from
+	 * @return	returns a new set of planks on an n x n grid
+	 */
+	static Set<Plank> randomLayout(int n, double density, Random r){
+		Set<Plank> layout = new HashSet<Plank>();
+		for(int x = 0; x < n; x++){
+			for(int y = 0; y < n; y++){
+				if(x + 1 < n && r.nextDouble() < density)
+					layout.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+				if(y + 1 < n && r.nextDouble() < density)
+					layout.add(new Plank(new Pillar(x,y), new Pillar(x,y + 1)));
+			}
+		}
+		return layout;
+	}
+
+	/**
+	 * Goes through a path and makes sure it makes it step by step to the end,
+	 * only leaving the layout on the added plank
+	 * @param path	a found path
+	 * @param start	the start pillar
+	 * @param end	the end pillar
+	 * @param layout	the layout the path was found on
+	 * @return	returns true if path is a valid path from start to end
+	 */
+	static boolean pathIsValid(Path path, Pillar start, Pillar end, Set<Plank> layout){
+		List<Pillar> ppath = path.new TestButton().getPPath();
+		Iterator<Pillar> i = ppath.iterator();
+		Pillar prev = i.next();
+		if(!prev.equals(start))
+			return false;
+		while(i.hasNext()){
+			Pillar curr = i.next();
+			Plank step = new Plank(prev, curr);
+			if(curr.shortestDistanceTo(prev) != 1)
+				return false;
+			if(!layout.contains(step) && !step.equals(path.getPlank()))
+				return false;
+			prev = curr;
+		}
+		return prev.equals(end) && (path.getPlank() == null || !layout.contains(path.getPlank()));
+	}
+
+	/**
+	 * Goes through a path and makes sure it makes it step by step to the end,
+	 * leaving the layout only on its added planks, each laid once where it is used
+	 * @param path	a found path
+	 * @param start	the start pillar
+	 * @param end	the end pillar
+	 * @param layout	the layout the path was found on
+	 * @param maxPlanks	the number of extra planks the path may use
+	 * @return	returns true if path is a valid path from start to end
+	 */
+	static boolean pathIsValid(Path path, Pillar start, Pillar end, Set<Plank> layout, int maxPlanks){
+		List<Pillar> ppath = path.new TestButton().getPPath();
+		List<Plank> planks = path.getPlanks();
+		Iterator<Pillar> i = ppath.iterator();
+		Pillar prev = i.next();
+		if(!prev.equals(start) || planks.size() > maxPlanks)
+			return false;
+		int laid = 0;
+		while(i.hasNext()){
+			Pillar curr = i.next();
+			Plank step = new Plank(prev, curr);
+			if(curr.shortestDistanceTo(prev) != 1)
+				return false;
+			if(!layout.contains(step)){
+				if(laid == planks.size() || !step.equals(planks.get(laid)))
+					return false;
+				laid++;
+			}
+			prev = curr;
+		}
+		return prev.equals(end) && laid == planks.size();
+	}
+
+	/**
+	 * Checks that a path never passes the same pillar twice
+	 * @param path	a found path
+	 * @return	returns true if every pillar of path is different
+	 */
+	static boolean isSimple(Path path){
+		List<Pillar> ppath = path.new TestButton().getPPath();
+		return new HashSet<Pillar>(ppath).size() == ppath.size();
+	}
+}
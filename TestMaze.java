@@ -1,4 +1,5 @@
 import static org.junit.Assert.*;
+import java.lang.management.ManagementFactory;
 import java.util.Random;
 
 import java.util.HashSet;
@@ -6,6 +7,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.Before;
 
@@ -337,6 +339,22 @@ public class TestMaze {
 		m.resetShortestPath();
 		assertEquals(new Pillar(0,0), t.getCurPil());
 		assertEquals(new Path(), t.getCurPath());
+		assertTrue(t.getShortest().isSameDistance(Integer.MAX_VALUE));
+	}
+	
+	/**
+	 * Structured Basis
+	 * Asking the same maze again gives the same answer, even after a search with the plank
+	 */
+	@Test
+	public void testRepeatedQueries(){
+		Path first = m.shortestPath(false);
+		assertEquals(expectedShortest, first);
+		Path withPlank = m.shortestPath(true);
+		assertEquals(first, m.shortestPath(false));
+		assertEquals(withPlank, m.shortestPath(true));
+		m.resetShortestPath();
+		assertTrue(t.getShortest().isSameDistance(Integer.MAX_VALUE));
 	}
 	
 	
@@ -579,4 +597,311 @@ public class TestMaze {
 		t.testCheckInitInput(-1, layout);
 		t.testCheckInitInput(0, layout);
 	}
+	
+	/**
+	 * Structured Basis
+	 * Engine defaults to depth first and can be switched
+	 */
+	@Test
+	public void testEngine(){
+		assertEquals(Maze.Engine.DEPTH_FIRST, m.getEngine());
+		m.setEngine(Maze.Engine.BREADTH_FIRST);
+		assertEquals(Maze.Engine.BREADTH_FIRST, m.getEngine());
+		assertTrue(expectedShortest.isSameDistance(m.shortestPath(false)));
+	}
+	
+	/**
+	 * Bad data, engine is null
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testSetEngineNull(){
+		m.setEngine(null);
+	}
+	
+	/**
+	 * Structured Basis
+	 * Move order defaults to the fixed order and can be switched, bad data when null
+	 */
+	@Test
+	public void testMoveOrder(){
+		assertEquals(Maze.MoveOrder.FIXED, m.getMoveOrder());
+		m.setMoveOrder(Maze.MoveOrder.TOWARD_END);
+		assertEquals(Maze.MoveOrder.TOWARD_END, m.getMoveOrder());
+		assertTrue(expectedShortest.isSameDistance(m.shortestPath(false)));
+		try{
+			m.setMoveOrder(null);
+			fail();
+		}catch(NullPointerException e){
+		}
+	}
+	
+	/**
+	 * Every move order finds a valid path of the breadth first length, and the fixed order finds
+	 * the same path as before
+	 */
+	@Test
+	public void testMoveOrdersSameDistance(){
+		r = TestLayouts.random();
+		for(int trial = 0; trial < 40; trial++){
+			n = 2 + r.nextInt(6);
+			resetLayout();
+			layout = TestLayouts.randomLayout(n, 0.6, r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			for(boolean hasPlank : new boolean[]{false, true}){
+				Path fixed = new Maze(n, layout, start, end).shortestPath(hasPlank);
+				int expected = new BreadthFirstSolver(n, layout, start, end).shortestPath(hasPlank).getDistance();
+				assertEquals(expected, fixed.getDistance());
+				for(Maze.MoveOrder order : Maze.MoveOrder.values()){
+					m = new Maze(n, layout, start, end);
+					m.setMoveOrder(order);
+					Path found = m.shortestPath(hasPlank);
+					assertEquals(expected, found.getDistance());
+					if(order == Maze.MoveOrder.FIXED)
+						assertEquals(fixed, found);
+					else if(expected != Integer.MAX_VALUE)
+						assertTrue(pathIsValid(found, end));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * On an open grid with the end behind the start, ordering toward the end finds the first
+	 * path straight away, while the fixed order goes round the grid first
+	 */
+	@Test
+	public void testMoveOrderFirstSolution(){
+		n = 6;
+		resetLayout();
+		for(int x = 0; x < n; x++){
+			for(int y = 0; y < n; y++){
+				if(x + 1 < n)
+					layout.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+				if(y + 1 < n)
+					layout.add(new Plank(new Pillar(x,y), new Pillar(x,y + 1)));
+			}
+		}
+		Pillar start = new Pillar(3,3);
+		Pillar end = new Pillar(0,0);
+		m = new Maze(n, layout, start, end);
+		assertEquals(6, m.shortestPath(false).getDistance());
+		SearchStats fixed = m.getStats();
+		int fixedFirst = fixed.getExpandedBeforeFirst();
+		for(Maze.MoveOrder order : new Maze.MoveOrder[]{Maze.MoveOrder.TOWARD_END, Maze.MoveOrder.BY_DISTANCE}){
+			Maze ordered = new Maze(n, layout, start, end);
+			ordered.setMoveOrder(order);
+			assertEquals(6, ordered.shortestPath(true).getDistance());
+			//One pillar is expanded for each step of a path straight to the end
+			assertEquals(6, ordered.getStats().getExpandedBeforeFirst());
+			assertEquals(6, ordered.getStats().getExpanded());
+			assertEquals(1, ordered.getStats().getSolutions());
+			assertTrue(6 < fixedFirst);
+		}
+		//The counters start again on every query
+		m.shortestPath(false);
+		assertEquals(fixedFirst, m.getStats().getExpandedBeforeFirst());
+	}
+	
+	/**
+	 * Seeding the bound with a beam search finds the same path as without, reports how good the
+	 * seed was, and bad data when the width is negative
+	 */
+	@Test
+	public void testSeededBound(){
+		r = TestLayouts.random();
+		for(int trial = 0; trial < 40; trial++){
+			n = 2 + r.nextInt(6);
+			resetLayout();
+			layout = TestLayouts.randomLayout(n, 0.6, r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			for(boolean hasPlank : new boolean[]{false, true}){
+				m = new Maze(n, layout, start, end);
+				Path plain = m.shortestPath(hasPlank);
+				assertEquals(-1, m.getStats().getSeedLength());
+				assertEquals(plain.getDistance(), m.getStats().getResultLength());
+				for(int width : new int[]{1, 8}){
+					Maze seeded = new Maze(n, layout, start, end);
+					seeded.setSeedWidth(width);
+					assertEquals(width, seeded.getSeedWidth());
+					assertEquals(plain, seeded.shortestPath(hasPlank));
+					SearchStats stats = seeded.getStats();
+					assertTrue(stats.getExpanded() <= m.getStats().getExpanded());
+					if(plain.getDistance() == Integer.MAX_VALUE)
+						assertEquals(-1, stats.getSeedExcess());
+					else if(stats.getSeedLength() != Integer.MAX_VALUE)
+						assertEquals(stats.getSeedLength() - plain.getDistance(), stats.getSeedExcess());
+				}
+			}
+		}
+		try{
+			m.setSeedWidth(-1);
+			fail();
+		}catch(IndexOutOfBoundsException e){
+		}
+	}
+	
+	/**
+	 * IDA* finds exactly the path of the depth first search, its limits start at the Manhattan
+	 * distance and grow by two each iteration up to the length of the path, unless the end cannot be reached
+	 */
+	@Test
+	public void testIdaStar(){
+		r = TestLayouts.random();
+		for(int trial = 0; trial < 60; trial++){
+			n = 2 + r.nextInt(6);
+			resetLayout();
+			layout = TestLayouts.randomLayout(n, 0.6, r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			for(boolean hasPlank : new boolean[]{false, true}){
+				Path expected = new Maze(n, layout, start, end).shortestPath(hasPlank);
+				m = new Maze(n, layout, start, end);
+				m.setEngine(Maze.Engine.IDA_STAR);
+				assertEquals(expected, m.shortestPath(hasPlank));
+				//Asked again it starts over
+				assertEquals(expected, m.shortestPath(hasPlank));
+				SearchStats stats = m.getStats();
+				assertEquals(expected.getDistance(), stats.getResultLength());
+				//An end in another component is found before any iteration
+				if(stats.getIterations() == 0){
+					assertEquals(Integer.MAX_VALUE, expected.getDistance());
+					continue;
+				}
+				assertEquals(start.shortestDistanceTo(end), stats.getIterationLimit(0));
+				int total = 0;
+				for(int i = 0; i < stats.getIterations(); i++){
+					if(i > 0)
+						assertEquals(stats.getIterationLimit(i - 1) + 2, stats.getIterationLimit(i));
+					total += stats.getIterationExpanded(i);
+				}
+				assertEquals(stats.getExpanded(), total);
+				if(expected.getDistance() != Integer.MAX_VALUE)
+					assertEquals(expected.getDistance(), stats.getIterationLimit(stats.getIterations() - 1));
+			}
+		}
+		try{
+			m.getStats().getIterationLimit(m.getStats().getIterations());
+			fail();
+		}catch(IndexOutOfBoundsException e){
+		}
+	}
+	
+	/**
+	 * IDA* finds an end it cannot reach before its first iteration, instead of deepening until every
+	 * path from the start has been searched
+	 */
+	@Test(timeout = 5000)
+	public void testIdaStarUnreachable(){
+		n = 40;
+		PlankGrid grid = new PlankGrid(n);
+		for(int x = 0; x < n; x++){
+			for(int y = 0; y < n; y++){
+				//Column n - 1 is cut off from the rest, and joined to nothing but itself
+				if(x + 1 < n - 1)
+					grid.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+				if(y + 1 < n)
+					grid.add(new Plank(new Pillar(x,y), new Pillar(x,y + 1)));
+			}
+		}
+		m = new Maze(n, grid);
+		m.setEngine(Maze.Engine.IDA_STAR);
+		assertTrue(m.shortestPath(false).isSameDistance(Integer.MAX_VALUE));
+		assertEquals(0, m.getStats().getIterations());
+		assertEquals(0, m.getStats().getExpanded());
+		//With the plank the gap is crossed, and the path is the one the depth first search finds
+		Path found = m.shortestPath(true);
+		assertEquals(2 * (n - 1), found.getDistance());
+		m.setEngine(Maze.Engine.DEPTH_FIRST);
+		assertEquals(m.shortestPath(true), found);
+	}
+	
+	/**
+	 * Stress test, IDA* on a grid of a million pillars with one detour, in two iterations without
+	 * the plank and one with it. The search recurses once per pillar of a path two thousand long,
+	 * so it runs on a thread with a stack big enough for that whatever the JVM's default
+	 */
+	@Test
+	public void stressTestIdaStarLargeGrid() throws Exception{
+		n = 1000;
+		PlankGrid grid = new PlankGrid(n);
+		for(int x = 0; x + 1 < n; x++)
+			if(x != n / 2)
+				grid.add(new Plank(new Pillar(x,0), new Pillar(x + 1,0)));
+		for(int y = 0; y + 1 < n; y++)
+			grid.add(new Plank(new Pillar(n - 1,y), new Pillar(n - 1,y + 1)));
+		//The way round the gap in row 0 goes through row 1
+		grid.add(new Plank(new Pillar(n / 2,0), new Pillar(n / 2,1)));
+		grid.add(new Plank(new Pillar(n / 2,1), new Pillar(n / 2 + 1,1)));
+		grid.add(new Plank(new Pillar(n / 2 + 1,1), new Pillar(n / 2 + 1,0)));
+		m = new Maze(n, grid);
+		m.setEngine(Maze.Engine.IDA_STAR);
+		final Path[] found = new Path[2];
+		final int[] iterations = new int[2];
+		final Throwable[] failure = new Throwable[1];
+		Thread search = new Thread(null, new Runnable(){
+			@Override
+			public void run(){
+				try{
+					found[0] = m.shortestPath(false);
+					iterations[0] = m.getStats().getIterations();
+					found[1] = m.shortestPath(true);
+					iterations[1] = m.getStats().getIterations();
+				}catch(Throwable t){
+					failure[0] = t;
+				}
+			}
+		}, "ida-star", 64L << 20);
+		search.start();
+		search.join();
+		assertNull(failure[0]);
+		assertEquals(2 * (n - 1) + 2, found[0].getDistance());
+		assertTrue(pathIsValid(found[0], new Pillar(n - 1,n - 1)));
+		assertEquals(2, iterations[0]);
+		assertEquals(2 * (n - 1), found[1].getDistance());
+		assertEquals(1, iterations[1]);
+	}
+	
+	/**
+	 * Stress test
+	 * The depth first search on a HashSet layout allocates nothing per expansion, plank steps
+	 * included: a query that expands many pillars allocates no more than one that expands none,
+	 * apart from the paths it keeps
+	 */
+	@Test
+	public void stressTestDepthFirstAllocatesNothing(){
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+		n = 7;
+		layout = new HashSet<Plank>();
+		for(int x = 0; x < n; x++){
+			for(int y = 0; y < n; y++){
+				//Walls after columns 1 and 4 with a way round only in the last row, the plank crosses one
+				if(x + 1 < n && (x % 3 != 1 || y == n - 1))
+					layout.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+				if(y + 1 < n)
+					layout.add(new Plank(new Pillar(x,y), new Pillar(x,y + 1)));
+			}
+		}
+		Maze busy = new Maze(n, layout, new Pillar(0,0), new Pillar(n - 1,0));
+		Maze idle = new Maze(n, layout, new Pillar(0,0), new Pillar(0,0));
+		long tid = Thread.currentThread().getId();
+		long busyBytes = 0;
+		long idleBytes = 0;
+		//The first rounds warm up the JIT, the last one is measured
+		for(int round = 0; round < 5; round++){
+			long before = threads.getThreadAllocatedBytes(tid);
+			busy.shortestPath(true);
+			busyBytes = threads.getThreadAllocatedBytes(tid) - before;
+			before = threads.getThreadAllocatedBytes(tid);
+			idle.shortestPath(true);
+			idleBytes = threads.getThreadAllocatedBytes(tid) - before;
+		}
+		assertTrue(busy.getStats().getExpanded() > 10000);
+		//Any object per expansion would cost at least 16 bytes each
+		assertTrue(busyBytes - idleBytes < 2 * busy.getStats().getExpanded());
+	}
 }
@@ -0,0 +1,275 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing on MazeDefinition, by comparing its queries with fresh Mazes, alone and from many threads
+ * @author gmh73
+ *
+ */
+public class TestMazeDefinition {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Bad data, n < 1, null layout, null engine
+	 */
+	@Test
+	public void testConstructorBadData(){
+		try{
+			new MazeDefinition(0, layout);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new MazeDefinition(3, null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			new MazeDefinition(3, layout).shortestPath(new Pillar(0,0), new Pillar(2,2), true, null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * The layout is copied, and can be read but not changed
+	 */
+	@Test
+	public void testLayoutIsCopied(){
+		layout.add(new Plank(new Pillar(0,0), new Pillar(1,0)));
+		MazeDefinition d = new MazeDefinition(3, layout);
+		layout.add(new Plank(new Pillar(1,0), new Pillar(2,0)));
+		assertEquals(3, d.getLength());
+		assertEquals(1, d.getLayout().size());
+		assertTrue(d.getLayout().contains(new Plank(new Pillar(1,0), new Pillar(0,0))));
+		try{
+			d.getLayout().add(new Plank(new Pillar(1,0), new Pillar(2,0)));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(UnsupportedOperationException ue){
+			//We want this.
+		}
+		//Only (0,0) to (1,0) is there, so (2,0) needs the plank
+		assertTrue(d.shortestPath(new Pillar(0,0), new Pillar(2,0), false).isSameDistance(Integer.MAX_VALUE));
+		assertTrue(d.shortestPath(new Pillar(0,0), new Pillar(2,0), true).isSameDistance(2));
+	}
+
+	/**
+	 * Depth first queries return their scratch to the definition's pool, which never holds more
+	 * than one set per processor, and releaseScratch empties it
+	 */
+	@Test
+	public void testScratchIsPooled() throws Exception{
+		layout = TestLayouts.randomLayout(4, 0.6, r);
+		final MazeDefinition d = new MazeDefinition(4, layout);
+		MazeDefinition.TestButton t = d.new TestButton();
+		assertTrue(t.getScratch().isEmpty());
+		final Path expected = d.shortestPath(new Pillar(0,0), new Pillar(3,3), true);
+		assertEquals(1, t.getScratch().size());
+		SearchScratch used = t.getScratch().peek();
+		assertEquals(4, used.getLength());
+		assertEquals(expected, d.shortestPath(new Pillar(0,0), new Pillar(3,3), true));
+		assertSame(used, t.getScratch().peek());
+		assertEquals(1, t.getScratch().size());
+		assertTrue(new MazeDefinition(4, layout).new TestButton().getScratch().isEmpty());
+		//Many threads at once make more sets than the pool keeps
+		int threads = 4 * Runtime.getRuntime().availableProcessors();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<Path>> results = new ArrayList<Future<Path>>();
+		for(int i = 0; i < 10 * threads; i++){
+			results.add(pool.submit(new Callable<Path>(){
+				@Override
+				public Path call(){
+					return d.shortestPath(new Pillar(0,0), new Pillar(3,3), true);
+				}
+			}));
+		}
+		for(Future<Path> result : results)
+			assertEquals(expected, result.get());
+		pool.shutdown();
+		assertTrue(t.getScratch().size() <= Runtime.getRuntime().availableProcessors());
+		d.releaseScratch();
+		assertTrue(t.getScratch().isEmpty());
+		assertEquals(expected, d.shortestPath(new Pillar(0,0), new Pillar(3,3), true));
+	}
+
+	/**
+	 * A weighted layout is copied with its costs, so the DIJKSTRA engine finds the cheapest path
+	 * and its cost, and a plain layout costs 1 a step
+	 */
+	@Test
+	public void testWeightedLayoutKeepsCosts(){
+		int n = 6;
+		WeightedLayout weights = new WeightedLayout(n, 3);
+		for(Plank p : TestLayouts.randomLayout(n, 0.7, r))
+			weights.add(p, 1 + r.nextInt(9));
+		MazeDefinition d = new MazeDefinition(n, weights);
+		Pillar start = new Pillar(0,0);
+		Pillar end = new Pillar(n - 1,n - 1);
+		DijkstraSolver solver = new DijkstraSolver(weights, start, end);
+		Path expected = solver.shortestPath(true);
+		weights.clear();
+		Path found = d.shortestPath(start, end, true, Maze.Engine.DIJKSTRA);
+		assertEquals(expected, found);
+		assertEquals(solver.getPathCost(), d.pathCost(found));
+		d = new MazeDefinition(n, new HashSet<Plank>(d.getLayout()));
+		found = d.shortestPath(start, end, true, Maze.Engine.DIJKSTRA);
+		assertTrue(found.isSameDistance(d.pathCost(found)));
+	}
+
+	/**
+	 * Every engine answers like a fresh Maze, the depth first and breadth first engines with exactly the same path,
+	 * and the same definition gives the same answers when asked again
+	 */
+	@Test
+	public void testMatchesMaze(){
+		for(int trial = 0; trial < 100; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.5 * r.nextDouble(), r);
+			MazeDefinition d = new MazeDefinition(n, layout);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			boolean hasPlank = r.nextBoolean();
+			Path expected = new Maze(n, layout, start, end).shortestPath(hasPlank);
+			assertEquals(expected, d.shortestPath(start, end, hasPlank));
+			for(Maze.Engine engine : Maze.Engine.values()){
+				Path found = d.shortestPath(start, end, hasPlank, engine);
+				if(engine == Maze.Engine.DISTANCE_FIELD
+						|| engine == Maze.Engine.A_STAR || engine == Maze.Engine.BIDIRECTIONAL
+						|| engine == Maze.Engine.DIJKSTRA)
+					assertTrue(expected.isSameDistance(found));
+				else
+					assertEquals(expected, found);
+			}
+			assertEquals(expected, d.shortestPath(start, end, hasPlank));
+		}
+	}
+
+	/**
+	 * Stress test, many threads query one definition at once and get what a fresh Maze gets
+	 */
+	@Test
+	public void stressTestConcurrentQueries() throws Exception{
+		final int n = 7;
+		layout = TestLayouts.randomLayout(n, 0.7, r);
+		final MazeDefinition d = new MazeDefinition(n, layout);
+		List<Pillar[]> queries = new ArrayList<Pillar[]>();
+		List<Path> expected = new ArrayList<Path>();
+		for(int i = 0; i < 300; i++){
+			Pillar[] q = {new Pillar(r.nextInt(n), r.nextInt(n)), new Pillar(r.nextInt(n), r.nextInt(n))};
+			queries.add(q);
+			expected.add(new Maze(n, layout, q[0], q[1]).shortestPath(true));
+		}
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		List<Future<Path>> results = new ArrayList<Future<Path>>();
+		for(final Pillar[] q : queries){
+			results.add(threads.submit(new Callable<Path>(){
+				public Path call(){
+					return d.shortestPath(q[0], q[1], true);
+				}
+			}));
+		}
+		for(int i = 0; i < queries.size(); i++)
+			assertEquals(expected.get(i), results.get(i).get());
+		threads.shutdown();
+	}
+
+	/**
+	 * Bad data, null batch, null pair, null pool and out of maze pillars
+	 */
+	@Test
+	public void testShortestPathsBadData(){
+		MazeDefinition d = new MazeDefinition(3, layout);
+		List<PillarPair> pairs = new ArrayList<PillarPair>();
+		try{
+			d.shortestPaths(null, true);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			d.shortestPaths(pairs, true, null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		pairs.add(null);
+		try{
+			d.shortestPaths(pairs, true);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		pairs.set(0, new PillarPair(new Pillar(0,0), new Pillar(0,3)));
+		try{
+			d.shortestPaths(pairs, true);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		pairs.clear();
+		assertTrue(d.shortestPaths(pairs, true).isEmpty());
+	}
+
+	/**
+	 * Every path in a batch, with starts repeated, is in the order asked, runs from its start to its end,
+	 * and is as short as the path a fresh Maze finds
+	 */
+	@Test
+	public void testShortestPathsMatchMaze(){
+		ForkJoinPool pool = new ForkJoinPool(3);
+		for(int trial = 0; trial < 50; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.5 * r.nextDouble(), r);
+			MazeDefinition d = new MazeDefinition(n, layout);
+			boolean hasPlank = r.nextBoolean();
+			List<PillarPair> pairs = new ArrayList<PillarPair>();
+			for(int i = 0; i < 20; i++){
+				//Few starts, so most of them are shared
+				Pillar start = new Pillar(r.nextInt(2), r.nextInt(2) * (n - 1));
+				pairs.add(new PillarPair(start, new Pillar(r.nextInt(n), r.nextInt(n))));
+			}
+			List<Path> found = d.shortestPaths(pairs, hasPlank, pool);
+			assertEquals(pairs.size(), found.size());
+			for(int i = 0; i < pairs.size(); i++){
+				PillarPair q = pairs.get(i);
+				Path expected = new Maze(n, layout, q.getStart(), q.getEnd()).shortestPath(hasPlank);
+				Path path = found.get(i);
+				assertTrue(expected.isSameDistance(path));
+				if(!path.isSameDistance(Integer.MAX_VALUE)){
+					List<Pillar> ppath = path.new TestButton().getPPath();
+					assertEquals(q.getStart(), ppath.get(0));
+					assertEquals(q.getEnd(), ppath.get(ppath.size() - 1));
+				}
+			}
+			assertEquals(found, d.shortestPaths(pairs, hasPlank));
+		}
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,109 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+
+/**
+ * Testing on ParallelDepthFirstSolver, mostly by checking it finds exactly what the recursive search in Maze finds
+ * @author gmh73
+ *
+ */
+public class TestParallelDepthFirstSolver {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Structural Basis
+	 * Start and end are the same pillar, and the end cannot be reached
+	 */
+	@Test
+	public void testTrivialCases(){
+		Path found = new ParallelDepthFirstSolver(3, layout, new Pillar(1,1), new Pillar(1,1)).shortestPath(true);
+		Path expected = new Path();
+		expected.addPillar(new Pillar(1,1));
+		assertEquals(expected, found);
+		found = new ParallelDepthFirstSolver(3, layout).shortestPath(true);
+		assertTrue(found.isSameDistance(Integer.MAX_VALUE));
+		assertEquals(new Maze(3, layout).shortestPath(true), found);
+	}
+
+	/**
+	 * Bad data, null pool, split depth < 1 and out of maze pillars
+	 */
+	@Test
+	public void testConstructorBadData(){
+		try{
+			new ParallelDepthFirstSolver(3, layout, new Pillar(0,0), new Pillar(2,2), null, 3);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			new ParallelDepthFirstSolver(3, layout, new Pillar(0,0), new Pillar(2,2), new ForkJoinPool(1), 0);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new ParallelDepthFirstSolver(3, layout, new Pillar(0,0), new Pillar(3,0));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Finds exactly the same path, plank included, as the recursive search on many small random layouts,
+	 * whatever the number of threads and the split depth
+	 */
+	@Test
+	public void testMatchesDepthFirstExactly(){
+		ForkJoinPool[] pools = {new ForkJoinPool(1), new ForkJoinPool(2), new ForkJoinPool(4)};
+		for(int trial = 0; trial < 200; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.5 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			boolean hasPlank = r.nextBoolean();
+			Path expected = new Maze(n, layout, start, end).shortestPath(hasPlank);
+			for(ForkJoinPool pool : pools){
+				Path found = new ParallelDepthFirstSolver(n, layout, start, end, pool, 1 + r.nextInt(6)).shortestPath(hasPlank);
+				assertEquals(expected, found);
+				if(!found.isSameDistance(Integer.MAX_VALUE))
+					assertTrue(TestLayouts.pathIsValid(found, start, end, layout));
+			}
+		}
+		for(ForkJoinPool pool : pools)
+			pool.shutdown();
+	}
+
+	/**
+	 * Stress test, an open 7 x 7 grid where many paths tie, through Maze's engine switch
+	 */
+	@Test
+	public void stressTestTies(){
+		int n = 7;
+		layout = TestLayouts.randomLayout(n, 0.9, r);
+		Path expected = new Maze(n, layout).shortestPath(true);
+		for(int i = 0; i < 20; i++){
+			Maze m = new Maze(n, layout);
+			m.setEngine(Maze.Engine.PARALLEL_DEPTH_FIRST);
+			assertEquals(expected, m.shortestPath(true));
+		}
+	}
+}
@@ -1,5 +1,6 @@
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -307,6 +308,40 @@ public class TestPath {
 		assertEquals(null, p.getPlank());
 	}
 	
+	/**
+	 * Structural Basis, Good data
+	 * Planks are added in order, removed last first, and setPlank starts over with one plank
+	 */
+	@Test
+	public void testAddAndGetPlanks(){
+		Plank added1 = new Plank(new Pillar(0,0), new Pillar(1,0));
+		Plank added2 = new Plank(new Pillar(2,1), new Pillar(2,2));
+		assertTrue(p.getPlanks().isEmpty());
+		p.addPlank(added1);
+		p.addPlank(added2);
+		assertEquals(added1, p.getPlank());
+		assertEquals(Arrays.asList(added1, added2), p.getPlanks());
+		assertEquals(Arrays.asList(added1, added2), p.copy().getPlanks());
+		Path other = new Path();
+		other.addPlank(added1);
+		assertFalse(p.equals(other));
+		other.addPlank(added2);
+		assertTrue(p.equals(other));
+		p.removePlank();
+		assertEquals(Arrays.asList(added1), p.getPlanks());
+		p.addPlank(added2);
+		p.setPlank(added2);
+		assertEquals(Arrays.asList(added2), p.getPlanks());
+		p.removePlank();
+		assertTrue(p.getPlanks().isEmpty());
+		try{
+			p.addPlank(null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+	
 	/**
 	 * Structured Basis, Good data
 	 */
@@ -0,0 +1,129 @@
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Exhaustive testing on PersistentPath Class.
+ * @author gmh73
+ *
+ */
+public class TestPersistentPath {
+	private PersistentPath p;
+
+	/**
+	 * Initialize, the path (0,0) --> (1,0) --> (1,1)
+	 */
+	@Before
+	public void initialize(){
+		p = new PersistentPath(new Pillar(0,0), null, null).extend(new Pillar(1,0)).extend(new Pillar(1,1));
+	}
+
+	/**
+	 * Structural Basis
+	 * A path equals, prints and measures like the Path with the same pillars
+	 */
+	@Test
+	public void testSameAsPath(){
+		Path q = new Path();
+		q.addPillar(new Pillar(0,0));
+		q.addPillar(new Pillar(1,0));
+		q.addPillar(new Pillar(1,1));
+		assertEquals(q, p);
+		assertEquals(p, q);
+		assertEquals(q.toString(), p.toString());
+		assertTrue(p.isSameDistance(2));
+		assertEquals(new Pillar(1,1), p.lastPillar());
+		assertTrue(p.containsPillar(new Pillar(1,0)));
+		assertFalse(p.containsPillar(new Pillar(0,1)));
+		Path copy = p.copy();
+		assertEquals(q, copy);
+		//A copy can be changed
+		copy.removeLastPillar(new Pillar(1,1));
+		assertTrue(copy.isShorterThan(p));
+	}
+
+	/**
+	 * Structural Basis
+	 * Extending a path shares its nodes and leaves it as it was
+	 */
+	@Test
+	public void testSharing(){
+		PersistentPath longer = p.extend(new Pillar(2,1));
+		PersistentPath other = p.extend(new Pillar(1,2));
+		assertSame(p, longer.getParent());
+		assertSame(p, other.getParent());
+		assertTrue(p.isSameDistance(2));
+		assertTrue(longer.isSameDistance(3));
+		assertFalse(p.containsPillar(new Pillar(2,1)));
+		assertNull(p.getParent().getParent().getParent());
+	}
+
+	/**
+	 * Structural Basis
+	 * withPlank changes only the last node, and keeps the plank when extending
+	 */
+	@Test
+	public void testWithPlank(){
+		Plank plank = new Plank(new Pillar(1,0), new Pillar(1,1));
+		PersistentPath planked = p.withPlank(plank);
+		assertNull(p.getPlank());
+		assertEquals(plank, planked.getPlank());
+		assertSame(p.getParent(), planked.getParent());
+		assertSame(planked, planked.withPlank(plank));
+		assertFalse(p.equals(planked));
+		assertEquals(plank, planked.extend(new Pillar(2,1)).getPlank());
+	}
+
+	/**
+	 * Bad data, null and non-adjacent pillars
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			new PersistentPath(null, null, null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			p.extend(new Pillar(3,3));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Bad data, a persistent path cannot be changed
+	 */
+	@Test
+	public void testImmutable(){
+		try{
+			p.addPillar(new Pillar(2,1));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(UnsupportedOperationException ue){
+			//We want this.
+		}
+		try{
+			p.removeLastPillar(new Pillar(1,1));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(UnsupportedOperationException ue){
+			//We want this.
+		}
+		try{
+			p.setPlank(new Plank(new Pillar(1,0), new Pillar(1,1)));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(UnsupportedOperationException ue){
+			//We want this.
+		}
+		try{
+			p.removePlank();
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(UnsupportedOperationException ue){
+			//We want this.
+		}
+		p.setDistanceToInfinite();
+		assertTrue(p.isSameDistance(2));
+	}
+}
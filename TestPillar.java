@@ -1,10 +1,12 @@
 import static org.junit.Assert.*;
 
+import java.lang.management.ManagementFactory;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.Before;
 
@@ -374,6 +376,51 @@ public class TestPillar {
 		assertEquals(p1.hashCode(), p.hashCode());
 	}
 	
+	/**
+	 * Structured Basis
+	 * make sure different pillars on a grid never share a hash code
+	 */
+	@Test
+	public void testHashCodeNoCollisions(){
+		Set<Integer> seen = new HashSet<Integer>();
+		for(int x = 0; x < 300; x++){
+			for(int y = 0; y < 300; y++){
+				assertTrue(seen.add(new Pillar(x,y).hashCode()));
+			}
+		}
+		//These two used to collide
+		assertFalse(new Pillar(3,0).hashCode() == new Pillar(0,2).hashCode());
+	}
+	
+	/**
+	 * Structured Basis
+	 * adjoining pillars are the interned pillars of the given PillarTable, and equal to those
+	 * found by the limit
+	 */
+	@Test
+	public void testAdjoiningPillarsAreInterned(){
+		PillarTable table = new PillarTable(5);
+		List<Pillar> adj = p.adjoiningPillars(true, new HashSet<Plank>(), table);
+		assertSame(table.get(2,1), adj.get(0));
+		assertSame(table.get(1,2), adj.get(1));
+		assertSame(table.get(0,1), adj.get(2));
+		assertSame(table.get(1,0), adj.get(3));
+		assertEquals(p.adjoiningPillars(true, new HashSet<Plank>(), 4), adj);
+		assertEquals(p.adjoiningDirections(true, new HashSet<Plank>(), 4), p.adjoiningDirections(true, new HashSet<Plank>(), table));
+		try{
+			p.adjoiningPillars(true, new HashSet<Plank>(), (PillarTable) null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			new Pillar(5,0).adjoiningDirections(true, new HashSet<Plank>(), table);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+	
 	/**
 	 * Structured Basis
 	 * Make sure toString works like it should
@@ -593,4 +640,94 @@ public class TestPillar {
 	public void testCheckLimitWhenNeg(){
 		t.testCheckLimit(-1);
 	}
+	
+	/**
+	 * Structural Basis
+	 * adjoiningDirections agrees with adjoiningPillars, for a HashSet layout and a PlankGrid
+	 */
+	@Test
+	public void testAdjoiningDirections(){
+		int limit = 3;
+		Set<Plank> layout = new HashSet<Plank>();
+		layout.add(new Plank(new Pillar(1,1), new Pillar(2,1)));
+		layout.add(new Plank(new Pillar(1,1), new Pillar(1,0)));
+		layout.add(new Plank(new Pillar(0,3), new Pillar(0,2)));
+		PlankGrid grid = new PlankGrid(limit + 1, layout);
+		for(int x = 0; x <= limit; x++){
+			for(int y = 0; y <= limit; y++){
+				Pillar q = new Pillar(x,y);
+				for(boolean usePlank : new boolean[]{true, false}){
+					int expected = 0;
+					for(Pillar a : q.adjoiningPillars(usePlank, layout, limit)){
+						if(a.getXCor() > x)
+							expected |= Pillar.PLUS_X;
+						else if(a.getYCor() > y)
+							expected |= Pillar.PLUS_Y;
+						else if(a.getXCor() < x)
+							expected |= Pillar.MINUS_X;
+						else
+							expected |= Pillar.MINUS_Y;
+					}
+					assertEquals(expected, q.adjoiningDirections(usePlank, layout, limit));
+					assertEquals(expected, q.adjoiningDirections(usePlank, grid, limit));
+				}
+			}
+		}
+		assertEquals(Pillar.PLUS_X | Pillar.MINUS_Y, p.adjoiningDirections(false, layout, limit));
+		assertEquals(Pillar.PLUS_Y | Pillar.MINUS_X, p.adjoiningDirections(true, layout, limit));
+	}
+	
+	/**
+	 * Bad Data
+	 * adjoiningDirections checks its layout and limit like adjoiningPillars
+	 */
+	@Test
+	public void testAdjoiningDirectionsBadData(){
+		try{
+			p.adjoiningDirections(true, null, 2);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			p.adjoiningDirections(true, new HashSet<Plank>(), 0);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+	
+	/**
+	 * Stress test
+	 * Finding the neighbors of every pillar of a PlankGrid allocates nothing
+	 */
+	@Test
+	public void testAdjoiningDirectionsAllocatesNothing(){
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+		int n = 64;
+		PlankGrid grid = new PlankGrid(n);
+		for(int x = 0; x + 1 < n; x += 2)
+			for(int y = 0; y < n; y++)
+				grid.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)));
+		Pillar[] pillars = new Pillar[n * n];
+		for(int id = 0; id < n * n; id++)
+			pillars[id] = new Pillar(id % n, id / n);
+		int sum = 0;
+		long tid = Thread.currentThread().getId();
+		long bytes = 0;
+		//The first rounds warm up the JIT, the last one is measured
+		for(int round = 0; round < 20; round++){
+			long before = threads.getThreadAllocatedBytes(tid);
+			for(Pillar q : pillars){
+				sum += q.adjoiningDirections(true, grid, n - 1);
+				sum += q.adjoiningDirections(false, grid, n - 1);
+			}
+			bytes = threads.getThreadAllocatedBytes(tid) - before;
+		}
+		assertEquals(0, bytes);
+		assertTrue(sum > 0);
+	}
 }
@@ -0,0 +1,46 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+/**
+ * Testing on PillarPair
+ * @author gmh73
+ *
+ */
+public class TestPillarPair {
+
+	/**
+	 * Bad data, null pillars
+	 */
+	@Test
+	public void testConstructorBadData(){
+		try{
+			new PillarPair(null, new Pillar(0,0));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			new PillarPair(new Pillar(0,0), null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Pairs with the same start and end are equal, and order matters
+	 */
+	@Test
+	public void testEquals(){
+		PillarPair p = new PillarPair(new Pillar(0,1), new Pillar(2,3));
+		assertEquals(new Pillar(0,1), p.getStart());
+		assertEquals(new Pillar(2,3), p.getEnd());
+		assertEquals(new PillarPair(new Pillar(0,1), new Pillar(2,3)), p);
+		assertEquals(new PillarPair(new Pillar(0,1), new Pillar(2,3)).hashCode(), p.hashCode());
+		assertFalse(p.equals(new PillarPair(new Pillar(2,3), new Pillar(0,1))));
+		assertFalse(p.equals(null));
+		assertEquals(new Pillar(0,1) + " --> " + new Pillar(2,3), p.toString());
+	}
+}
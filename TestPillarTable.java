@@ -0,0 +1,138 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Exhaustive testing on PillarTable Class.
+ * @author gmh73
+ *
+ */
+public class TestPillarTable {
+	private PillarTable t;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		t = new PillarTable(7);
+	}
+
+	/**
+	 * Structural Basis
+	 * Each table interns its own pillars, nothing is shared between tables of the same size
+	 */
+	@Test
+	public void testConstructor(){
+		assertEquals(7, t.getLength());
+		PillarTable other = new PillarTable(7);
+		assertEquals(7, other.getLength());
+		assertEquals(t.get(3,4), other.get(3,4));
+		assertNotSame(t.get(3,4), other.get(3,4));
+		assertEquals(8, new PillarTable(8).getLength());
+	}
+
+	/**
+	 * Bad data, sizes without a table
+	 */
+	@Test
+	public void testConstructorBadData(){
+		assertFalse(PillarTable.hasTable(0));
+		assertFalse(PillarTable.hasTable(PillarTable.MAX_LENGTH + 1));
+		assertTrue(PillarTable.hasTable(PillarTable.MAX_LENGTH));
+		try{
+			new PillarTable(0);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new PillarTable(PillarTable.MAX_LENGTH + 1);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * Pillars are interned, and ids go back and forth
+	 */
+	@Test
+	public void testGetAndId(){
+		for(int x = 0; x < 7; x++){
+			for(int y = 0; y < 7; y++){
+				Pillar p = t.get(x,y);
+				assertEquals(new Pillar(x,y), p);
+				assertSame(p, t.get(x,y));
+				assertEquals(y * 7 + x, t.id(x,y));
+				assertEquals(t.id(x,y), t.id(new Pillar(x,y)));
+				assertSame(p, t.get(t.id(p)));
+			}
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * Planks are interned whichever way round they are asked for, and are made of the table's pillars
+	 */
+	@Test
+	public void testGetPlank(){
+		Plank across = t.getPlank(t.id(2,3), t.id(3,3));
+		assertEquals(new Plank(new Pillar(2,3), new Pillar(3,3)), across);
+		assertSame(across, t.getPlank(t.id(3,3), t.id(2,3)));
+		assertSame(t.get(2,3), across.getFirstPillar());
+		Plank down = t.getPlank(t.id(2,3), t.id(2,4));
+		assertEquals(new Plank(new Pillar(2,3), new Pillar(2,4)), down);
+		assertSame(down, t.getPlank(t.id(2,4), t.id(2,3)));
+		assertNotSame(across, t.getPlank(t.id(1,3), t.id(2,3)));
+	}
+
+	/**
+	 * Bad data, pillars off the grid
+	 */
+	@Test
+	public void testOffGrid(){
+		try{
+			t.get(7,0);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			t.id(new Pillar(0,7));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * adjacent gives the same pillars in the same order as Pillar.adjoiningPillars given this table
+	 */
+	@Test
+	public void testAdjacent(){
+		int[] out = new int[4];
+		for(int id = 0; id < 49; id++){
+			Pillar p = t.get(id);
+			List<Pillar> expected = p.adjoiningPillars(true, new HashSet<Plank>(), t);
+			int count = t.adjacent(id, out);
+			assertEquals(expected.size(), count);
+			for(int i = 0; i < count; i++)
+				assertSame(expected.get(i), t.get(out[i]));
+		}
+	}
+
+	/**
+	 * Boundary case, a grid of one pillar has no adjacent pillars
+	 */
+	@Test
+	public void testAdjacentWhenOne(){
+		assertEquals(0, new PillarTable(1).adjacent(0, new int[4]));
+	}
+}
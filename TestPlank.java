@@ -128,4 +128,64 @@ public class TestPlank {
 			//We want this.
 		}
 	}
+	
+	/**
+	 * Structural Basis
+	 * Planks keep their pillars in canonical order however they were built
+	 */
+	@Test
+	public void testCanonicalOrder(){
+		Plank p1 = new Plank(new Pillar(1,1), new Pillar(0,1));
+		assertEquals(new Pillar(0,1), p1.getFirstPillar());
+		assertEquals(new Pillar(1,1), p1.getSecondPillar());
+		p1 = new Plank(new Pillar(3,5), new Pillar(3,4));
+		assertEquals(new Pillar(3,4), p1.getFirstPillar());
+		assertEquals(new Pillar(3,5), p1.getSecondPillar());
+		assertTrue(t.testComesBefore(new Pillar(0,9), new Pillar(1,0)));
+		assertTrue(t.testComesBefore(new Pillar(1,0), new Pillar(1,1)));
+		assertFalse(t.testComesBefore(new Pillar(1,1), new Pillar(1,1)));
+		assertFalse(t.testComesBefore(new Pillar(2,0), new Pillar(1,5)));
+	}
+	
+	/**
+	 * Structural Basis
+	 * Keys are the same either way round and different for different planks
+	 */
+	@Test
+	public void testKey(){
+		int n = 10;
+		assertEquals(Plank.key(3, 4), Plank.key(4, 3));
+		assertEquals((3L << 32) | 4, Plank.key(3, 4));
+		assertEquals(Plank.key(n + 1, 2*n + 1), new Plank(new Pillar(1,2), new Pillar(1,1)).getKey(n));
+		Set<Long> seen = new HashSet<Long>();
+		for(int x = 0; x < n; x++){
+			for(int y = 0; y < n; y++){
+				if(x + 1 < n)
+					assertTrue(seen.add(new Plank(new Pillar(x,y), new Pillar(x + 1,y)).getKey(n)));
+				if(y + 1 < n)
+					assertTrue(seen.add(new Plank(new Pillar(x,y), new Pillar(x,y + 1)).getKey(n)));
+			}
+		}
+	}
+	
+	/**
+	 * Structural Basis
+	 * Planks that share a pillar are not equal
+	 */
+	@Test
+	public void testNotEquals(){
+		assertFalse(p.equals(new Plank(new Pillar(0,1), new Pillar(0,2))));
+		assertFalse(p.equals(new Plank(new Pillar(1,1), new Pillar(2,1))));
+		assertFalse(p.equals(new Plank(new Pillar(1,0), new Pillar(1,1))));
+	}
+	
+	/**
+	 * Structural Basis
+	 * toString lists both pillars in canonical order
+	 */
+	@Test
+	public void testToString(){
+		assertEquals("[(0,1)(1,1)]", p.toString());
+		assertEquals("[(0,1)(1,1)]", new Plank(new Pillar(1,1), new Pillar(0,1)).toString());
+	}
 }
@@ -0,0 +1,178 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Testing on PlankBudgetSolver, against Maze for budgets of zero and one plank
+ * and against an exhaustive search for bigger budgets
+ * @author gmh73
+ *
+ */
+public class TestPlankBudgetSolver {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Finds the shortest distance by trying every simple path
+	 * @param curr	the current pillar
+	 * @param end	the end pillar
+	 * @param n	the length of the grid
+	 * @param planksLeft	the number of extra planks that may still be laid
+	 * @param visited	the pillars on the current path
+	 * @return	returns the shortest distance from curr to end, or Integer.MAX_VALUE if there is none
+	 */
+	private int exhaustiveDistance(Pillar curr, Pillar end, int n, int planksLeft, Set<Pillar> visited){
+		if(curr.equals(end))
+			return 0;
+		int best = Integer.MAX_VALUE;
+		visited.add(curr);
+		int[][] steps = {{1,0},{0,1},{-1,0},{0,-1}};
+		for(int[] step : steps){
+			int x = curr.getXCor() + step[0];
+			int y = curr.getYCor() + step[1];
+			if(x < 0 || y < 0 || x >= n || y >= n)
+				continue;
+			Pillar next = new Pillar(x, y);
+			boolean connected = layout.contains(new Plank(curr, next));
+			if(visited.contains(next) || (!connected && planksLeft == 0))
+				continue;
+			int rest = exhaustiveDistance(next, end, n, connected ? planksLeft : planksLeft - 1, visited);
+			if(rest != Integer.MAX_VALUE)
+				best = Math.min(best, rest + 1);
+		}
+		visited.remove(curr);
+		return best;
+	}
+
+	/**
+	 * Bad data, a negative budget and out of maze pillars
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			new PlankBudgetSolver(3, layout).shortestPath(-1);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new PlankBudgetSolver(3, layout, new Pillar(0,0), new Pillar(0,3));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Boundary case, the budget only counts up to the Manhattan distance from start to end, and
+	 * a budget whose layers of states would not fit in an array is refused before anything is allocated
+	 */
+	@Test
+	public void testBudgetTooBigForArray(){
+		int n = 1100;
+		PlankGrid empty = new PlankGrid(n);
+		PlankBudgetSolver near = new PlankBudgetSolver(n, empty, new Pillar(0,0), new Pillar(1,1));
+		assertEquals(2, near.shortestPath(Integer.MAX_VALUE).getDistance());
+		try{
+			//2n - 1 layers of n*n states is over 2^31
+			new PlankBudgetSolver(n, empty).shortestPath(2 * n);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * With no planks in the layout a budget of 2n - 2 crosses the grid along the Manhattan distance,
+	 * any smaller budget cannot, and a bigger one changes nothing
+	 */
+	@Test
+	public void testEmptyLayout(){
+		int n = 4;
+		for(int k = 0; k < 2 * n - 2; k++)
+			assertTrue(new PlankBudgetSolver(n, layout).shortestPath(k).isSameDistance(Integer.MAX_VALUE));
+		Path found = new PlankBudgetSolver(n, layout).shortestPath(2 * n - 2);
+		assertTrue(found.isSameDistance(2 * n - 2));
+		assertEquals(2 * n - 2, found.getPlanks().size());
+		assertTrue(TestLayouts.pathIsValid(found, new Pillar(0,0), new Pillar(n - 1,n - 1), layout, 2 * n - 2));
+		assertEquals(found, new PlankBudgetSolver(n, layout).shortestPath(10));
+		assertEquals(found, new Maze(n, layout).shortestPath(10));
+	}
+
+	/**
+	 * Budgets of zero and one plank find paths as short as Maze's depth first search
+	 */
+	@Test
+	public void testMatchesMaze(){
+		for(int trial = 0; trial < 100; trial++){
+			int n = 2 + r.nextInt(5);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.5 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			for(int k = 0; k < 2; k++){
+				Path expected = new Maze(n, layout, start, end).shortestPath(k == 1);
+				PlankBudgetSolver solver = new PlankBudgetSolver(n, layout, start, end);
+				Path found = solver.shortestPath(k);
+				assertTrue(expected.isSameDistance(found));
+				assertTrue(found.isSameDistance(solver.shortestPath(k == 1)));
+				if(!found.isSameDistance(Integer.MAX_VALUE))
+					assertTrue(TestLayouts.pathIsValid(found, start, end, layout, k));
+			}
+		}
+	}
+
+	/**
+	 * Bigger budgets find paths as short as an exhaustive search, and never longer than a smaller budget
+	 */
+	@Test
+	public void testMatchesExhaustiveSearch(){
+		for(int trial = 0; trial < 60; trial++){
+			int n = 2 + r.nextInt(3);
+			layout = TestLayouts.randomLayout(n, 0.2 + 0.4 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			Path previous = null;
+			for(int k = 0; k <= 4; k++){
+				Path found = new MazeDefinition(n, layout).shortestPath(start, end, k);
+				int expected = exhaustiveDistance(start, end, n, k, new HashSet<Pillar>());
+				assertTrue(found.isSameDistance(expected));
+				if(expected != Integer.MAX_VALUE)
+					assertTrue(TestLayouts.pathIsValid(found, start, end, layout, k));
+				if(previous != null)
+					assertFalse(previous.isShorterThan(found));
+				previous = found;
+			}
+		}
+	}
+
+	/**
+	 * Stress test, a budget of ten planks on a sparse 200 x 200 grid expands at most 11 layers of states
+	 */
+	@Test
+	public void stressTestLargeBudget(){
+		int n = 200;
+		layout = TestLayouts.randomLayout(n, 0.4, r);
+		PlankBudgetSolver solver = new PlankBudgetSolver(n, new PlankGrid(n, layout));
+		Path found = solver.shortestPath(10);
+		assertTrue(solver.getExpandedStates() <= 11 * n * n);
+		if(!found.isSameDistance(Integer.MAX_VALUE))
+			assertTrue(TestLayouts.pathIsValid(found, new Pillar(0,0), new Pillar(n - 1,n - 1), layout, 10));
+		assertFalse(new PlankBudgetSolver(n, layout).shortestPath(1).isShorterThan(found));
+	}
+}
@@ -0,0 +1,229 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Exhaustive testing on PlankGrid Class.
+ * @author gmh73
+ *
+ */
+public class TestPlankGrid {
+	private PlankGrid g;
+	private PlankGrid.TestButton t;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		g = new PlankGrid(5);
+		t = g.new TestButton();
+	}
+
+	/**
+	 * Structural Basis
+	 * A new grid is empty
+	 */
+	@Test
+	public void testConstructor(){
+		assertEquals(5, g.getLength());
+		assertEquals(0, g.size());
+		assertTrue(g.isEmpty());
+		assertFalse(g.iterator().hasNext());
+	}
+
+	/**
+	 * Bad data, n < 1 and a null layout
+	 */
+	@Test
+	public void testConstructorBadData(){
+		try{
+			new PlankGrid(0);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new PlankGrid(5, null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * Adding planks along x and y sets one bit each, in either pillar order
+	 */
+	@Test
+	public void testAddAndContains(){
+		assertTrue(g.add(new Plank(new Pillar(2,3), new Pillar(1,3))));
+		assertTrue(g.add(new Plank(new Pillar(4,0), new Pillar(4,1))));
+		//Adding the same plank again does not change the grid
+		assertFalse(g.add(new Plank(new Pillar(1,3), new Pillar(2,3))));
+		assertEquals(2, g.size());
+		assertTrue(g.contains(new Plank(new Pillar(1,3), new Pillar(2,3))));
+		assertTrue(g.contains(new Plank(new Pillar(4,1), new Pillar(4,0))));
+		assertFalse(g.contains(new Plank(new Pillar(1,3), new Pillar(1,4))));
+		assertTrue(g.hasXPlank(1,3));
+		assertTrue(g.hasYPlank(4,0));
+		assertFalse(g.hasXPlank(3,1));
+		assertEquals(1, t.getXPlanks().cardinality());
+		assertEquals(1, t.getYPlanks().cardinality());
+	}
+
+	/**
+	 * Structural Basis
+	 * isConnected works by pillar id in both directions
+	 */
+	@Test
+	public void testIsConnected(){
+		g.add(new Plank(new Pillar(1,3), new Pillar(2,3)));
+		g.add(new Plank(new Pillar(4,0), new Pillar(4,1)));
+		assertTrue(g.isConnected(3*5 + 1, 3*5 + 2));
+		assertTrue(g.isConnected(3*5 + 2, 3*5 + 1));
+		assertTrue(g.isConnected(4, 5 + 4));
+		assertTrue(g.isConnected(5 + 4, 4));
+		assertFalse(g.isConnected(3, 4));
+		assertFalse(g.isConnected(3*5 + 1, 4*5 + 1));
+	}
+
+	/**
+	 * Bad data, contains on things that are not planks of this grid
+	 */
+	@Test
+	public void testContainsBadData(){
+		assertFalse(g.contains(null));
+		assertFalse(g.contains(5));
+		assertFalse(g.contains(new Plank(new Pillar(0,0), new Pillar(1,1))));
+		assertFalse(g.contains(new Plank(new Pillar(4,4), new Pillar(5,4))));
+		assertEquals(-1, t.testBitOf(new Plank(new Pillar(0,0), new Pillar(0,2))));
+	}
+
+	/**
+	 * Bad data, adding planks that are not between adjacent pillars of the grid
+	 */
+	@Test
+	public void testAddBadData(){
+		try{
+			g.add(new Plank(new Pillar(4,4), new Pillar(4,5)));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			g.add(new Plank(new Pillar(0,0), new Pillar(1,1)));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			g.add(null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		assertTrue(g.isEmpty());
+	}
+
+	/**
+	 * Structural Basis
+	 * Remove, iterator remove and clear
+	 */
+	@Test
+	public void testRemove(){
+		g.add(new Plank(new Pillar(1,3), new Pillar(2,3)));
+		g.add(new Plank(new Pillar(4,0), new Pillar(4,1)));
+		assertTrue(g.remove(new Plank(new Pillar(2,3), new Pillar(1,3))));
+		assertFalse(g.remove(new Plank(new Pillar(2,3), new Pillar(1,3))));
+		assertFalse(g.remove(5));
+		assertEquals(1, g.size());
+		Iterator<Plank> i = g.iterator();
+		assertEquals(new Plank(new Pillar(4,0), new Pillar(4,1)), i.next());
+		i.remove();
+		assertTrue(g.isEmpty());
+		g.add(new Plank(new Pillar(1,3), new Pillar(2,3)));
+		g.clear();
+		assertTrue(g.isEmpty());
+		assertFalse(g.hasXPlank(1,3));
+	}
+
+	/**
+	 * Structural Basis
+	 * Converting a random HashSet layout gives an equal set, and iterating gives back every plank
+	 */
+	@Test
+	public void testConvertFromSet(){
+		Random r = TestLayouts.random();
+		int n = 30;
+		Set<Plank> layout = TestLayouts.randomLayout(n, 0.5, r);
+		PlankGrid grid = new PlankGrid(n, layout);
+		assertEquals(layout.size(), grid.size());
+		assertEquals(layout, grid);
+		assertEquals(grid, layout);
+		assertEquals(layout, new HashSet<Plank>(grid));
+	}
+
+	/**
+	 * Structural Basis
+	 * withinGrid copies the planks of the grid and skips planks off it or between pillars that are not adjacent
+	 */
+	@Test
+	public void testWithinGrid(){
+		Set<Plank> layout = new HashSet<Plank>();
+		layout.add(new Plank(new Pillar(0,0), new Pillar(1,0)));
+		layout.add(new Plank(new Pillar(2,1), new Pillar(2,2)));
+		layout.add(new Plank(new Pillar(2,2), new Pillar(3,2)));
+		layout.add(new Plank(new Pillar(0,0), new Pillar(2,2)));
+		PlankGrid within = PlankGrid.withinGrid(3, layout);
+		assertEquals(2, within.size());
+		assertTrue(within.contains(new Plank(new Pillar(0,0), new Pillar(1,0))));
+		assertTrue(within.contains(new Plank(new Pillar(2,1), new Pillar(2,2))));
+		assertEquals(LayoutFingerprint.of(3, new HashSet<Plank>(within)), within.getFingerprint());
+		try{
+			PlankGrid.withinGrid(3, null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * A 1000 x 1000 layout takes about 250 KB of bits
+	 */
+	@Test
+	public void testLargeGridSize(){
+		g = new PlankGrid(1000);
+		t = g.new TestButton();
+		long bits = t.getXPlanks().size() + t.getYPlanks().size();
+		assertTrue(bits / 8 <= 250 * 1024);
+	}
+
+	/**
+	 * Structural Basis
+	 * Every solver gives the same answer for a PlankGrid as for the HashSet it came from
+	 */
+	@Test
+	public void testSolversAcceptGrid(){
+		Random r = TestLayouts.random();
+		for(int trial = 0; trial < 50; trial++){
+			int n = 2 + r.nextInt(5);
+			Set<Plank> layout = TestLayouts.randomLayout(n, 0.6, r);
+			PlankGrid grid = new PlankGrid(n, layout);
+			for(Maze.Engine engine : Maze.Engine.values()){
+				Maze fromSet = new Maze(n, layout);
+				Maze fromGrid = new Maze(n, grid);
+				fromSet.setEngine(engine);
+				fromGrid.setEngine(engine);
+				assertEquals(fromSet.shortestPath(true), fromGrid.shortestPath(true));
+			}
+		}
+	}
+}
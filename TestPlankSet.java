@@ -0,0 +1,191 @@
+import static org.junit.Assert.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Exhaustive testing on PlankSet Class.
+ * @author gmh73
+ *
+ */
+public class TestPlankSet {
+	private PlankSet s;
+	private PlankSet.TestButton t;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		s = new PlankSet(5);
+		t = s.new TestButton();
+	}
+
+	/**
+	 * Structural Basis
+	 * A new set is empty
+	 */
+	@Test
+	public void testConstructor(){
+		assertEquals(5, s.getLength());
+		assertTrue(s.isEmpty());
+		assertFalse(s.iterator().hasNext());
+	}
+
+	/**
+	 * Bad data, n < 1 and a null layout
+	 */
+	@Test
+	public void testConstructorBadData(){
+		try{
+			new PlankSet(0);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new PlankSet(5, null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+
+	/**
+	 * Structural Basis
+	 * Adding planks, checking them by Plank, by key and by id
+	 */
+	@Test
+	public void testAddAndContains(){
+		assertTrue(s.add(new Plank(new Pillar(2,3), new Pillar(1,3))));
+		assertTrue(s.add(new Plank(new Pillar(4,0), new Pillar(4,1))));
+		assertFalse(s.add(new Plank(new Pillar(1,3), new Pillar(2,3))));
+		assertEquals(2, s.size());
+		assertTrue(s.contains(new Plank(new Pillar(1,3), new Pillar(2,3))));
+		assertFalse(s.contains(new Plank(new Pillar(1,3), new Pillar(1,4))));
+		assertTrue(s.containsKey(Plank.key(16, 17)));
+		assertTrue(s.isConnected(9, 4));
+		assertFalse(s.isConnected(3, 4));
+		assertFalse(s.containsKey(0));
+		assertFalse(s.containsKey(-1));
+	}
+
+	/**
+	 * Bad data, things that are not planks of this grid
+	 */
+	@Test
+	public void testBadPlanks(){
+		assertFalse(s.contains(null));
+		assertFalse(s.contains(5));
+		assertFalse(s.contains(new Plank(new Pillar(0,0), new Pillar(1,1))));
+		assertFalse(s.remove(new Plank(new Pillar(4,4), new Pillar(5,4))));
+		try{
+			s.add(new Plank(new Pillar(4,4), new Pillar(5,4)));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			//4 and 5 are next to each other by id but on different rows
+			s.addKey(Plank.key(4, 5));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			t.testCheckKey(Plank.key(24, 29));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		t.testCheckKey(Plank.key(19, 24));
+		assertTrue(s.isEmpty());
+	}
+
+	/**
+	 * Structural Basis
+	 * Remove, iterator remove and clear
+	 */
+	@Test
+	public void testRemove(){
+		s.add(new Plank(new Pillar(1,3), new Pillar(2,3)));
+		s.add(new Plank(new Pillar(4,0), new Pillar(4,1)));
+		assertTrue(s.remove(new Plank(new Pillar(2,3), new Pillar(1,3))));
+		assertFalse(s.remove(new Plank(new Pillar(2,3), new Pillar(1,3))));
+		assertFalse(s.contains(new Plank(new Pillar(2,3), new Pillar(1,3))));
+		assertEquals(1, s.size());
+		Iterator<Plank> i = s.iterator();
+		assertEquals(new Plank(new Pillar(4,0), new Pillar(4,1)), i.next());
+		i.remove();
+		assertFalse(i.hasNext());
+		assertTrue(s.isEmpty());
+		s.add(new Plank(new Pillar(1,3), new Pillar(2,3)));
+		s.clear();
+		assertTrue(s.isEmpty());
+	}
+
+	/**
+	 * Bad data, changing the set while iterating
+	 */
+	@Test(expected=ConcurrentModificationException.class)
+	public void testConcurrentModification(){
+		s.add(new Plank(new Pillar(1,3), new Pillar(2,3)));
+		s.add(new Plank(new Pillar(4,0), new Pillar(4,1)));
+		Iterator<Plank> i = s.iterator();
+		i.next();
+		s.add(new Plank(new Pillar(0,0), new Pillar(0,1)));
+		i.next();
+	}
+
+	/**
+	 * Stress test, many adds and removes against a HashSet
+	 */
+	@Test
+	public void stressTestMatchesHashSet(){
+		Random r = TestLayouts.random();
+		int n = 40;
+		s = new PlankSet(n);
+		Set<Plank> expected = new HashSet<Plank>();
+		for(int i = 0; i < 20000; i++){
+			int x = r.nextInt(n - 1);
+			int y = r.nextInt(n - 1);
+			Plank p = r.nextBoolean() ? new Plank(new Pillar(x,y), new Pillar(x + 1,y)) : new Plank(new Pillar(x,y), new Pillar(x,y + 1));
+			if(r.nextInt(3) == 0)
+				assertEquals(expected.remove(p), s.remove(p));
+			else
+				assertEquals(expected.add(p), s.add(p));
+		}
+		assertEquals(expected.size(), s.size());
+		assertEquals(expected, s);
+		assertEquals(s, expected);
+		assertEquals(expected.hashCode(), s.hashCode());
+		assertEquals(new PlankSet(n, expected), new PlankGrid(n, expected));
+	}
+
+	/**
+	 * Structural Basis
+	 * Solvers give the same answer for a PlankSet as for the HashSet it came from
+	 */
+	@Test
+	public void testSolversAcceptSet(){
+		Random r = TestLayouts.random();
+		for(int trial = 0; trial < 50; trial++){
+			int n = 2 + r.nextInt(5);
+			Set<Plank> layout = TestLayouts.randomLayout(n, 0.6, r);
+			PlankSet set = new PlankSet(n, layout);
+			for(Maze.Engine engine : Maze.Engine.values()){
+				Maze fromHashSet = new Maze(n, layout);
+				Maze fromPlankSet = new Maze(n, set);
+				fromHashSet.setEngine(engine);
+				fromPlankSet.setEngine(engine);
+				assertEquals(fromHashSet.shortestPath(true), fromPlankSet.shortestPath(true));
+			}
+		}
+	}
+}
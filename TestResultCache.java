@@ -0,0 +1,223 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Testing on ResultCache
+ * @author gmh73
+ *
+ */
+public class TestResultCache {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Bad data, limits below 1, null input and out of maze pillars
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			new ResultCache(0, 100);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new ResultCache(10, 100, 0);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		ResultCache cache = new ResultCache(10, 10000);
+		MazeDefinition d = new MazeDefinition(3, layout);
+		try{
+			cache.shortestPath(null, new Pillar(0,0), new Pillar(0,0), true);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			cache.shortestPath(d, new Pillar(0,0), null, true);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		try{
+			cache.shortestPath(d, new Pillar(3,0), new Pillar(0,0), true);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		assertEquals(0, cache.getMisses());
+	}
+
+	/**
+	 * Structural Basis
+	 * A repeated query is a hit and gives the same path, also through another definition of the same layout,
+	 * while a different plank flag or layout is a miss
+	 */
+	@Test
+	public void testHitsAndMisses(){
+		layout = TestLayouts.randomLayout(5, 0.7, r);
+		ResultCache cache = new ResultCache(100, 1 << 20);
+		MazeDefinition d = new MazeDefinition(5, layout);
+		Path first = cache.shortestPath(d, new Pillar(0,0), new Pillar(4,4), true);
+		assertEquals(d.shortestPath(new Pillar(0,0), new Pillar(4,4), true), first);
+		assertSame(first, cache.shortestPath(d, new Pillar(0,0), new Pillar(4,4), true));
+		assertSame(first, cache.shortestPath(new MazeDefinition(5, new PlankGrid(5, layout)), new Pillar(0,0), new Pillar(4,4), true));
+		assertEquals(1, cache.getMisses());
+		assertEquals(2, cache.getHits());
+		//The shared path cannot be changed by one caller under another
+		try{
+			first.addPillar(new Pillar(4,3));
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(UnsupportedOperationException ue){
+			//We want this.
+		}
+		try{
+			first.setPlank(null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(UnsupportedOperationException ue){
+			//We want this.
+		}
+		cache.shortestPath(d, new Pillar(0,0), new Pillar(4,4), false);
+		layout.add(new Plank(new Pillar(0,0), new Pillar(1,0)));
+		layout.add(new Plank(new Pillar(0,0), new Pillar(0,1)));
+		layout.remove(new Plank(new Pillar(3,4), new Pillar(4,4)));
+		cache.shortestPath(new MazeDefinition(5, layout), new Pillar(0,0), new Pillar(4,4), true);
+		assertEquals(3, cache.getMisses());
+		assertEquals(3, cache.size());
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getEstimatedBytes());
+		assertEquals(2, cache.getHits());
+	}
+
+	/**
+	 * A query with no path gives every caller its own infinite path, so changing one changes no other
+	 */
+	@Test
+	public void testNoPathIsNotShared(){
+		//Nothing joins (2,2) to the rest, and without the plank nothing can reach it
+		MazeDefinition d = new MazeDefinition(3, layout);
+		ResultCache cache = new ResultCache(10, 1 << 20);
+		Path none = cache.shortestPath(d, new Pillar(0,0), new Pillar(2,2), false);
+		assertTrue(none.isSameDistance(Integer.MAX_VALUE));
+		none.addPillar(new Pillar(0,0));
+		Path again = cache.shortestPath(d, new Pillar(0,0), new Pillar(2,2), false);
+		assertNotSame(none, again);
+		assertTrue(again.isSameDistance(Integer.MAX_VALUE));
+		assertEquals(1, cache.getHits());
+	}
+
+	/**
+	 * The least recently used entry is the one dropped, whether the entry limit or the memory limit is hit
+	 */
+	@Test
+	public void testEviction(){
+		layout = TestLayouts.randomLayout(4, 1.0, r);
+		MazeDefinition d = new MazeDefinition(4, layout);
+		ResultCache cache = new ResultCache(2, 1 << 20, 1);
+		Path a = cache.shortestPath(d, new Pillar(0,0), new Pillar(1,0), true);
+		cache.shortestPath(d, new Pillar(0,0), new Pillar(2,0), true);
+		//Using a makes the second path the least recently used
+		assertSame(a, cache.shortestPath(d, new Pillar(0,0), new Pillar(1,0), true));
+		cache.shortestPath(d, new Pillar(0,0), new Pillar(3,0), true);
+		assertEquals(1, cache.getEvictions());
+		assertEquals(2, cache.size());
+		assertSame(a, cache.shortestPath(d, new Pillar(0,0), new Pillar(1,0), true));
+		cache.shortestPath(d, new Pillar(0,0), new Pillar(2,0), true);
+		assertEquals(4, cache.getMisses());
+		//Room for two paths of three pillars but not three of them
+		long bytes = 2 * (ResultCache.ENTRY_BYTES + 3 * ResultCache.PILLAR_BYTES);
+		cache = new ResultCache(100, bytes, 1);
+		cache.shortestPath(d, new Pillar(0,0), new Pillar(2,0), true);
+		cache.shortestPath(d, new Pillar(1,0), new Pillar(3,0), true);
+		assertEquals(bytes, cache.getEstimatedBytes());
+		cache.shortestPath(d, new Pillar(0,1), new Pillar(2,1), true);
+		assertEquals(1, cache.getEvictions());
+		assertEquals(2, cache.size());
+		assertEquals(bytes, cache.getEstimatedBytes());
+		cache.shortestPath(d, new Pillar(1,0), new Pillar(3,0), true);
+		assertEquals(1, cache.getHits());
+	}
+
+	/**
+	 * A small cache has fewer stripes, so each holds at least MIN_STRIPE_ENTRIES entries
+	 * and the cache fills up before it drops anything
+	 */
+	@Test
+	public void testStripesHoldSeveralEntries(){
+		assertEquals(1, new ResultCache(10, 1 << 20).getStripes());
+		assertEquals(1, new ResultCache(3, 1 << 20, 64).getStripes());
+		assertEquals(4, new ResultCache(40, 1 << 20, 4).getStripes());
+		assertEquals(8, new ResultCache(100, 1 << 20, 64).getStripes());
+		assertEquals(ResultCache.DEFAULT_STRIPES, new ResultCache(1000, 1 << 20).getStripes());
+		layout = TestLayouts.randomLayout(4, 1.0, r);
+		MazeDefinition d = new MazeDefinition(4, layout);
+		ResultCache cache = new ResultCache(10, 1 << 20);
+		for(int x = 0; x < 4; x++)
+			for(int y = 0; y < 3; y++)
+				cache.shortestPath(d, new Pillar(0,0), new Pillar(x,y), true);
+		//Twelve queries, and the ten most recent are all kept
+		assertEquals(2, cache.getEvictions());
+		assertEquals(10, cache.size());
+	}
+
+	/**
+	 * Stress test, many threads share a cache over a few definitions and always get what a fresh Maze gets,
+	 * with the limits kept
+	 */
+	@Test
+	public void stressTestConcurrentQueries() throws Exception{
+		final int n = 6;
+		final List<MazeDefinition> definitions = new ArrayList<MazeDefinition>();
+		final List<Set<Plank>> layouts = new ArrayList<Set<Plank>>();
+		for(int i = 0; i < 3; i++){
+			layout = TestLayouts.randomLayout(n, 0.7, r);
+			layouts.add(layout);
+			definitions.add(new MazeDefinition(n, layout));
+		}
+		final ResultCache cache = new ResultCache(40, 1 << 20, 4);
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+		for(int i = 0; i < 400; i++){
+			final int which = r.nextInt(3);
+			final Pillar start = new Pillar(r.nextInt(2), r.nextInt(2));
+			final Pillar end = new Pillar(n - 1 - r.nextInt(2), n - 1 - r.nextInt(2));
+			results.add(threads.submit(new Callable<Boolean>(){
+				public Boolean call(){
+					Path expected = new Maze(n, layouts.get(which), start, end).shortestPath(true);
+					return expected.equals(cache.shortestPath(definitions.get(which), start, end, true));
+				}
+			}));
+		}
+		for(Future<Boolean> result : results)
+			assertTrue(result.get());
+		threads.shutdown();
+		assertEquals(400, cache.getHits() + cache.getMisses());
+		assertTrue(cache.getHits() > 0);
+		assertTrue(cache.size() <= 40);
+	}
+}
@@ -0,0 +1,92 @@
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Testing on SearchStats
+ * @author gmh73
+ *
+ */
+public class TestSearchStats {
+	private SearchStats stats;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		stats = new SearchStats();
+	}
+
+	/**
+	 * New counters are empty, with no first solution
+	 */
+	@Test
+	public void testEmpty(){
+		assertEquals(0, stats.getExpanded());
+		assertEquals(-1, stats.getExpandedBeforeFirst());
+		assertEquals(0, stats.getSolutions());
+	}
+
+	/**
+	 * The expansions before the first solution are kept when more solutions come
+	 */
+	@Test
+	public void testCounting(){
+		stats.expand();
+		stats.expand();
+		stats.solution();
+		stats.expand();
+		stats.solution();
+		assertEquals(3, stats.getExpanded());
+		assertEquals(2, stats.getExpandedBeforeFirst());
+		assertEquals(2, stats.getSolutions());
+		assertEquals("expanded 3, before first 2, solutions 2", stats.toString());
+		stats.reset();
+		testEmpty();
+	}
+
+	/**
+	 * The seed excess is only known once both the seed and the result have a path
+	 */
+	@Test
+	public void testSeed(){
+		assertEquals(-1, stats.getSeedLength());
+		assertEquals(-1, stats.getSeedExcess());
+		stats.seed(9);
+		assertEquals(-1, stats.getSeedExcess());
+		stats.finish(7);
+		assertEquals(9, stats.getSeedLength());
+		assertEquals(7, stats.getResultLength());
+		assertEquals(2, stats.getSeedExcess());
+		assertEquals("expanded 0, before first -1, solutions 0, seed excess 2", stats.toString());
+		stats.seed(Integer.MAX_VALUE);
+		assertEquals(-1, stats.getSeedExcess());
+		stats.reset();
+		assertEquals(-1, stats.getResultLength());
+	}
+
+	/**
+	 * IDA* iterations are kept in order, past the first few, and cleared by reset
+	 */
+	@Test
+	public void testIterations(){
+		for(int i = 0; i < 10; i++)
+			stats.iteration(4 + 2 * i, 10 * i);
+		assertEquals(10, stats.getIterations());
+		assertEquals(4, stats.getIterationLimit(0));
+		assertEquals(22, stats.getIterationLimit(9));
+		assertEquals(90, stats.getIterationExpanded(9));
+		try{
+			stats.getIterationExpanded(10);
+			fail();
+		}catch(IndexOutOfBoundsException e){
+		}
+		stats.reset();
+		assertEquals(0, stats.getIterations());
+		stats.iteration(3, 5);
+		assertEquals("expanded 0, before first -1, solutions 0, iterations 3:5", stats.toString());
+	}
+}
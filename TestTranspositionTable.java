@@ -0,0 +1,137 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Testing on TranspositionTable, and on the depth first search that is cut by it
+ * @author gmh73
+ *
+ */
+public class TestTranspositionTable {
+	private Random r;
+	private Set<Plank> layout;
+
+	/**
+	 * Initialize
+	 */
+	@Before
+	public void initialize(){
+		r = TestLayouts.random();
+		layout = new HashSet<Plank>();
+	}
+
+	/**
+	 * Bad data, sizes < 0
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			new TranspositionTable(0);
+			fail();
+		}catch(IndexOutOfBoundsException e){
+		}
+		try{
+			new TranspositionTable(8, -1);
+			fail();
+		}catch(IndexOutOfBoundsException e){
+		}
+		try{
+			new Maze(3, layout).setTranspositionSlots(-1);
+			fail();
+		}catch(IndexOutOfBoundsException e){
+		}
+	}
+
+	/**
+	 * A slot per state cuts a visit no shallower than the shallowest before it
+	 */
+	@Test
+	public void testDirect(){
+		TranspositionTable t = new TranspositionTable(8);
+		assertFalse(t.isBounded());
+		assertEquals(8, t.capacity());
+		assertTrue(t.visit(3, 5));
+		assertFalse(t.visit(3, 5));
+		assertFalse(t.visit(3, 6));
+		assertTrue(t.visit(3, 4));
+		assertFalse(t.visit(3, 4));
+		assertTrue(t.visit(2, 9));
+		assertEquals(3, t.getCuts());
+		t.clear();
+		assertEquals(0, t.getCuts());
+		assertTrue(t.visit(3, 6));
+		//As many slots as states is the same as a slot per state
+		assertFalse(new TranspositionTable(8, 8).isBounded());
+	}
+
+	/**
+	 * A bounded table rounds its slots down to a power of two, and forgets states that share a slot
+	 * but never cuts a state it has not seen
+	 */
+	@Test
+	public void testBounded(){
+		TranspositionTable t = new TranspositionTable(1000, 6);
+		assertTrue(t.isBounded());
+		assertEquals(4, t.capacity());
+		for(int state = 0; state < 1000; state++)
+			assertTrue(t.visit(state, 7));
+		//The last state is always still there
+		assertFalse(t.visit(999, 7));
+		int kept = 0;
+		for(int state = 0; state < 1000; state++)
+			if(!t.visit(state, 8))
+				kept++;
+		assertTrue(kept <= 4);
+	}
+
+	/**
+	 * The cut search finds a path of the breadth first length, with a slot per state or very few slots
+	 */
+	@Test
+	public void testAgainstBreadthFirst(){
+		for(int trial = 0; trial < 80; trial++){
+			int n = 2 + r.nextInt(6);
+			layout = TestLayouts.randomLayout(n, 0.3 + 0.6 * r.nextDouble(), r);
+			Pillar start = new Pillar(r.nextInt(n), r.nextInt(n));
+			Pillar end = new Pillar(r.nextInt(n), r.nextInt(n));
+			for(boolean hasPlank : new boolean[]{false, true}){
+				int expected = new BreadthFirstSolver(n, layout, start, end).shortestPath(hasPlank).getDistance();
+				for(int slots : new int[]{0, 4, 16}){
+					Maze m = new Maze(n, layout, start, end);
+					m.setTransposition(true);
+					m.setTranspositionSlots(slots);
+					assertTrue(m.hasTransposition());
+					assertEquals(slots, m.getTranspositionSlots());
+					Path found = m.shortestPath(hasPlank);
+					assertEquals(expected, found.getDistance());
+					if(expected != Integer.MAX_VALUE)
+						assertEquals(end, found.lastPillar());
+				}
+			}
+		}
+	}
+
+	/**
+	 * On an open grid the table cuts most of the search
+	 */
+	@Test
+	public void testOpenGrid(){
+		int n = 5;
+		layout = TestLayouts.randomLayout(n, 1, r);
+		Pillar start = new Pillar(2,2);
+		Pillar end = new Pillar(0,0);
+		Maze plain = new Maze(n, layout, start, end);
+		Maze cut = new Maze(n, layout, start, end);
+		cut.setTransposition(true);
+		assertEquals(plain.shortestPath(false).getDistance(), cut.shortestPath(false).getDistance());
+		assertTrue(cut.getStats().getCuts() > 0);
+		assertTrue(cut.getStats().getExpanded() < plain.getStats().getExpanded());
+		assertEquals(0, plain.getStats().getCuts());
+	}
+}
@@ -0,0 +1,201 @@
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+/**
+ * Testing on WeightedLayout
+ * @author gmh73
+ *
+ */
+public class TestWeightedLayout {
+
+	/**
+	 * Bad data, costs below 1 or above MAX_COST, null layout and planks off the grid
+	 */
+	@Test
+	public void testBadData(){
+		try{
+			new WeightedLayout(3, 0);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			new WeightedLayout(3, null, 1);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+		WeightedLayout w = new WeightedLayout(3, 1);
+		try{
+			w.add(new Plank(new Pillar(0,0), new Pillar(1,0)), 0);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			w.add(new Plank(new Pillar(2,0), new Pillar(3,0)), 2);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			w.setPlankCost(-1);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			w.add(new Plank(new Pillar(0,0), new Pillar(1,0)), WeightedLayout.MAX_COST + 1);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		try{
+			w.setPlankCost(WeightedLayout.MAX_COST + 1);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(IndexOutOfBoundsException ie){
+			//We want this.
+		}
+		assertTrue(w.isEmpty());
+		w.add(new Plank(new Pillar(0,0), new Pillar(1,0)), WeightedLayout.MAX_COST);
+		assertEquals(WeightedLayout.MAX_COST, w.getMaxCost());
+	}
+
+	/**
+	 * Structural Basis
+	 * The max cost goes back down when the dearest plank is removed, made cheaper or removed by an iterator
+	 */
+	@Test
+	public void testMaxCostShrinks(){
+		WeightedLayout w = new WeightedLayout(3, 2);
+		Plank across = new Plank(new Pillar(0,0), new Pillar(1,0));
+		Plank down = new Plank(new Pillar(1,1), new Pillar(1,2));
+		w.add(across, 9);
+		w.add(down, 5);
+		assertEquals(9, w.getMaxCost());
+		w.remove(across);
+		assertEquals(5, w.getMaxCost());
+		w.add(down, 3);
+		assertEquals(3, w.getMaxCost());
+		w.setPlankCost(4);
+		assertEquals(4, w.getMaxCost());
+		w.setPlankCost(1);
+		Iterator<Plank> it = w.iterator();
+		it.next();
+		it.remove();
+		assertTrue(w.isEmpty());
+		assertEquals(1, w.getMaxCost());
+	}
+
+	/**
+	 * Structural Basis
+	 * Costs are kept per plank and found the same way by plank and by id and direction
+	 */
+	@Test
+	public void testCosts(){
+		WeightedLayout w = new WeightedLayout(3, 4);
+		Plank across = new Plank(new Pillar(1,1), new Pillar(2,1));
+		Plank down = new Plank(new Pillar(1,2), new Pillar(1,1));
+		assertTrue(w.add(across, 3));
+		assertTrue(w.add(down, 7));
+		assertFalse(w.add(across, 5));
+		assertEquals(2, w.size());
+		assertEquals(5, w.getCost(across));
+		assertEquals(7, w.getCost(down));
+		assertEquals(0, w.getCost(new Plank(new Pillar(0,0), new Pillar(1,0))));
+		assertEquals(4, w.getPlankCost());
+		assertEquals(7, w.getMaxCost());
+		//Pillar (1,1) has id 4
+		assertEquals(5, w.stepCost(4, Pillar.PLUS_X));
+		assertEquals(5, w.stepCost(5, Pillar.MINUS_X));
+		assertEquals(7, w.stepCost(4, Pillar.PLUS_Y));
+		assertEquals(7, w.stepCost(7, Pillar.MINUS_Y));
+		assertEquals(0, w.stepCost(4, Pillar.MINUS_X));
+		assertEquals(0, w.stepCost(4, Pillar.MINUS_Y));
+		w.remove(across);
+		assertEquals(0, w.getCost(across));
+		assertEquals(0, w.stepCost(4, Pillar.PLUS_X));
+		w.add(across);
+		assertEquals(1, w.getCost(across));
+		w.clear();
+		assertTrue(w.isEmpty());
+		assertEquals(4, w.getMaxCost());
+	}
+
+	/**
+	 * A copied layout has every plank at cost 1 and equals the set it came from
+	 */
+	@Test
+	public void testCopy(){
+		Set<Plank> layout = new HashSet<Plank>();
+		layout.add(new Plank(new Pillar(0,0), new Pillar(0,1)));
+		layout.add(new Plank(new Pillar(2,2), new Pillar(1,2)));
+		WeightedLayout w = new WeightedLayout(3, layout, 2);
+		assertEquals(layout, w);
+		for(Plank p : layout)
+			assertEquals(1, w.getCost(p));
+		assertEquals(2, w.getMaxCost());
+	}
+
+	/**
+	 * Copying a weighted layout keeps every cost, and later changes to either do not reach the other
+	 */
+	@Test
+	public void testCopyKeepsCosts(){
+		WeightedLayout w = new WeightedLayout(3, 6);
+		Plank across = new Plank(new Pillar(0,0), new Pillar(1,0));
+		Plank down = new Plank(new Pillar(1,1), new Pillar(1,2));
+		w.add(across, 4);
+		w.add(down, 9);
+		WeightedLayout copy = new WeightedLayout(w);
+		assertEquals(w, copy);
+		assertEquals(4, copy.getCost(across));
+		assertEquals(9, copy.getCost(down));
+		assertEquals(6, copy.getPlankCost());
+		assertEquals(9, copy.getMaxCost());
+		w.add(across, 2);
+		assertEquals(4, copy.getCost(across));
+		try{
+			new WeightedLayout(null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+
+	/**
+	 * The cost of a path adds up its planks, with the plank cost for the step it lays
+	 */
+	@Test
+	public void testCostOf(){
+		WeightedLayout w = new WeightedLayout(3, 6);
+		w.add(new Plank(new Pillar(0,0), new Pillar(1,0)), 4);
+		Path path = new Path();
+		path.addPillar(new Pillar(0,0));
+		assertEquals(0, w.costOf(path));
+		path.addPillar(new Pillar(1,0));
+		assertEquals(4, w.costOf(path));
+		path.addPillar(new Pillar(2,0));
+		path.setPlank(new Plank(new Pillar(1,0), new Pillar(2,0)));
+		assertEquals(10, w.costOf(path));
+		Path infinite = new Path();
+		infinite.setDistanceToInfinite();
+		assertEquals(Integer.MAX_VALUE, w.costOf(infinite));
+		//A path with no pillars costs nothing, whatever the layout
+		assertEquals(0, w.costOf(new Path()));
+		assertEquals(0, WeightedLayout.costOf(3, new HashSet<Plank>(), new Path()));
+		assertEquals(2, WeightedLayout.costOf(3, new HashSet<Plank>(), path));
+		try{
+			w.costOf(null);
+			fail("This line should not be reached as the above line should throw an exception.");
+		}catch(NullPointerException ne){
+			//We want this.
+		}
+	}
+}
@@ -0,0 +1,120 @@
+import java.util.Arrays;
+
+/**
+ * The shallowest depth a depth first search has reached each state (2*id + used) at, so a state
+ * reached again no shallower than before can be cut: the earlier visit already searched every way on
+ * from it that a shorter path could take.
+ * By default there is an int per state. A table with fewer slots than states keeps each state in
+ * a slot picked by hashing, and a state landing on another's slot replaces it, so the memory is
+ * bounded and a forgotten state is only searched again, never cut wrongly.
+ * @author gmh73
+ *
+ */
+public class TranspositionTable {
+	/* The depth of every state, Integer.MAX_VALUE if not reached, or null if the table is bounded*/
+	private final int[] depth;
+	/* For a bounded table, state << 32 | depth in each slot, or -1 for an empty slot*/
+	private final long[] slots;
+	/* slots.length - 1, for picking a slot from a hash*/
+	private final int mask;
+	/* How many visits were cut*/
+	private int cuts;
+
+	/**
+	 * Constructs a table with a slot for every state
+	 * @param states	the number of states, 2*n*n for an n x n grid
+	 */
+	public TranspositionTable(int states){
+		this(states, 0);
+	}
+
+	/**
+	 * Constructs a table that keeps at most maxSlots states
+	 * @param states	the number of states, 2*n*n for an n x n grid
+	 * @param maxSlots	the most states kept, rounded down to a power of two, or 0 for a slot for every state
+	 */
+	public TranspositionTable(int states, int maxSlots){
+		if(states < 1 || maxSlots < 0)
+			throw new IndexOutOfBoundsException("Given table size < 0.");
+		if(maxSlots == 0 || maxSlots >= states){
+			depth = new int[states];
+			slots = null;
+			mask = 0;
+		}else{
+			depth = null;
+			slots = new long[Integer.highestOneBit(maxSlots)];
+			mask = slots.length - 1;
+		}
+		clear();
+	}
+
+	/**
+	 * Checks if the table keeps fewer slots than there are states
+	 * @return	true if states may be forgotten
+	 */
+	public boolean isBounded(){
+		return slots != null;
+	}
+
+	/**
+	 * Gets the number of states the table can keep at once
+	 * @return	the number of slots
+	 */
+	public int capacity(){
+		return slots != null ? slots.length : depth.length;
+	}
+
+	/**
+	 * Records a visit to a state, unless it is no shallower than an earlier one
+	 * @param state	a state, 2*id + used
+	 * @param d	the depth of the visit
+	 * @return	returns true if the state should be searched, false if the visit is cut
+	 */
+	public boolean visit(int state, int d){
+		if(slots == null){
+			if(depth[state] <= d){
+				cuts++;
+				return false;
+			}
+			depth[state] = d;
+			return true;
+		}
+		int slot = hash(state) & mask;
+		long entry = slots[slot];
+		if(entry != -1 && (int) (entry >>> 32) == state && (int) entry <= d){
+			cuts++;
+			return false;
+		}
+		slots[slot] = ((long) state << 32) | d;
+		return true;
+	}
+
+	/**
+	 * Spreads the bits of a state so neighbouring states land in unrelated slots
+	 * @param state	a state
+	 * @return	returns the mixed state
+	 */
+	private static int hash(int state){
+		int h = state * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Gets how many visits were cut since the table was cleared
+	 * @return	the number of cut visits
+	 */
+	public int getCuts(){
+		return cuts;
+	}
+
+	/**
+	 * Forgets every state, for a new search
+	 */
+	public void clear(){
+		if(slots == null)
+			Arrays.fill(depth, Integer.MAX_VALUE);
+		else
+			Arrays.fill(slots, -1);
+		cuts = 0;
+	}
+}
@@ -0,0 +1,236 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A PlankGrid where every plank has a cost to walk across, and laying the extra plank
+ * has a cost of its own. The costs are kept in two int arrays indexed by the id (y*n + x)
+ * of the pillar at the low end of the plank, one for planks along x and one for planks along y,
+ * so a cost is found without building a Plank.
+ * Planks added without a cost cost 1, so an unweighted layout is a WeightedLayout with every cost 1.
+ * @author gmh73
+ *
+ */
+public class WeightedLayout extends PlankGrid {
+	/* The largest cost of a plank or of laying the extra plank, so DijkstraSolver's bucket queue has at most MAX_COST + 1 buckets*/
+	public static final int MAX_COST = 1 << 16;
+	/* xCosts[id] is the cost of the plank from id to id + 1*/
+	private final int[] xCosts;
+	/* yCosts[id] is the cost of the plank from id to id + n*/
+	private final int[] yCosts;
+	/* The cost of laying the extra plank*/
+	private int plankCost;
+	/* The largest cost of any plank in the layout or of laying the extra plank, when it was last worked out*/
+	private int maxCost;
+	/* true if a cost has changed since maxCost was worked out*/
+	private boolean maxCostStale;
+	/* The fingerprint of the layout when maxCost was worked out, which changes when a plank is added or removed*/
+	private LayoutFingerprint maxCostFingerprint;
+
+	/**
+	 * Constructs an empty weighted layout for an n x n grid
+	 * @param n	the length and width of the grid of pillars
+	 * @param plankCost	the cost of laying the extra plank, from 1 to MAX_COST
+	 */
+	public WeightedLayout(int n, int plankCost){
+		super(n);
+		xCosts = new int[n * n];
+		yCosts = new int[n * n];
+		setPlankCost(plankCost);
+	}
+
+	/**
+	 * Converts a layout set into a weighted layout where every plank costs 1
+	 * @param n	the length and width of the grid of pillars
+	 * @param layout	a set of planks between adjacent pillars of the grid
+	 * @param plankCost	the cost of laying the extra plank, from 1 to MAX_COST
+	 */
+	public WeightedLayout(int n, Set<Plank> layout, int plankCost){
+		this(n, plankCost);
+		if(layout == null)
+			throw new NullPointerException("Given layout is null.");
+		for(Plank p : layout)
+			add(p);
+	}
+
+	/**
+	 * Copies a weighted layout, keeping the cost of every plank and of laying the extra plank
+	 * @param other	a weighted layout
+	 */
+	public WeightedLayout(WeightedLayout other){
+		this(lengthOf(other), other.getPlankCost());
+		for(Plank p : other)
+			add(p, other.getCost(p));
+	}
+
+	/**
+	 * Gets the length of a weighted layout, checking it is there first
+	 * @param weights	a weighted layout
+	 * @return	returns the length and width of its grid
+	 */
+	private static int lengthOf(WeightedLayout weights){
+		if(weights == null)
+			throw new NullPointerException("Given layout is null.");
+		return weights.getLength();
+	}
+
+	/**
+	 * Throws exception if a cost is less than 1 or more than MAX_COST
+	 * @param cost	a cost
+	 */
+	private void checkCost(int cost){
+		if(cost < 1)
+			throw new IndexOutOfBoundsException("Given cost < 1.");
+		if(cost > MAX_COST)
+			throw new IndexOutOfBoundsException("Given cost > " + MAX_COST + ".");
+	}
+
+	/**
+	 * Gets the cost of laying the extra plank
+	 * @return	the cost of the step that lays the extra plank
+	 */
+	public int getPlankCost(){
+		return plankCost;
+	}
+
+	/**
+	 * Sets the cost of laying the extra plank
+	 * @param plankCost	the cost of the step that lays the extra plank, from 1 to MAX_COST
+	 */
+	public void setPlankCost(int plankCost){
+		checkCost(plankCost);
+		this.plankCost = plankCost;
+		maxCostStale = true;
+	}
+
+	/**
+	 * Gets the largest cost of one step, for sizing a bucket queue. It is worked out again,
+	 * in O(n^2), the first time it is asked for after the layout or a cost has changed,
+	 * so it goes down as well as up. Planks added or removed are noticed by the layout's fingerprint, so a
+	 * collision (see LayoutFingerprint) keeps the old value
+	 * @return	the largest cost of any plank in the layout or of laying the extra plank
+	 */
+	public synchronized int getMaxCost(){
+		LayoutFingerprint now = getFingerprint();
+		if(maxCostStale || !now.equals(maxCostFingerprint)){
+			int n = getLength();
+			int max = plankCost;
+			//Removed planks keep their old costs in the arrays, so only planks in the layout count
+			for(int id = 0; id < n * n; id++){
+				if(id % n != n - 1 && isConnected(id, id + 1))
+					max = Math.max(max, xCosts[id]);
+				if(id / n != n - 1 && isConnected(id, id + n))
+					max = Math.max(max, yCosts[id]);
+			}
+			maxCost = max;
+			maxCostFingerprint = now;
+			maxCostStale = false;
+		}
+		return maxCost;
+	}
+
+	@Override
+	public boolean add(Plank p){
+		return add(p, 1);
+	}
+
+	/**
+	 * Adds a plank with a cost, or changes the cost of a plank already in the layout
+	 * @param p	a plank between adjacent pillars of the grid
+	 * @param cost	the cost of walking across p, from 1 to MAX_COST
+	 * @return	returns true if p was not in the layout before
+	 */
+	public boolean add(Plank p, int cost){
+		checkCost(cost);
+		boolean added = super.add(p);
+		Pillar low = p.getFirstPillar();
+		int id = low.getYCor() * getLength() + low.getXCor();
+		if(low.getYCor() == p.getSecondPillar().getYCor())
+			xCosts[id] = cost;
+		else
+			yCosts[id] = cost;
+		maxCostStale = true;
+		return added;
+	}
+
+	/**
+	 * Gets the cost of a plank in the layout
+	 * @param p	a plank
+	 * @return	returns the cost of walking across p, or 0 if p is not in the layout
+	 */
+	public int getCost(Plank p){
+		if(!contains(p))
+			return 0;
+		Pillar low = p.getFirstPillar();
+		int id = low.getYCor() * getLength() + low.getXCor();
+		return low.getYCor() == p.getSecondPillar().getYCor() ? xCosts[id] : yCosts[id];
+	}
+
+	/**
+	 * Gets the cost of the step from a pillar in a direction, without building a Plank
+	 * @param id	a pillar id
+	 * @param direction	one of Pillar.PLUS_X, PLUS_Y, MINUS_X or MINUS_Y, toward a pillar on the grid
+	 * @return	returns the cost of the plank that way, or 0 if there is no plank
+	 */
+	public int stepCost(int id, int direction){
+		int n = getLength();
+		switch(direction){
+		case Pillar.PLUS_X:
+			return isConnected(id, id + 1) ? xCosts[id] : 0;
+		case Pillar.PLUS_Y:
+			return isConnected(id, id + n) ? yCosts[id] : 0;
+		case Pillar.MINUS_X:
+			return isConnected(id, id - 1) ? xCosts[id - 1] : 0;
+		default:
+			return isConnected(id, id - n) ? yCosts[id - n] : 0;
+		}
+	}
+
+	/**
+	 * Gets the cost of walking a path across this layout, where a step off the layout lays an extra plank
+	 * @param path	a path on this grid
+	 * @return	returns the total cost of the steps of path, or Integer.MAX_VALUE if path is infinite
+	 */
+	public int costOf(Path path){
+		if(path == null)
+			throw new NullPointerException("Given input is null.");
+		if(path.isSameDistance(Integer.MAX_VALUE))
+			return Integer.MAX_VALUE;
+		int total = 0;
+		Pillar prev = null;
+		for(Pillar p : path.pillarList()){
+			if(prev != null){
+				int cost = getCost(new Plank(prev, p));
+				total += cost != 0 ? cost : plankCost;
+			}
+			prev = p;
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the cost of a path across a layout, with the layout's costs if it is a WeightedLayout
+	 * for the grid and every step costing 1 if not, as the DIJKSTRA engine weighs it
+	 * @param n	the length and width of the grid of pillars
+	 * @param layout	the set of planks in the grid
+	 * @param path	a path on the grid
+	 * @return	returns the total cost of the steps of path, or Integer.MAX_VALUE if path is infinite
+	 */
+	static int costOf(int n, Set<Plank> layout, Path path){
+		if(layout instanceof WeightedLayout && ((WeightedLayout) layout).getLength() == n)
+			return ((WeightedLayout) layout).costOf(path);
+		if(path == null)
+			throw new NullPointerException("Given input is null.");
+		if(path.isSameDistance(Integer.MAX_VALUE))
+			return Integer.MAX_VALUE;
+		//A path with no pillars has no steps, the same as one with a single pillar
+		return Math.max(0, path.pillarList().size() - 1);
+	}
+
+	@Override
+	public void clear(){
+		super.clear();
+		Arrays.fill(xCosts, 0);
+		Arrays.fill(yCosts, 0);
+		maxCostStale = true;
+	}
+}